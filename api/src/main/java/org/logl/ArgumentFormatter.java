@@ -0,0 +1,60 @@
+package org.logl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+
+/**
+ * Formats arguments of a pattern format message, as created by {@link LogMessage#patternFormat(String, Object...)} or
+ * by the {@link Logger} methods that take a pattern and arguments.
+ *
+ * <p>
+ * By default, arguments are formatted using their {@code toString()} method. Registering a formatter for a type allows
+ * arguments of that type (or of its subtypes) to be appended directly to the log, without creating an intermediate
+ * string. For example,
+ *
+ * <pre>
+ * ArgumentFormatter.register(AccountId.class, (id, out) -&gt; out.append(id.region()).append(':').append(id.name()));
+ * </pre>
+ *
+ * <p>
+ * Numbers, character sequences and arrays of primitives are already appended without allocation, standard collections
+ * and maps are appended element by element, and {@link LogMessage} arguments, such as those created by
+ * {@link LogMessage#hex(byte[])}, are appended in place. Arguments passed to
+ * the logging methods as primitive {@code long} or {@code double} values are always formatted as decimal numbers.
+ *
+ * @param <T> The type of argument formatted.
+ */
+@FunctionalInterface
+public interface ArgumentFormatter<T> {
+
+  /**
+   * Register a formatter for arguments of a type.
+   *
+   * <p>
+   * The formatter will be used for arguments that are instances of the type or of its subtypes, unless a formatter is
+   * registered for a more specific type. If there is already a formatter registered for exactly this type, it will be
+   * replaced.
+   *
+   * @param type The type of argument formatted.
+   * @param formatter The formatter.
+   * @param <T> The type of argument formatted.
+   */
+  static <T> void register(Class<T> type, ArgumentFormatter<? super T> formatter) {
+    requireNonNull(type);
+    requireNonNull(formatter);
+    ArgumentFormatters.register(type, formatter);
+  }
+
+  /**
+   * Append an argument to a log message.
+   *
+   * <p>
+   * The formatter may be invoked concurrently by multiple threads.
+   *
+   * @param value The argument, which will not be {@code null}.
+   * @param appendable The {@link Appendable} to append to.
+   * @throws IOException If any of the appendable methods throw an {@code IOException}.
+   */
+  void formatTo(T value, Appendable appendable) throws IOException;
+}
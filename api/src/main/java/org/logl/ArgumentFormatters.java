@@ -0,0 +1,231 @@
+package org.logl;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The registry of {@link ArgumentFormatter} instances.
+ *
+ * <p>
+ * The formatter for each argument class is resolved once and held in a {@link ClassValue}, so looking up the formatter
+ * for an argument does not allocate. Registering a formatter invalidates all resolved formatters, as it may apply to
+ * subtypes of the registered type.
+ */
+final class ArgumentFormatters {
+  private static final ArgumentFormatter<Number> LONG =
+      (value, appendable) -> MessageFormatter.appendLong(appendable, value.longValue());
+  private static final ArgumentFormatter<Number> DOUBLE =
+      (value, appendable) -> MessageFormatter.appendDouble(appendable, value.doubleValue());
+  private static final ArgumentFormatter<Float> FLOAT =
+      (value, appendable) -> MessageFormatter.appendFloat(appendable, value);
+  private static final ArgumentFormatter<CharSequence> CHAR_SEQUENCE = (value, appendable) -> appendable.append(value);
+  private static final ArgumentFormatter<Collection<?>> COLLECTION =
+      (value, appendable) -> MessageFormatter.appendCollection(appendable, value);
+  private static final ArgumentFormatter<Map<?, ?>> MAP =
+      (value, appendable) -> MessageFormatter.appendMap(appendable, value);
+  private static final ArgumentFormatter<boolean[]> BOOLEAN_ARRAY =
+      (value, appendable) -> MessageFormatter.appendBooleanArray(appendable, value);
+  private static final ArgumentFormatter<byte[]> BYTE_ARRAY =
+      (value, appendable) -> MessageFormatter.appendByteArray(appendable, value);
+  private static final ArgumentFormatter<char[]> CHAR_ARRAY =
+      (value, appendable) -> MessageFormatter.appendCharArray(appendable, value);
+  private static final ArgumentFormatter<short[]> SHORT_ARRAY =
+      (value, appendable) -> MessageFormatter.appendShortArray(appendable, value);
+  private static final ArgumentFormatter<int[]> INT_ARRAY =
+      (value, appendable) -> MessageFormatter.appendIntArray(appendable, value);
+  private static final ArgumentFormatter<long[]> LONG_ARRAY =
+      (value, appendable) -> MessageFormatter.appendLongArray(appendable, value);
+  private static final ArgumentFormatter<float[]> FLOAT_ARRAY =
+      (value, appendable) -> MessageFormatter.appendFloatArray(appendable, value);
+  private static final ArgumentFormatter<double[]> DOUBLE_ARRAY =
+      (value, appendable) -> MessageFormatter.appendDoubleArray(appendable, value);
+
+  private static final ConcurrentHashMap<Class<?>, ArgumentFormatter<?>> registered = new ConcurrentHashMap<>();
+  private static volatile int generation = 0;
+
+  private static final ClassValue<Resolved> resolved = new ClassValue<Resolved>() {
+    @Override
+    protected Resolved computeValue(Class<?> type) {
+      // read the generation first, so that a concurrent registration results in the formatter being resolved again
+      int currentGeneration = generation;
+      ArgumentFormatter<?> formatter = findRegistered(type);
+      boolean custom = (formatter != null);
+      if (!custom) {
+        formatter = builtIn(type);
+      }
+      boolean matchesToString = !custom && formatter != null && !type.isArray();
+      return new Resolved(currentGeneration, formatter, custom, matchesToString);
+    }
+  };
+
+  private ArgumentFormatters() {}
+
+  static synchronized void register(Class<?> type, ArgumentFormatter<?> formatter) {
+    registered.put(type, formatter);
+    generation++;
+  }
+
+  /**
+   * Find the formatter for arguments of a class.
+   *
+   * @param type The class of the argument.
+   * @return The formatter, or {@code null} if the argument should be formatted using its {@code toString()} method.
+   */
+  @SuppressWarnings("unchecked")
+  static ArgumentFormatter<Object> forClass(Class<?> type) {
+    return (ArgumentFormatter<Object>) resolve(type).formatter;
+  }
+
+  /**
+   * Find a built-in formatter for elements of a collection, which produces the same output as {@code toString()}.
+   *
+   * @param type The class of the element.
+   * @return The formatter, or {@code null} if the element should be formatted using its {@code toString()} method.
+   */
+  @SuppressWarnings("unchecked")
+  static ArgumentFormatter<Object> forElement(Class<?> type) {
+    Resolved value = resolve(type);
+    return value.matchesToString ? (ArgumentFormatter<Object>) value.formatter : null;
+  }
+
+  /**
+   * @param type The class of the argument.
+   * @return {@code true} if arguments of the class are formatted by a registered formatter.
+   */
+  static boolean isRegistered(Class<?> type) {
+    return resolve(type).custom;
+  }
+
+  private static Resolved resolve(Class<?> type) {
+    Resolved value = resolved.get(type);
+    if (value.generation != generation) {
+      resolved.remove(type);
+      value = resolved.get(type);
+    }
+    return value;
+  }
+
+  // the formatter registered for the most specific superclass, or failing that, for any interface
+  private static ArgumentFormatter<?> findRegistered(Class<?> type) {
+    if (registered.isEmpty()) {
+      return null;
+    }
+    for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+      ArgumentFormatter<?> formatter = registered.get(c);
+      if (formatter != null) {
+        return formatter;
+      }
+    }
+    Queue<Class<?>> interfaces = new ArrayDeque<>();
+    Set<Class<?>> visited = new HashSet<>();
+    for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+      for (Class<?> i : c.getInterfaces()) {
+        interfaces.add(i);
+      }
+    }
+    while (!interfaces.isEmpty()) {
+      Class<?> i = interfaces.remove();
+      if (!visited.add(i)) {
+        continue;
+      }
+      ArgumentFormatter<?> formatter = registered.get(i);
+      if (formatter != null) {
+        return formatter;
+      }
+      for (Class<?> superInterface : i.getInterfaces()) {
+        interfaces.add(superInterface);
+      }
+    }
+    return null;
+  }
+
+  // formatters for types whose toString() output can be reproduced without allocation, and for nested messages
+  private static ArgumentFormatter<?> builtIn(Class<?> type) {
+    if (type == Integer.class || type == Long.class || type == Short.class || type == Byte.class) {
+      return LONG;
+    }
+    if (type == Double.class) {
+      return DOUBLE;
+    }
+    if (type == Float.class) {
+      return FLOAT;
+    }
+    // subclasses of these may override toString()
+    if (type == AtomicInteger.class || type == AtomicLong.class || type == LongAdder.class) {
+      return LONG;
+    }
+    if (type == DoubleAdder.class) {
+      return DOUBLE;
+    }
+    // other sequences may override toString()
+    if (type == String.class || type == StringBuilder.class || type == StringBuffer.class) {
+      return CHAR_SEQUENCE;
+    }
+    // collections are rendered element by element, so that rendering stops once output is being truncated
+    if (inheritsToString(type, AbstractCollection.class)) {
+      return COLLECTION;
+    }
+    if (inheritsToString(type, AbstractMap.class)) {
+      return MAP;
+    }
+    if (!type.isArray()) {
+      return null;
+    }
+    if (type == boolean[].class) {
+      return BOOLEAN_ARRAY;
+    } else if (type == byte[].class) {
+      return BYTE_ARRAY;
+    } else if (type == char[].class) {
+      return CHAR_ARRAY;
+    } else if (type == short[].class) {
+      return SHORT_ARRAY;
+    } else if (type == int[].class) {
+      return INT_ARRAY;
+    } else if (type == long[].class) {
+      return LONG_ARRAY;
+    } else if (type == float[].class) {
+      return FLOAT_ARRAY;
+    } else if (type == double[].class) {
+      return DOUBLE_ARRAY;
+    }
+    // object arrays are formatted element by element
+    return null;
+  }
+
+  private static boolean inheritsToString(Class<?> type, Class<?> base) {
+    if (!base.isAssignableFrom(type)) {
+      return false;
+    }
+    try {
+      return type.getMethod("toString").getDeclaringClass() == base;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  private static final class Resolved {
+    final int generation;
+    final ArgumentFormatter<?> formatter;
+    final boolean custom;
+    // whether the formatter produces the same output as toString()
+    final boolean matchesToString;
+
+    Resolved(int generation, ArgumentFormatter<?> formatter, boolean custom, boolean matchesToString) {
+      this.generation = generation;
+      this.formatter = formatter;
+      this.custom = custom;
+      this.matchesToString = matchesToString;
+    }
+  }
+}
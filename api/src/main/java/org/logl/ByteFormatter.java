@@ -0,0 +1,102 @@
+package org.logl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Table-driven rendering of the remaining bytes of a {@link ByteBuffer} as hexadecimal, base64 or a hex dump.
+ *
+ * <p>
+ * Bytes are read using absolute gets, so neither the buffer position nor its content is modified, and direct buffers
+ * are never copied to the heap. At most {@code maxBytes} bytes are rendered, followed by a marker giving the total
+ * length if the buffer was truncated.
+ */
+final class ByteFormatter {
+  static final int DEFAULT_MAX_BYTES = 1024;
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+  private static final char[] BASE64_DIGITS =
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+  private static final String LINE_SEPARATOR = System.lineSeparator();
+  private static final int DUMP_LINE_BYTES = 16;
+
+  private ByteFormatter() {}
+
+  static void appendHex(ByteBuffer buffer, int maxBytes, Appendable appendable) throws IOException {
+    int start = buffer.position();
+    int end = start + Math.min(buffer.remaining(), maxBytes);
+    for (int i = start; i < end; ++i) {
+      int b = buffer.get(i);
+      appendable.append(HEX_DIGITS[(b >> 4) & 0xf]);
+      appendable.append(HEX_DIGITS[b & 0xf]);
+    }
+    appendTruncation(buffer, maxBytes, appendable);
+  }
+
+  static void appendBase64(ByteBuffer buffer, int maxBytes, Appendable appendable) throws IOException {
+    int start = buffer.position();
+    int end = start + Math.min(buffer.remaining(), maxBytes);
+    int i = start;
+    for (; i + 2 < end; i += 3) {
+      int bits = (buffer.get(i) & 0xff) << 16 | (buffer.get(i + 1) & 0xff) << 8 | (buffer.get(i + 2) & 0xff);
+      appendable.append(BASE64_DIGITS[bits >>> 18]);
+      appendable.append(BASE64_DIGITS[(bits >>> 12) & 0x3f]);
+      appendable.append(BASE64_DIGITS[(bits >>> 6) & 0x3f]);
+      appendable.append(BASE64_DIGITS[bits & 0x3f]);
+    }
+    int remaining = end - i;
+    if (remaining > 0) {
+      int bits = (buffer.get(i) & 0xff) << 16 | ((remaining == 2) ? (buffer.get(i + 1) & 0xff) << 8 : 0);
+      appendable.append(BASE64_DIGITS[bits >>> 18]);
+      appendable.append(BASE64_DIGITS[(bits >>> 12) & 0x3f]);
+      appendable.append((remaining == 2) ? BASE64_DIGITS[(bits >>> 6) & 0x3f] : '=');
+      appendable.append('=');
+    }
+    appendTruncation(buffer, maxBytes, appendable);
+  }
+
+  // each line starts with a line separator, so that the dump follows the text of the log line
+  static void appendHexDump(ByteBuffer buffer, int maxBytes, Appendable appendable) throws IOException {
+    int start = buffer.position();
+    int length = Math.min(buffer.remaining(), maxBytes);
+    for (int offset = 0; offset < length; offset += DUMP_LINE_BYTES) {
+      appendable.append(LINE_SEPARATOR);
+      for (int shift = 28; shift >= 0; shift -= 4) {
+        appendable.append(HEX_DIGITS[(offset >>> shift) & 0xf]);
+      }
+      appendable.append(' ');
+      int lineBytes = Math.min(DUMP_LINE_BYTES, length - offset);
+      for (int i = 0; i < DUMP_LINE_BYTES; ++i) {
+        if (i % 8 == 0) {
+          appendable.append(' ');
+        }
+        if (i < lineBytes) {
+          int b = buffer.get(start + offset + i);
+          appendable.append(HEX_DIGITS[(b >> 4) & 0xf]);
+          appendable.append(HEX_DIGITS[b & 0xf]);
+          appendable.append(' ');
+        } else {
+          appendable.append("   ");
+        }
+      }
+      appendable.append(" |");
+      for (int i = 0; i < lineBytes; ++i) {
+        int b = buffer.get(start + offset + i);
+        appendable.append((b >= 0x20 && b < 0x7f) ? (char) b : '.');
+      }
+      appendable.append('|');
+    }
+    if (buffer.remaining() > maxBytes) {
+      appendable.append(LINE_SEPARATOR);
+      appendTruncation(buffer, maxBytes, appendable);
+    }
+  }
+
+  private static void appendTruncation(ByteBuffer buffer, int maxBytes, Appendable appendable) throws IOException {
+    if (buffer.remaining() > maxBytes) {
+      appendable.append("...(");
+      MessageFormatter.appendLong(appendable, buffer.remaining());
+      appendable.append(" bytes)");
+    }
+  }
+}
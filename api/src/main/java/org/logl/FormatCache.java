@@ -0,0 +1,185 @@
+package org.logl;
+
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.Formatter;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches of parsed {@link MessageFormat} and reusable {@link Formatter} instances.
+ *
+ * <p>
+ * Parsed message formats are shared as prototypes, in a bounded cache keyed by pattern and locale. As
+ * {@link MessageFormat} is not thread safe, each thread formats using its own clones of the prototypes, held in a small
+ * direct-mapped cache keyed by the identity of the pattern string.
+ */
+final class FormatCache {
+  private static final int MAX_PROTOTYPES = 1024;
+  private static final int THREAD_CACHE_SIZE = 64;
+
+  private static final ConcurrentHashMap<Key, MessageFormat> prototypes = new ConcurrentHashMap<>();
+  private static final ThreadLocal<ThreadFormats> threadFormats = ThreadLocal.withInitial(ThreadFormats::new);
+
+  private FormatCache() {}
+
+  /**
+   * Format a message using a {@link MessageFormat} pattern, appending the output to an {@link Appendable}.
+   *
+   * @param pattern The pattern string.
+   * @param locale The locale to format for.
+   * @param args The pattern arguments.
+   * @param appendable The {@link Appendable} to append to.
+   * @throws IOException If any of the appendable methods throw an {@code IOException}.
+   */
+  static void messageFormat(String pattern, Locale locale, Object[] args, Appendable appendable) throws IOException {
+    ThreadFormats formats = threadFormats.get();
+    if (formats.inUse) {
+      // an argument being formatted by this thread is itself logging
+      formatTo(new MessageFormat(pattern, locale), args, appendable);
+      return;
+    }
+    formats.inUse = true;
+    try {
+      MessageFormat messageFormat = formats.messageFormat(pattern, locale);
+      if (appendable instanceof StringBuffer) {
+        messageFormat.format(args, (StringBuffer) appendable, null);
+      } else {
+        StringBuffer buffer = formats.buffer;
+        buffer.setLength(0);
+        messageFormat.format(args, buffer, null);
+        appendable.append(buffer);
+      }
+    } finally {
+      formats.release();
+    }
+  }
+
+  /**
+   * Format a message using a {@link Formatter} format string, appending the output to an {@link Appendable}.
+   *
+   * <p>
+   * Format strings using only common specifiers are rendered directly by a compiled {@link PrintfFormat}.
+   *
+   * @param format The format string.
+   * @param locale The locale to format for.
+   * @param args The format arguments.
+   * @param appendable The {@link Appendable} to append to.
+   * @throws IOException If any of the appendable methods throw an {@code IOException}.
+   */
+  static void stringFormat(String format, Locale locale, Object[] args, Appendable appendable) throws IOException {
+    if (PrintfFormat.forFormat(format).formatTo(locale, args, appendable)) {
+      return;
+    }
+    ThreadFormats formats = threadFormats.get();
+    if (formats.inUse) {
+      // an argument being formatted by this thread is itself logging
+      new Formatter(appendable).format(locale, format, args);
+      return;
+    }
+    formats.inUse = true;
+    try {
+      StringBuilder builder = formats.builder;
+      builder.setLength(0);
+      formats.formatter.format(locale, format, args);
+      appendable.append(builder);
+    } finally {
+      formats.release();
+    }
+  }
+
+  private static void formatTo(MessageFormat messageFormat, Object[] args, Appendable appendable) throws IOException {
+    if (appendable instanceof StringBuffer) {
+      messageFormat.format(args, (StringBuffer) appendable, null);
+    } else {
+      appendable.append(messageFormat.format(args));
+    }
+  }
+
+  // visible for testing
+  static MessageFormat threadMessageFormat(String pattern, Locale locale) {
+    return threadFormats.get().messageFormat(pattern, locale);
+  }
+
+  // visible for testing
+  static MessageFormat prototype(String pattern, Locale locale) {
+    Key key = new Key(pattern, locale);
+    MessageFormat prototype = prototypes.get(key);
+    if (prototype == null) {
+      prototype = new MessageFormat(pattern, locale);
+      if (prototypes.size() >= MAX_PROTOTYPES) {
+        prototypes.clear();
+      }
+      prototypes.put(key, prototype);
+    }
+    return prototype;
+  }
+
+  private static final class ThreadFormats {
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+    private final String[] patterns = new String[THREAD_CACHE_SIZE];
+    private final Locale[] locales = new Locale[THREAD_CACHE_SIZE];
+    private final MessageFormat[] messageFormats = new MessageFormat[THREAD_CACHE_SIZE];
+    private StringBuffer buffer = new StringBuffer(128);
+    private StringBuilder builder = new StringBuilder(128);
+    private Formatter formatter = new Formatter(builder);
+    private boolean inUse = false;
+
+    MessageFormat messageFormat(String pattern, Locale locale) {
+      int h = System.identityHashCode(pattern) ^ locale.hashCode();
+      int index = (h ^ (h >>> 16)) & (THREAD_CACHE_SIZE - 1);
+      if (patterns[index] == pattern && locale.equals(locales[index])) {
+        return messageFormats[index];
+      }
+      // the prototype is never formatted with, so it is safe to clone concurrently
+      MessageFormat messageFormat = (MessageFormat) prototype(pattern, locale).clone();
+      patterns[index] = pattern;
+      locales[index] = locale;
+      messageFormats[index] = messageFormat;
+      return messageFormat;
+    }
+
+    void release() {
+      if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+        buffer = new StringBuffer(128);
+      } else {
+        buffer.setLength(0);
+      }
+      if (builder.capacity() > MAX_RETAINED_CAPACITY) {
+        builder = new StringBuilder(128);
+        formatter = new Formatter(builder);
+      } else {
+        builder.setLength(0);
+      }
+      inUse = false;
+    }
+  }
+
+  private static final class Key {
+    private final String pattern;
+    private final Locale locale;
+
+    Key(String pattern, Locale locale) {
+      this.pattern = pattern;
+      this.locale = locale;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return pattern.equals(other.pattern) && locale.equals(other.locale);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * pattern.hashCode() + locale.hashCode();
+    }
+  }
+}
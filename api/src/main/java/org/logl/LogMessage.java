@@ -4,8 +4,8 @@ import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.ByteBuffer;
 import java.text.MessageFormat;
-import java.util.Formatter;
 import java.util.Locale;
 
 /**
@@ -32,7 +32,7 @@ public interface LogMessage {
         ((PrintWriter) a).format(l, format, args);
         return;
       }
-      new Formatter(a).format(l, format, args);
+      FormatCache.stringFormat(format, l, args, a);
     };
   }
 
@@ -49,14 +49,7 @@ public interface LogMessage {
    */
   static LogMessage messageFormat(String pattern, Object... args) {
     requireNonNull(pattern);
-    return (l, a) -> {
-      MessageFormat messageFormat = new MessageFormat(pattern, l);
-      if (a instanceof StringBuffer) {
-        messageFormat.format(args, (StringBuffer) a, null);
-      } else {
-        a.append(messageFormat.format(args));
-      }
-    };
+    return (l, a) -> FormatCache.messageFormat(pattern, l, args, a);
   }
 
   /**
@@ -116,7 +109,182 @@ public interface LogMessage {
    */
   static LogMessage patternFormat(String pattern, Object... args) {
     requireNonNull(pattern);
-    return (l, a) -> MessageFormatter.formatTo(pattern, args, a);
+    return (l, a) -> MessageFormatter.formatTo(pattern, l, args, a);
+  }
+
+  /**
+   * Construct a {@link LogMessage} that renders bytes as hexadecimal, as two lowercase digits per byte.
+   *
+   * <p>
+   * The message may be logged directly, or passed as an argument of a pattern format message. At most 1024 bytes are
+   * rendered, followed by the total length if the bytes were truncated.
+   *
+   * @param bytes The bytes to render, which should not be modified while the log is being written.
+   * @return A {@link LogMessage} instance.
+   */
+  static LogMessage hex(byte[] bytes) {
+    return hex(bytes, ByteFormatter.DEFAULT_MAX_BYTES);
+  }
+
+  /**
+   * Construct a {@link LogMessage} that renders bytes as hexadecimal.
+   *
+   * @param bytes The bytes to render, which should not be modified while the log is being written.
+   * @param maxBytes The maximum number of bytes to render.
+   * @return A {@link LogMessage} instance.
+   * @see #hex(byte[])
+   */
+  static LogMessage hex(byte[] bytes, int maxBytes) {
+    requireNonNull(bytes);
+    return hex(ByteBuffer.wrap(bytes), maxBytes);
+  }
+
+  /**
+   * Construct a {@link LogMessage} that renders the remaining bytes of a buffer as hexadecimal.
+   *
+   * <p>
+   * The bytes are read without modifying the position of the buffer, and direct buffers are not copied to the heap.
+   *
+   * @param buffer The buffer to render, which should not be modified while the log is being written.
+   * @return A {@link LogMessage} instance.
+   * @see #hex(byte[])
+   */
+  static LogMessage hex(ByteBuffer buffer) {
+    return hex(buffer, ByteFormatter.DEFAULT_MAX_BYTES);
+  }
+
+  /**
+   * Construct a {@link LogMessage} that renders the remaining bytes of a buffer as hexadecimal.
+   *
+   * @param buffer The buffer to render, which should not be modified while the log is being written.
+   * @param maxBytes The maximum number of bytes to render.
+   * @return A {@link LogMessage} instance.
+   * @see #hex(ByteBuffer)
+   */
+  static LogMessage hex(ByteBuffer buffer, int maxBytes) {
+    requireNonNull(buffer);
+    if (maxBytes < 0) {
+      throw new IllegalArgumentException("Max bytes must not be negative");
+    }
+    return (l, a) -> ByteFormatter.appendHex(buffer, maxBytes, a);
+  }
+
+  /**
+   * Construct a {@link LogMessage} that renders bytes as base64, using the standard alphabet with padding.
+   *
+   * <p>
+   * The message may be logged directly, or passed as an argument of a pattern format message. At most 1024 bytes are
+   * rendered, followed by the total length if the bytes were truncated.
+   *
+   * @param bytes The bytes to render, which should not be modified while the log is being written.
+   * @return A {@link LogMessage} instance.
+   */
+  static LogMessage base64(byte[] bytes) {
+    return base64(bytes, ByteFormatter.DEFAULT_MAX_BYTES);
+  }
+
+  /**
+   * Construct a {@link LogMessage} that renders bytes as base64.
+   *
+   * @param bytes The bytes to render, which should not be modified while the log is being written.
+   * @param maxBytes The maximum number of bytes to render.
+   * @return A {@link LogMessage} instance.
+   * @see #base64(byte[])
+   */
+  static LogMessage base64(byte[] bytes, int maxBytes) {
+    requireNonNull(bytes);
+    return base64(ByteBuffer.wrap(bytes), maxBytes);
+  }
+
+  /**
+   * Construct a {@link LogMessage} that renders the remaining bytes of a buffer as base64.
+   *
+   * <p>
+   * The bytes are read without modifying the position of the buffer, and direct buffers are not copied to the heap.
+   *
+   * @param buffer The buffer to render, which should not be modified while the log is being written.
+   * @return A {@link LogMessage} instance.
+   * @see #base64(byte[])
+   */
+  static LogMessage base64(ByteBuffer buffer) {
+    return base64(buffer, ByteFormatter.DEFAULT_MAX_BYTES);
+  }
+
+  /**
+   * Construct a {@link LogMessage} that renders the remaining bytes of a buffer as base64.
+   *
+   * @param buffer The buffer to render, which should not be modified while the log is being written.
+   * @param maxBytes The maximum number of bytes to render.
+   * @return A {@link LogMessage} instance.
+   * @see #base64(ByteBuffer)
+   */
+  static LogMessage base64(ByteBuffer buffer, int maxBytes) {
+    requireNonNull(buffer);
+    if (maxBytes < 0) {
+      throw new IllegalArgumentException("Max bytes must not be negative");
+    }
+    return (l, a) -> ByteFormatter.appendBase64(buffer, maxBytes, a);
+  }
+
+  /**
+   * Construct a {@link LogMessage} that renders bytes as a hex dump.
+   *
+   * <p>
+   * The dump has 16 bytes per line, each line showing the offset, the bytes in hexadecimal and their printable ASCII
+   * characters. Each line is preceded by a line separator, so that the dump starts on a new line.
+   *
+   * <p>
+   * The message may be logged directly, or passed as an argument of a pattern format message. At most 1024 bytes are
+   * rendered, followed by the total length if the bytes were truncated.
+   *
+   * @param bytes The bytes to render, which should not be modified while the log is being written.
+   * @return A {@link LogMessage} instance.
+   */
+  static LogMessage hexDump(byte[] bytes) {
+    return hexDump(bytes, ByteFormatter.DEFAULT_MAX_BYTES);
+  }
+
+  /**
+   * Construct a {@link LogMessage} that renders bytes as a hex dump.
+   *
+   * @param bytes The bytes to render, which should not be modified while the log is being written.
+   * @param maxBytes The maximum number of bytes to render.
+   * @return A {@link LogMessage} instance.
+   * @see #hexDump(byte[])
+   */
+  static LogMessage hexDump(byte[] bytes, int maxBytes) {
+    requireNonNull(bytes);
+    return hexDump(ByteBuffer.wrap(bytes), maxBytes);
+  }
+
+  /**
+   * Construct a {@link LogMessage} that renders the remaining bytes of a buffer as a hex dump.
+   *
+   * <p>
+   * The bytes are read without modifying the position of the buffer, and direct buffers are not copied to the heap.
+   *
+   * @param buffer The buffer to render, which should not be modified while the log is being written.
+   * @return A {@link LogMessage} instance.
+   * @see #hexDump(byte[])
+   */
+  static LogMessage hexDump(ByteBuffer buffer) {
+    return hexDump(buffer, ByteFormatter.DEFAULT_MAX_BYTES);
+  }
+
+  /**
+   * Construct a {@link LogMessage} that renders the remaining bytes of a buffer as a hex dump.
+   *
+   * @param buffer The buffer to render, which should not be modified while the log is being written.
+   * @param maxBytes The maximum number of bytes to render.
+   * @return A {@link LogMessage} instance.
+   * @see #hexDump(ByteBuffer)
+   */
+  static LogMessage hexDump(ByteBuffer buffer, int maxBytes) {
+    requireNonNull(buffer);
+    if (maxBytes < 0) {
+      throw new IllegalArgumentException("Max bytes must not be negative");
+    }
+    return (l, a) -> ByteFormatter.appendHexDump(buffer, maxBytes, a);
   }
 
   /**
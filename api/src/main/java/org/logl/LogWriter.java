@@ -100,6 +100,122 @@ public interface LogWriter {
     }
   }
 
+  /**
+   * Log a message and exception.
+   *
+   * <p>
+   * This is equivalent to {@code log((CharSequence) message, cause)}, and exists so that a call with a {@link String}
+   * message and an exception is not ambiguous with {@link #log(String, Object)}.
+   *
+   * @param message The message to log.
+   * @param cause The exception to log.
+   */
+  default void log(String message, Throwable cause) {
+    log((CharSequence) message, cause);
+  }
+
+  /**
+   * Log a pattern formatted message with one argument.
+   *
+   * <p>
+   * As with {@link #log(String, Object...)}, an argument that is a {@link Throwable} is logged as the cause of the
+   * message.
+   *
+   * @param pattern The format string, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void log(String pattern, Object arg) {
+    requireNonNull(pattern);
+    if (arg instanceof Throwable) {
+      log(pattern, (Throwable) arg);
+    } else {
+      log((l, a) -> MessageFormatter.formatTo(pattern, l, arg, a));
+    }
+  }
+
+  /**
+   * Log a pattern formatted message with one {@code long} argument.
+   *
+   * @param pattern The format string, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void log(String pattern, long arg) {
+    requireNonNull(pattern);
+    log((l, a) -> MessageFormatter.formatTo(pattern, arg, a));
+  }
+
+  /**
+   * Log a pattern formatted message with one {@code double} argument.
+   *
+   * @param pattern The format string, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void log(String pattern, double arg) {
+    requireNonNull(pattern);
+    log((l, a) -> MessageFormatter.formatTo(pattern, arg, a));
+  }
+
+  /**
+   * Log a pattern formatted message with one {@code char} argument.
+   *
+   * @param pattern The format string, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void log(String pattern, char arg) {
+    requireNonNull(pattern);
+    log((l, a) -> MessageFormatter.formatTo(pattern, arg, a));
+  }
+
+  /**
+   * Log a pattern formatted message with one {@code float} argument.
+   *
+   * @param pattern The format string, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void log(String pattern, float arg) {
+    requireNonNull(pattern);
+    log((l, a) -> MessageFormatter.formatTo(pattern, arg, a));
+  }
+
+  /**
+   * Log a pattern formatted message with two arguments.
+   *
+   * @param pattern The format string, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg1 The first format argument.
+   * @param arg2 The second format argument.
+   */
+  default void log(String pattern, Object arg1, Object arg2) {
+    requireNonNull(pattern);
+    log((l, a) -> MessageFormatter.formatTo(pattern, l, arg1, arg2, a));
+  }
+
+  /**
+   * Log a pattern formatted message with three arguments.
+   *
+   * @param pattern The format string, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg1 The first format argument.
+   * @param arg2 The second format argument.
+   * @param arg3 The third format argument.
+   */
+  default void log(String pattern, Object arg1, Object arg2, Object arg3) {
+    requireNonNull(pattern);
+    log((l, a) -> MessageFormatter.formatTo(pattern, l, arg1, arg2, arg3, a));
+  }
+
+  /**
+   * Log a pattern formatted message with four arguments.
+   *
+   * @param pattern The format string, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg1 The first format argument.
+   * @param arg2 The second format argument.
+   * @param arg3 The third format argument.
+   * @param arg4 The fourth format argument.
+   */
+  default void log(String pattern, Object arg1, Object arg2, Object arg3, Object arg4) {
+    requireNonNull(pattern);
+    log((l, a) -> MessageFormatter.formatTo(pattern, l, arg1, arg2, arg3, arg4, a));
+  }
+
   /**
    * Log a string formatted message.
    *
@@ -136,6 +136,110 @@ public interface Logger {
     errorWriter().log(pattern, args);
   }
 
+  /**
+   * Log a message and exception at level {@code ERROR}, if enabled.
+   *
+   * <p>
+   * This is equivalent to {@code error((CharSequence) message, cause)}, and exists so that a call with a {@link String}
+   * message and an exception is not ambiguous with {@link #error(String, Object)}.
+   *
+   * @param message The message to log.
+   * @param cause The exception to log.
+   */
+  default void error(String message, Throwable cause) {
+    errorWriter().log(message, cause);
+  }
+
+  /**
+   * Log a pattern formatted message with one argument at level {@code ERROR}, if enabled.
+   *
+   * <p>
+   * As with {@link #error(String, Object...)}, an argument that is a {@link Throwable} is logged as the cause of the
+   * message.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void error(String pattern, Object arg) {
+    errorWriter().log(pattern, arg);
+  }
+
+  /**
+   * Log a pattern formatted message with one {@code long} argument at level {@code ERROR}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void error(String pattern, long arg) {
+    errorWriter().log(pattern, arg);
+  }
+
+  /**
+   * Log a pattern formatted message with one {@code double} argument at level {@code ERROR}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void error(String pattern, double arg) {
+    errorWriter().log(pattern, arg);
+  }
+
+  /**
+   * Log a pattern formatted message with one {@code char} argument at level {@code ERROR}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void error(String pattern, char arg) {
+    errorWriter().log(pattern, arg);
+  }
+
+  /**
+   * Log a pattern formatted message with one {@code float} argument at level {@code ERROR}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void error(String pattern, float arg) {
+    errorWriter().log(pattern, arg);
+  }
+
+  /**
+   * Log a pattern formatted message with two arguments at level {@code ERROR}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg1 The first format argument.
+   * @param arg2 The second format argument.
+   */
+  default void error(String pattern, Object arg1, Object arg2) {
+    errorWriter().log(pattern, arg1, arg2);
+  }
+
+  /**
+   * Log a pattern formatted message with three arguments at level {@code ERROR}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg1 The first format argument.
+   * @param arg2 The second format argument.
+   * @param arg3 The third format argument.
+   */
+  default void error(String pattern, Object arg1, Object arg2, Object arg3) {
+    errorWriter().log(pattern, arg1, arg2, arg3);
+  }
+
+  /**
+   * Log a pattern formatted message with four arguments at level {@code ERROR}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg1 The first format argument.
+   * @param arg2 The second format argument.
+   * @param arg3 The third format argument.
+   * @param arg4 The fourth format argument.
+   */
+  default void error(String pattern, Object arg1, Object arg2, Object arg3, Object arg4) {
+    errorWriter().log(pattern, arg1, arg2, arg3, arg4);
+  }
+
   /**
    * Log a string formatted message at level {@code ERROR}, if enabled.
    *
@@ -237,6 +341,110 @@ public interface Logger {
     warnWriter().log(pattern, args);
   }
 
+  /**
+   * Log a message and exception at level {@code WARN}, if enabled.
+   *
+   * <p>
+   * This is equivalent to {@code warn((CharSequence) message, cause)}, and exists so that a call with a {@link String}
+   * message and an exception is not ambiguous with {@link #warn(String, Object)}.
+   *
+   * @param message The message to log.
+   * @param cause The exception to log.
+   */
+  default void warn(String message, Throwable cause) {
+    warnWriter().log(message, cause);
+  }
+
+  /**
+   * Log a pattern formatted message with one argument at level {@code WARN}, if enabled.
+   *
+   * <p>
+   * As with {@link #warn(String, Object...)}, an argument that is a {@link Throwable} is logged as the cause of the
+   * message.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void warn(String pattern, Object arg) {
+    warnWriter().log(pattern, arg);
+  }
+
+  /**
+   * Log a pattern formatted message with one {@code long} argument at level {@code WARN}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void warn(String pattern, long arg) {
+    warnWriter().log(pattern, arg);
+  }
+
+  /**
+   * Log a pattern formatted message with one {@code double} argument at level {@code WARN}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void warn(String pattern, double arg) {
+    warnWriter().log(pattern, arg);
+  }
+
+  /**
+   * Log a pattern formatted message with one {@code char} argument at level {@code WARN}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void warn(String pattern, char arg) {
+    warnWriter().log(pattern, arg);
+  }
+
+  /**
+   * Log a pattern formatted message with one {@code float} argument at level {@code WARN}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void warn(String pattern, float arg) {
+    warnWriter().log(pattern, arg);
+  }
+
+  /**
+   * Log a pattern formatted message with two arguments at level {@code WARN}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg1 The first format argument.
+   * @param arg2 The second format argument.
+   */
+  default void warn(String pattern, Object arg1, Object arg2) {
+    warnWriter().log(pattern, arg1, arg2);
+  }
+
+  /**
+   * Log a pattern formatted message with three arguments at level {@code WARN}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg1 The first format argument.
+   * @param arg2 The second format argument.
+   * @param arg3 The third format argument.
+   */
+  default void warn(String pattern, Object arg1, Object arg2, Object arg3) {
+    warnWriter().log(pattern, arg1, arg2, arg3);
+  }
+
+  /**
+   * Log a pattern formatted message with four arguments at level {@code WARN}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg1 The first format argument.
+   * @param arg2 The second format argument.
+   * @param arg3 The third format argument.
+   * @param arg4 The fourth format argument.
+   */
+  default void warn(String pattern, Object arg1, Object arg2, Object arg3, Object arg4) {
+    warnWriter().log(pattern, arg1, arg2, arg3, arg4);
+  }
+
   /**
    * Log a string formatted message at level {@code WARN}, if enabled.
    *
@@ -338,6 +546,110 @@ public interface Logger {
     infoWriter().log(pattern, args);
   }
 
+  /**
+   * Log a message and exception at level {@code INFO}, if enabled.
+   *
+   * <p>
+   * This is equivalent to {@code info((CharSequence) message, cause)}, and exists so that a call with a {@link String}
+   * message and an exception is not ambiguous with {@link #info(String, Object)}.
+   *
+   * @param message The message to log.
+   * @param cause The exception to log.
+   */
+  default void info(String message, Throwable cause) {
+    infoWriter().log(message, cause);
+  }
+
+  /**
+   * Log a pattern formatted message with one argument at level {@code INFO}, if enabled.
+   *
+   * <p>
+   * As with {@link #info(String, Object...)}, an argument that is a {@link Throwable} is logged as the cause of the
+   * message.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void info(String pattern, Object arg) {
+    infoWriter().log(pattern, arg);
+  }
+
+  /**
+   * Log a pattern formatted message with one {@code long} argument at level {@code INFO}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void info(String pattern, long arg) {
+    infoWriter().log(pattern, arg);
+  }
+
+  /**
+   * Log a pattern formatted message with one {@code double} argument at level {@code INFO}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void info(String pattern, double arg) {
+    infoWriter().log(pattern, arg);
+  }
+
+  /**
+   * Log a pattern formatted message with one {@code char} argument at level {@code INFO}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void info(String pattern, char arg) {
+    infoWriter().log(pattern, arg);
+  }
+
+  /**
+   * Log a pattern formatted message with one {@code float} argument at level {@code INFO}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void info(String pattern, float arg) {
+    infoWriter().log(pattern, arg);
+  }
+
+  /**
+   * Log a pattern formatted message with two arguments at level {@code INFO}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg1 The first format argument.
+   * @param arg2 The second format argument.
+   */
+  default void info(String pattern, Object arg1, Object arg2) {
+    infoWriter().log(pattern, arg1, arg2);
+  }
+
+  /**
+   * Log a pattern formatted message with three arguments at level {@code INFO}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg1 The first format argument.
+   * @param arg2 The second format argument.
+   * @param arg3 The third format argument.
+   */
+  default void info(String pattern, Object arg1, Object arg2, Object arg3) {
+    infoWriter().log(pattern, arg1, arg2, arg3);
+  }
+
+  /**
+   * Log a pattern formatted message with four arguments at level {@code INFO}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg1 The first format argument.
+   * @param arg2 The second format argument.
+   * @param arg3 The third format argument.
+   * @param arg4 The fourth format argument.
+   */
+  default void info(String pattern, Object arg1, Object arg2, Object arg3, Object arg4) {
+    infoWriter().log(pattern, arg1, arg2, arg3, arg4);
+  }
+
   /**
    * Log a string formatted message at level {@code INFO}, if enabled.
    *
@@ -439,6 +751,110 @@ public interface Logger {
     debugWriter().log(pattern, args);
   }
 
+  /**
+   * Log a message and exception at level {@code DEBUG}, if enabled.
+   *
+   * <p>
+   * This is equivalent to {@code debug((CharSequence) message, cause)}, and exists so that a call with a {@link String}
+   * message and an exception is not ambiguous with {@link #debug(String, Object)}.
+   *
+   * @param message The message to log.
+   * @param cause The exception to log.
+   */
+  default void debug(String message, Throwable cause) {
+    debugWriter().log(message, cause);
+  }
+
+  /**
+   * Log a pattern formatted message with one argument at level {@code DEBUG}, if enabled.
+   *
+   * <p>
+   * As with {@link #debug(String, Object...)}, an argument that is a {@link Throwable} is logged as the cause of the
+   * message.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void debug(String pattern, Object arg) {
+    debugWriter().log(pattern, arg);
+  }
+
+  /**
+   * Log a pattern formatted message with one {@code long} argument at level {@code DEBUG}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void debug(String pattern, long arg) {
+    debugWriter().log(pattern, arg);
+  }
+
+  /**
+   * Log a pattern formatted message with one {@code double} argument at level {@code DEBUG}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void debug(String pattern, double arg) {
+    debugWriter().log(pattern, arg);
+  }
+
+  /**
+   * Log a pattern formatted message with one {@code char} argument at level {@code DEBUG}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void debug(String pattern, char arg) {
+    debugWriter().log(pattern, arg);
+  }
+
+  /**
+   * Log a pattern formatted message with one {@code float} argument at level {@code DEBUG}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg The format argument.
+   */
+  default void debug(String pattern, float arg) {
+    debugWriter().log(pattern, arg);
+  }
+
+  /**
+   * Log a pattern formatted message with two arguments at level {@code DEBUG}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg1 The first format argument.
+   * @param arg2 The second format argument.
+   */
+  default void debug(String pattern, Object arg1, Object arg2) {
+    debugWriter().log(pattern, arg1, arg2);
+  }
+
+  /**
+   * Log a pattern formatted message with three arguments at level {@code DEBUG}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg1 The first format argument.
+   * @param arg2 The second format argument.
+   * @param arg3 The third format argument.
+   */
+  default void debug(String pattern, Object arg1, Object arg2, Object arg3) {
+    debugWriter().log(pattern, arg1, arg2, arg3);
+  }
+
+  /**
+   * Log a pattern formatted message with four arguments at level {@code DEBUG}, if enabled.
+   *
+   * @param pattern The format pattern, as per {@link LogMessage#patternFormat(String, Object...)}.
+   * @param arg1 The first format argument.
+   * @param arg2 The second format argument.
+   * @param arg3 The third format argument.
+   * @param arg4 The fourth format argument.
+   */
+  default void debug(String pattern, Object arg1, Object arg2, Object arg3, Object arg4) {
+    debugWriter().log(pattern, arg1, arg2, arg3, arg4);
+  }
+
   /**
    * Log a string formatted message at level {@code DEBUG}, if enabled.
    *
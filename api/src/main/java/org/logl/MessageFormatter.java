@@ -22,92 +22,333 @@ package org.logl;
  */
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 final class MessageFormatter {
-  private static final char DELIM_START = '{';
-  private static final String DELIM_STR = "{}";
-  private static final char ESCAPE_CHAR = '\\';
+  private static final ThreadLocal<StringBuilder> DOUBLE_BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(32));
 
-  static void formatTo(String pattern, Object[] args, Appendable appendable) throws IOException {
+  static void formatTo(String pattern, Locale locale, Object[] args, Appendable appendable) throws IOException {
     if (args == null || args.length == 0) {
       appendable.append(pattern);
       return;
     }
+    MessagePattern.forPattern(pattern).formatTo(locale, args, appendable);
+  }
 
-    int patternLength = pattern.length();
+  static void formatTo(String pattern, Locale locale, Object arg, Appendable appendable) throws IOException {
+    MessagePattern compiled = MessagePattern.forPattern(pattern);
+    if (compiled.placeholderCount() > 0) {
+      compiled.appendLiteral(0, appendable);
+      appendParameter(appendable, locale, arg, null);
+    }
+    compiled.appendRemainder(1, appendable);
+  }
 
-    int n = 0;
-    int i = 0;
-    while (n < args.length && i < patternLength) {
-      int j = pattern.indexOf(DELIM_STR, i);
-      if (j < 0) {
-        break;
-      }
+  static void formatTo(String pattern, long arg, Appendable appendable) throws IOException {
+    MessagePattern compiled = MessagePattern.forPattern(pattern);
+    if (compiled.placeholderCount() > 0) {
+      compiled.appendLiteral(0, appendable);
+      appendLong(appendable, arg);
+    }
+    compiled.appendRemainder(1, appendable);
+  }
 
-      if (j > 0 && pattern.charAt(j - 1) == ESCAPE_CHAR) {
-        appendable.append(pattern, i, j - 1);
-        if (j <= 1 || pattern.charAt(j - 2) != ESCAPE_CHAR) {
-          // escaped delimiter
-          appendable.append(pattern, i, j - 1);
-          appendable.append(DELIM_START);
-          i = j + 1;
-          continue;
-        }
-      } else {
-        appendable.append(pattern, i, j);
+  static void formatTo(String pattern, double arg, Appendable appendable) throws IOException {
+    MessagePattern compiled = MessagePattern.forPattern(pattern);
+    if (compiled.placeholderCount() > 0) {
+      compiled.appendLiteral(0, appendable);
+      appendDouble(appendable, arg);
+    }
+    compiled.appendRemainder(1, appendable);
+  }
+
+  static void formatTo(String pattern, char arg, Appendable appendable) throws IOException {
+    MessagePattern compiled = MessagePattern.forPattern(pattern);
+    if (compiled.placeholderCount() > 0) {
+      compiled.appendLiteral(0, appendable);
+      appendable.append(arg);
+    }
+    compiled.appendRemainder(1, appendable);
+  }
+
+  static void formatTo(String pattern, float arg, Appendable appendable) throws IOException {
+    MessagePattern compiled = MessagePattern.forPattern(pattern);
+    if (compiled.placeholderCount() > 0) {
+      compiled.appendLiteral(0, appendable);
+      appendFloat(appendable, arg);
+    }
+    compiled.appendRemainder(1, appendable);
+  }
+
+  static void formatTo(String pattern, Locale locale, Object arg1, Object arg2, Appendable appendable)
+      throws IOException {
+    MessagePattern compiled = MessagePattern.forPattern(pattern);
+    int placeholders = compiled.placeholderCount();
+    if (placeholders > 0) {
+      compiled.appendLiteral(0, appendable);
+      appendParameter(appendable, locale, arg1, null);
+    }
+    if (placeholders > 1) {
+      compiled.appendLiteral(1, appendable);
+      appendParameter(appendable, locale, arg2, null);
+    }
+    compiled.appendRemainder(2, appendable);
+  }
+
+  static void formatTo(String pattern, Locale locale, Object arg1, Object arg2, Object arg3, Appendable appendable)
+      throws IOException {
+    MessagePattern compiled = MessagePattern.forPattern(pattern);
+    int placeholders = compiled.placeholderCount();
+    if (placeholders > 0) {
+      compiled.appendLiteral(0, appendable);
+      appendParameter(appendable, locale, arg1, null);
+    }
+    if (placeholders > 1) {
+      compiled.appendLiteral(1, appendable);
+      appendParameter(appendable, locale, arg2, null);
+    }
+    if (placeholders > 2) {
+      compiled.appendLiteral(2, appendable);
+      appendParameter(appendable, locale, arg3, null);
+    }
+    compiled.appendRemainder(3, appendable);
+  }
+
+  static void formatTo(
+      String pattern,
+      Locale locale,
+      Object arg1,
+      Object arg2,
+      Object arg3,
+      Object arg4,
+      Appendable appendable) throws IOException {
+    MessagePattern compiled = MessagePattern.forPattern(pattern);
+    int placeholders = compiled.placeholderCount();
+    if (placeholders > 0) {
+      compiled.appendLiteral(0, appendable);
+      appendParameter(appendable, locale, arg1, null);
+    }
+    if (placeholders > 1) {
+      compiled.appendLiteral(1, appendable);
+      appendParameter(appendable, locale, arg2, null);
+    }
+    if (placeholders > 2) {
+      compiled.appendLiteral(2, appendable);
+      appendParameter(appendable, locale, arg3, null);
+    }
+    if (placeholders > 3) {
+      compiled.appendLiteral(3, appendable);
+      appendParameter(appendable, locale, arg4, null);
+    }
+    compiled.appendRemainder(4, appendable);
+  }
+
+  static void appendParameter(Appendable appendable, Locale locale, Object parameter) throws IOException {
+    appendParameter(appendable, locale, parameter, null);
+  }
+
+  // write the decimal digits directly, rather than allocating a string
+  static void appendLong(Appendable appendable, long value) throws IOException {
+    if (appendable instanceof StringBuilder) {
+      ((StringBuilder) appendable).append(value);
+      return;
+    }
+    if (value < 0) {
+      if (value == Long.MIN_VALUE) {
+        appendable.append("-9223372036854775808");
+        return;
       }
+      appendable.append('-');
+      value = -value;
+    }
+    long divisor = 1;
+    while (value / divisor >= 10) {
+      divisor *= 10;
+    }
+    for (; divisor > 0; divisor /= 10) {
+      appendable.append((char) ('0' + (value / divisor) % 10));
+    }
+  }
 
-      appendParameter(appendable, args[n++], null);
-      i = j + 2;
+  // StringBuilder renders doubles without allocating a string, so render through a reusable builder
+  static void appendDouble(Appendable appendable, double value) throws IOException {
+    if (appendable instanceof StringBuilder) {
+      ((StringBuilder) appendable).append(value);
+      return;
     }
-    if (i < patternLength) {
-      appendable.append(pattern, i, patternLength);
+    StringBuilder builder = DOUBLE_BUILDER.get();
+    builder.setLength(0);
+    builder.append(value);
+    appendable.append(builder);
+  }
+
+  static void appendFloat(Appendable appendable, float value) throws IOException {
+    if (appendable instanceof StringBuilder) {
+      ((StringBuilder) appendable).append(value);
+      return;
     }
+    StringBuilder builder = DOUBLE_BUILDER.get();
+    builder.setLength(0);
+    builder.append(value);
+    appendable.append(builder);
   }
 
-  private static void appendParameter(Appendable appendable, Object parameter, Set<Object[]> seen) throws IOException {
+  private static void appendParameter(Appendable appendable, Locale locale, Object parameter, Set<Object[]> seen)
+      throws IOException {
+    // a top-level argument, rather than an element of an array argument
+    if (seen == null && appendable instanceof TruncatingAppendable) {
+      TruncatingAppendable truncating = (TruncatingAppendable) appendable;
+      truncating.beginArgument();
+      try {
+        appendValue(appendable, locale, parameter, null);
+      } finally {
+        truncating.endArgument();
+      }
+      return;
+    }
+    appendValue(appendable, locale, parameter, seen);
+  }
+
+  private static void appendValue(Appendable appendable, Locale locale, Object parameter, Set<Object[]> seen)
+      throws IOException {
     if (parameter == null) {
       appendable.append("null");
       return;
     }
 
-    if (!parameter.getClass().isArray()) {
-      String paramString;
+    ArgumentFormatter<Object> formatter = ArgumentFormatters.forClass(parameter.getClass());
+    if (formatter != null) {
+      try {
+        formatter.formatTo(parameter, appendable);
+      } catch (RuntimeException e) {
+        // built-in formatters stand in for toString(), such as for a collection that is modified whilst iterating
+        if (ArgumentFormatters.isRegistered(parameter.getClass())) {
+          appendable.append("[FAILED formatTo()]");
+        } else {
+          appendable.append("[FAILED toString()]");
+        }
+      }
+      return;
+    }
+
+    // a nested message is formatted for the locale of the message it is an argument of
+    if (parameter instanceof LogMessage) {
       try {
-        paramString = parameter.toString();
-      } catch (Exception e) {
-        paramString = "[FAILED toString()]";
+        ((LogMessage) parameter).appendTo(locale, appendable);
+      } catch (RuntimeException e) {
+        appendable.append("[FAILED formatTo()]");
       }
-      appendable.append(paramString);
       return;
     }
 
-    // check for primitive array types because they
-    // unfortunately cannot be cast to Object[]
-    if (parameter instanceof boolean[]) {
-      appendBooleanArray(appendable, (boolean[]) parameter);
-    } else if (parameter instanceof byte[]) {
-      appendByteArray(appendable, (byte[]) parameter);
-    } else if (parameter instanceof char[]) {
-      appendCharArray(appendable, (char[]) parameter);
-    } else if (parameter instanceof short[]) {
-      appendShortArray(appendable, (short[]) parameter);
-    } else if (parameter instanceof int[]) {
-      appendIntArray(appendable, (int[]) parameter);
-    } else if (parameter instanceof long[]) {
-      appendLongArray(appendable, (long[]) parameter);
-    } else if (parameter instanceof float[]) {
-      appendFloatArray(appendable, (float[]) parameter);
-    } else if (parameter instanceof double[]) {
-      appendDoubleArray(appendable, (double[]) parameter);
-    } else {
-      appendObjectArray(appendable, (Object[]) parameter, seen);
+    if (parameter instanceof Object[]) {
+      appendObjectArray(appendable, locale, (Object[]) parameter, seen);
+      return;
+    }
+
+    String paramString;
+    try {
+      paramString = parameter.toString();
+    } catch (Exception e) {
+      paramString = "[FAILED toString()]";
+    }
+    appendable.append(paramString);
+  }
+
+  // as for AbstractCollection.toString(), stopping once output is being truncated
+  static void appendCollection(Appendable appendable, Collection<?> c) throws IOException {
+    Iterator<?> it = c.iterator();
+    if (!it.hasNext()) {
+      appendable.append("[]");
+      return;
+    }
+    appendable.append('[');
+    for (;;) {
+      Object e = it.next();
+      if (e == c) {
+        appendable.append("(this Collection)");
+      } else {
+        appendElement(appendable, e);
+      }
+      if (!it.hasNext()) {
+        appendable.append(']');
+        return;
+      }
+      appendable.append(", ");
+      if (isTruncating(appendable)) {
+        return;
+      }
+    }
+  }
+
+  // as for AbstractMap.toString(), stopping once output is being truncated
+  static void appendMap(Appendable appendable, Map<?, ?> m) throws IOException {
+    Iterator<? extends Map.Entry<?, ?>> it = m.entrySet().iterator();
+    if (!it.hasNext()) {
+      appendable.append("{}");
+      return;
+    }
+    appendable.append('{');
+    for (;;) {
+      Map.Entry<?, ?> e = it.next();
+      Object key = e.getKey();
+      Object value = e.getValue();
+      if (key == m) {
+        appendable.append("(this Map)");
+      } else {
+        appendElement(appendable, key);
+      }
+      appendable.append('=');
+      if (value == m) {
+        appendable.append("(this Map)");
+      } else {
+        appendElement(appendable, value);
+      }
+      if (!it.hasNext()) {
+        appendable.append('}');
+        return;
+      }
+      appendable.append(", ");
+      if (isTruncating(appendable)) {
+        return;
+      }
     }
   }
 
-  private static void appendBooleanArray(Appendable appendable, boolean[] a) throws IOException {
+  // elements of collections are rendered as by String.valueOf(), without using registered formatters
+  private static void appendElement(Appendable appendable, Object element) throws IOException {
+    if (element == null) {
+      appendable.append("null");
+      return;
+    }
+    ArgumentFormatter<Object> formatter = ArgumentFormatters.forElement(element.getClass());
+    if (formatter != null) {
+      try {
+        formatter.formatTo(element, appendable);
+      } catch (RuntimeException e) {
+        appendable.append("[FAILED toString()]");
+      }
+      return;
+    }
+    String elementString;
+    try {
+      elementString = element.toString();
+    } catch (Exception e) {
+      elementString = "[FAILED toString()]";
+    }
+    appendable.append(elementString);
+  }
+
+  private static boolean isTruncating(Appendable appendable) {
+    return appendable instanceof TruncatingAppendable && ((TruncatingAppendable) appendable).isTruncating();
+  }
+
+  static void appendBooleanArray(Appendable appendable, boolean[] a) throws IOException {
     if (a.length == 0) {
       appendable.append("[]");
       return;
@@ -116,11 +357,14 @@ final class MessageFormatter {
     int l = a.length - 1;
     for (int i = 0; i < l; ++i) {
       appendable.append(a[i] ? "true, " : "false, ");
+      if (isTruncating(appendable)) {
+        return;
+      }
     }
     appendable.append(a[l] ? "true]" : "false]");
   }
 
-  private static void appendByteArray(Appendable appendable, byte[] a) throws IOException {
+  static void appendByteArray(Appendable appendable, byte[] a) throws IOException {
     if (a.length == 0) {
       appendable.append("[]");
       return;
@@ -136,15 +380,18 @@ final class MessageFormatter {
       builder.append(a[l]);
     } else {
       for (int i = 0; i < l; ++i) {
-        appendable.append(String.valueOf(a[i]));
+        appendLong(appendable, a[i]);
         appendable.append(", ");
+        if (isTruncating(appendable)) {
+          return;
+        }
       }
-      appendable.append(String.valueOf(a[l]));
+      appendLong(appendable, a[l]);
     }
     appendable.append(']');
   }
 
-  private static void appendCharArray(Appendable appendable, char[] a) throws IOException {
+  static void appendCharArray(Appendable appendable, char[] a) throws IOException {
     if (a.length == 0) {
       appendable.append("[]");
       return;
@@ -154,12 +401,15 @@ final class MessageFormatter {
     for (int i = 0; i < l; i++) {
       appendable.append(a[i]);
       appendable.append(", ");
+      if (isTruncating(appendable)) {
+        return;
+      }
     }
     appendable.append(a[l]);
     appendable.append(']');
   }
 
-  private static void appendShortArray(Appendable appendable, short[] a) throws IOException {
+  static void appendShortArray(Appendable appendable, short[] a) throws IOException {
     if (a.length == 0) {
       appendable.append("[]");
       return;
@@ -175,15 +425,18 @@ final class MessageFormatter {
       builder.append(a[l]);
     } else {
       for (int i = 0; i < l; ++i) {
-        appendable.append(String.valueOf(a[i]));
+        appendLong(appendable, a[i]);
         appendable.append(", ");
+        if (isTruncating(appendable)) {
+          return;
+        }
       }
-      appendable.append(String.valueOf(a[l]));
+      appendLong(appendable, a[l]);
     }
     appendable.append(']');
   }
 
-  private static void appendIntArray(Appendable appendable, int[] a) throws IOException {
+  static void appendIntArray(Appendable appendable, int[] a) throws IOException {
     if (a.length == 0) {
       appendable.append("[]");
       return;
@@ -199,15 +452,18 @@ final class MessageFormatter {
       builder.append(a[l]);
     } else {
       for (int i = 0; i < l; ++i) {
-        appendable.append(String.valueOf(a[i]));
+        appendLong(appendable, a[i]);
         appendable.append(", ");
+        if (isTruncating(appendable)) {
+          return;
+        }
       }
-      appendable.append(String.valueOf(a[l]));
+      appendLong(appendable, a[l]);
     }
     appendable.append(']');
   }
 
-  private static void appendLongArray(Appendable appendable, long[] a) throws IOException {
+  static void appendLongArray(Appendable appendable, long[] a) throws IOException {
     if (a.length == 0) {
       appendable.append("[]");
       return;
@@ -223,15 +479,18 @@ final class MessageFormatter {
       builder.append(a[l]);
     } else {
       for (int i = 0; i < l; ++i) {
-        appendable.append(String.valueOf(a[i]));
+        appendLong(appendable, a[i]);
         appendable.append(", ");
+        if (isTruncating(appendable)) {
+          return;
+        }
       }
-      appendable.append(String.valueOf(a[l]));
+      appendLong(appendable, a[l]);
     }
     appendable.append(']');
   }
 
-  private static void appendFloatArray(Appendable appendable, float[] a) throws IOException {
+  static void appendFloatArray(Appendable appendable, float[] a) throws IOException {
     if (a.length == 0) {
       appendable.append("[]");
       return;
@@ -247,15 +506,18 @@ final class MessageFormatter {
       builder.append(a[l]);
     } else {
       for (int i = 0; i < l; ++i) {
-        appendable.append(String.valueOf(a[i]));
+        appendFloat(appendable, a[i]);
         appendable.append(", ");
+        if (isTruncating(appendable)) {
+          return;
+        }
       }
-      appendable.append(String.valueOf(a[l]));
+      appendFloat(appendable, a[l]);
     }
     appendable.append(']');
   }
 
-  private static void appendDoubleArray(Appendable appendable, double[] a) throws IOException {
+  static void appendDoubleArray(Appendable appendable, double[] a) throws IOException {
     if (a.length == 0) {
       appendable.append("[]");
       return;
@@ -271,15 +533,19 @@ final class MessageFormatter {
       builder.append(a[l]);
     } else {
       for (int i = 0; i < l; ++i) {
-        appendable.append(String.valueOf(a[i]));
+        appendDouble(appendable, a[i]);
         appendable.append(", ");
+        if (isTruncating(appendable)) {
+          return;
+        }
       }
-      appendable.append(String.valueOf(a[l]));
+      appendDouble(appendable, a[l]);
     }
     appendable.append(']');
   }
 
-  private static void appendObjectArray(Appendable appendable, Object[] a, Set<Object[]> seen) throws IOException {
+  private static void appendObjectArray(Appendable appendable, Locale locale, Object[] a, Set<Object[]> seen)
+      throws IOException {
     if (a.length == 0) {
       appendable.append("[]");
       return;
@@ -300,10 +566,13 @@ final class MessageFormatter {
 
     int l = a.length - 1;
     for (int i = 0; i < l; i++) {
-      appendParameter(appendable, a[i], seen);
+      appendParameter(appendable, locale, a[i], seen);
       appendable.append(", ");
+      if (isTruncating(appendable)) {
+        return;
+      }
     }
-    appendParameter(appendable, a[l], seen);
+    appendParameter(appendable, locale, a[l], seen);
     appendable.append(']');
   }
 }
@@ -0,0 +1,196 @@
+package org.logl;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * A {@link LogMessage#patternFormat(String, Object...)} pattern, compiled into the literal slices between its
+ * placeholders.
+ *
+ * <p>
+ * Compiled patterns are held in a small direct-mapped cache keyed by the identity of the pattern string, as call sites
+ * almost always pass a constant pattern. A pattern that collides with another in the cache simply replaces it.
+ */
+final class MessagePattern {
+  private static final String DELIM_STR = "{}";
+  private static final char ESCAPE_CHAR = '\\';
+  private static final int CACHE_SIZE = 256;
+  private static final MessagePattern[] cache = new MessagePattern[CACHE_SIZE];
+
+  private final String pattern;
+  // pairs of start and end offsets of literal slices, with escape characters removed
+  private final int[] slices;
+  // for each placeholder, the number of slices that precede it
+  private final int[] placeholderSlices;
+  // for each placeholder, the offset in the pattern immediately following it
+  private final int[] placeholderEnds;
+
+  /**
+   * Find the compiled form of a pattern, compiling it if it is not in the cache.
+   *
+   * @param pattern The pattern string.
+   * @return The compiled pattern.
+   */
+  static MessagePattern forPattern(String pattern) {
+    int h = System.identityHashCode(pattern);
+    int index = (h ^ (h >>> 16)) & (CACHE_SIZE - 1);
+    // entries are immutable, so a racy read will see either a complete entry or a different one
+    MessagePattern compiled = cache[index];
+    if (compiled == null || compiled.pattern != pattern) {
+      compiled = compile(pattern);
+      cache[index] = compiled;
+    }
+    return compiled;
+  }
+
+  /**
+   * Compile a pattern, without consulting the cache.
+   *
+   * @param pattern The pattern string.
+   * @return The compiled pattern.
+   */
+  static MessagePattern compile(String pattern) {
+    Compiler compiler = new Compiler();
+    int patternLength = pattern.length();
+    int i = 0;
+    while (i < patternLength) {
+      int j = pattern.indexOf(DELIM_STR, i);
+      if (j < 0) {
+        break;
+      }
+
+      if (j > 0 && pattern.charAt(j - 1) == ESCAPE_CHAR) {
+        compiler.addSlice(i, j - 1);
+        if (j <= 1 || pattern.charAt(j - 2) != ESCAPE_CHAR) {
+          // escaped delimiter: drop the escape character, and continue scanning after the '{'
+          compiler.addSlice(j, j + 1);
+          i = j + 1;
+          continue;
+        }
+      } else {
+        compiler.addSlice(i, j);
+      }
+
+      compiler.addPlaceholder(j + 2);
+      i = j + 2;
+    }
+    compiler.addSlice(i, patternLength);
+    return compiler.build(pattern);
+  }
+
+  private MessagePattern(String pattern, int[] slices, int[] placeholderSlices, int[] placeholderEnds) {
+    this.pattern = pattern;
+    this.slices = slices;
+    this.placeholderSlices = placeholderSlices;
+    this.placeholderEnds = placeholderEnds;
+  }
+
+  /**
+   * @return The number of placeholders in the pattern.
+   */
+  int placeholderCount() {
+    return placeholderSlices.length;
+  }
+
+  /**
+   * Append the pattern, with placeholders replaced by arguments, to an {@link Appendable}.
+   *
+   * @param locale The locale to format arguments that are themselves messages for.
+   * @param args The pattern arguments.
+   * @param appendable The {@link Appendable} to append to.
+   * @throws IOException If any of the appendable methods throw an {@code IOException}.
+   */
+  void formatTo(Locale locale, Object[] args, Appendable appendable) throws IOException {
+    int argCount = (args == null) ? 0 : args.length;
+    int placeholders = Math.min(argCount, placeholderSlices.length);
+    for (int n = 0; n < placeholders; ++n) {
+      appendLiteral(n, appendable);
+      MessageFormatter.appendParameter(appendable, locale, args[n]);
+    }
+    appendRemainder(argCount, appendable);
+  }
+
+  /**
+   * Append the literal text preceding a placeholder, and following the previous placeholder.
+   *
+   * @param placeholder The index of the placeholder, which must be less than {@link #placeholderCount()}.
+   * @param appendable The {@link Appendable} to append to.
+   * @throws IOException If any of the appendable methods throw an {@code IOException}.
+   */
+  void appendLiteral(int placeholder, Appendable appendable) throws IOException {
+    int slice = (placeholder == 0) ? 0 : placeholderSlices[placeholder - 1];
+    appendSlices(slice, placeholderSlices[placeholder], appendable);
+  }
+
+  /**
+   * Append the remainder of the pattern, after the placeholders that have been replaced by arguments.
+   *
+   * <p>
+   * Once the arguments are exhausted, the remainder of the pattern is appended unaltered.
+   *
+   * @param argCount The number of arguments.
+   * @param appendable The {@link Appendable} to append to.
+   * @throws IOException If any of the appendable methods throw an {@code IOException}.
+   */
+  void appendRemainder(int argCount, Appendable appendable) throws IOException {
+    if (argCount == 0) {
+      appendable.append(pattern);
+    } else if (argCount > placeholderSlices.length) {
+      int slice = (placeholderSlices.length == 0) ? 0 : placeholderSlices[placeholderSlices.length - 1];
+      appendSlices(slice, slices.length / 2, appendable);
+    } else {
+      appendable.append(pattern, placeholderEnds[argCount - 1], pattern.length());
+    }
+  }
+
+  private void appendSlices(int from, int to, Appendable appendable) throws IOException {
+    for (int slice = from; slice < to; ++slice) {
+      appendable.append(pattern, slices[slice * 2], slices[slice * 2 + 1]);
+    }
+  }
+
+  private static final class Compiler {
+    private int[] slices = new int[8];
+    private int sliceCount = 0;
+    private int[] placeholderSlices = new int[4];
+    private int[] placeholderEnds = new int[4];
+    private int placeholderCount = 0;
+
+    void addSlice(int start, int end) {
+      if (start == end) {
+        return;
+      }
+      if (sliceCount > 0 && slices[sliceCount * 2 - 1] == start
+          && (placeholderCount == 0 || placeholderSlices[placeholderCount - 1] < sliceCount)) {
+        // extend the previous slice
+        slices[sliceCount * 2 - 1] = end;
+        return;
+      }
+      if (sliceCount * 2 == slices.length) {
+        slices = Arrays.copyOf(slices, slices.length * 2);
+      }
+      slices[sliceCount * 2] = start;
+      slices[sliceCount * 2 + 1] = end;
+      sliceCount++;
+    }
+
+    void addPlaceholder(int end) {
+      if (placeholderCount == placeholderSlices.length) {
+        placeholderSlices = Arrays.copyOf(placeholderSlices, placeholderCount * 2);
+        placeholderEnds = Arrays.copyOf(placeholderEnds, placeholderCount * 2);
+      }
+      placeholderSlices[placeholderCount] = sliceCount;
+      placeholderEnds[placeholderCount] = end;
+      placeholderCount++;
+    }
+
+    MessagePattern build(String pattern) {
+      return new MessagePattern(
+          pattern,
+          Arrays.copyOf(slices, sliceCount * 2),
+          Arrays.copyOf(placeholderSlices, placeholderCount),
+          Arrays.copyOf(placeholderEnds, placeholderCount));
+    }
+  }
+}
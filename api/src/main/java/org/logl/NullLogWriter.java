@@ -33,6 +33,46 @@ final class NullLogWriter implements LogWriter {
     requireNonNull(message);
   }
 
+  @Override
+  public void log(String pattern, Object arg) {
+    requireNonNull(pattern);
+  }
+
+  @Override
+  public void log(String pattern, long arg) {
+    requireNonNull(pattern);
+  }
+
+  @Override
+  public void log(String pattern, double arg) {
+    requireNonNull(pattern);
+  }
+
+  @Override
+  public void log(String pattern, char arg) {
+    requireNonNull(pattern);
+  }
+
+  @Override
+  public void log(String pattern, float arg) {
+    requireNonNull(pattern);
+  }
+
+  @Override
+  public void log(String pattern, Object arg1, Object arg2) {
+    requireNonNull(pattern);
+  }
+
+  @Override
+  public void log(String pattern, Object arg1, Object arg2, Object arg3) {
+    requireNonNull(pattern);
+  }
+
+  @Override
+  public void log(String pattern, Object arg1, Object arg2, Object arg3, Object arg4) {
+    requireNonNull(pattern);
+  }
+
   @Override
   public void logf(String format, Object... args) {
     requireNonNull(format);
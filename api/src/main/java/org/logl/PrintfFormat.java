@@ -0,0 +1,507 @@
+package org.logl;
+
+import java.io.IOException;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.Formattable;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link java.util.Formatter} format string, compiled for the subset of format specifiers commonly used in log
+ * messages.
+ *
+ * <p>
+ * The subset is {@code %s}, {@code %d}, {@code %x}, {@code %X} and {@code %f}, with the {@code '-'} and {@code '0'}
+ * flags, a width and, for {@code %f}, a precision, along with {@code %%} and {@code %n}. Numbers are rendered directly
+ * as ASCII digits, which is only done for locales that use ASCII digits and a {@code '.'} decimal separator. The output
+ * is identical to that of {@link java.util.Formatter}, and for any format string, arguments or locale outside the
+ * subset, {@link #formatTo(Locale, Object[], Appendable)} appends nothing so that the caller can fall back to a
+ * {@link java.util.Formatter}.
+ *
+ * <p>
+ * Compiled formats are held in a small direct-mapped cache keyed by the identity of the format string, as for
+ * {@link MessagePattern}.
+ */
+final class PrintfFormat {
+  private static final int CACHE_SIZE = 256;
+  private static final PrintfFormat[] cache = new PrintfFormat[CACHE_SIZE];
+  private static final String LINE_SEPARATOR = System.lineSeparator();
+  // the largest width or precision that is compiled, which is far wider than is useful in a log line
+  private static final int MAX_WIDTH = 9999;
+
+  private static final int ASCII_DIGITS = 1;
+  private static final int DECIMAL_POINT = 2;
+  private static final ConcurrentHashMap<Locale, Integer> localeSymbols = new ConcurrentHashMap<>();
+
+  private static final ThreadLocal<StringBuilder> DOUBLE_BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(32));
+  private static final ThreadLocal<char[]> DIGITS = ThreadLocal.withInitial(() -> new char[32]);
+
+  private static final char LITERAL = 0;
+  private static final char NEWLINE = 'n';
+
+  private final String format;
+  // null if the format is outside the supported subset
+  private final Segment[] segments;
+  private final int specifierCount;
+  // the locale symbols that the specifiers require
+  private final int requiredSymbols;
+
+  /**
+   * Find the compiled form of a format string, compiling it if it is not in the cache.
+   *
+   * @param format The format string.
+   * @return The compiled format.
+   */
+  static PrintfFormat forFormat(String format) {
+    int h = System.identityHashCode(format);
+    int index = (h ^ (h >>> 16)) & (CACHE_SIZE - 1);
+    // entries are immutable, so a racy read will see either a complete entry or a different one
+    PrintfFormat compiled = cache[index];
+    if (compiled == null || compiled.format != format) {
+      compiled = compile(format);
+      cache[index] = compiled;
+    }
+    return compiled;
+  }
+
+  /**
+   * Compile a format string, without consulting the cache.
+   *
+   * @param format The format string.
+   * @return The compiled format.
+   */
+  static PrintfFormat compile(String format) {
+    List<Segment> segments = new ArrayList<>();
+    int length = format.length();
+    int i = 0;
+    while (i < length) {
+      int j = format.indexOf('%', i);
+      if (j < 0) {
+        segments.add(Segment.literal(i, length));
+        break;
+      }
+      if (j > i) {
+        segments.add(Segment.literal(i, j));
+      }
+      i = j + 1;
+
+      boolean leftJustify = false;
+      boolean zeroPad = false;
+      int width = -1;
+      int precision = -1;
+      for (; i < length; ++i) {
+        char c = format.charAt(i);
+        if (c == '-' && !leftJustify) {
+          leftJustify = true;
+        } else if (c == '0' && !zeroPad) {
+          zeroPad = true;
+        } else if ("-#+ 0,(<".indexOf(c) >= 0) {
+          return unsupported(format);
+        } else {
+          break;
+        }
+      }
+      int start = i;
+      while (i < length && isDigit(format.charAt(i))) {
+        i++;
+      }
+      if (i > start) {
+        if (i < length && format.charAt(i) == '$') {
+          // explicit argument indices
+          return unsupported(format);
+        }
+        width = parseNumber(format, start, i);
+      }
+      if (i < length && format.charAt(i) == '.') {
+        start = ++i;
+        while (i < length && isDigit(format.charAt(i))) {
+          i++;
+        }
+        precision = parseNumber(format, start, i);
+        if (precision < 0) {
+          return unsupported(format);
+        }
+      }
+      if (i == length || width > MAX_WIDTH || precision > MAX_WIDTH) {
+        return unsupported(format);
+      }
+
+      char conversion = format.charAt(i++);
+      boolean anyFlag = leftJustify || zeroPad;
+      if (conversion == '%' || conversion == 'n') {
+        if (anyFlag || width >= 0 || precision >= 0) {
+          return unsupported(format);
+        }
+        if (conversion == '%') {
+          segments.add(Segment.literal(i - 1, i));
+        } else {
+          segments.add(new Segment(NEWLINE, 0, 0, false, false, -1, -1));
+        }
+        continue;
+      }
+      if ((leftJustify && zeroPad) || (anyFlag && width < 0)) {
+        return unsupported(format);
+      }
+      switch (conversion) {
+        case 's':
+          if (zeroPad || precision >= 0) {
+            return unsupported(format);
+          }
+          break;
+        case 'd':
+        case 'x':
+        case 'X':
+          if (precision >= 0) {
+            return unsupported(format);
+          }
+          break;
+        case 'f':
+          if (precision < 0) {
+            precision = 6;
+          }
+          break;
+        default:
+          return unsupported(format);
+      }
+      segments.add(new Segment(conversion, 0, 0, leftJustify, zeroPad, width, precision));
+    }
+    return new PrintfFormat(format, segments.toArray(new Segment[segments.size()]));
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static int parseNumber(String format, int start, int end) {
+    if (end == start) {
+      return -1;
+    }
+    if (end - start > 5) {
+      return Integer.MAX_VALUE;
+    }
+    return Integer.parseInt(format.substring(start, end));
+  }
+
+  private static PrintfFormat unsupported(String format) {
+    return new PrintfFormat(format, null);
+  }
+
+  private PrintfFormat(String format, Segment[] segments) {
+    this.format = format;
+    this.segments = segments;
+    int count = 0;
+    int symbols = 0;
+    if (segments != null) {
+      for (Segment segment : segments) {
+        switch (segment.conversion) {
+          case LITERAL:
+          case NEWLINE:
+            continue;
+          case 'd':
+            symbols |= ASCII_DIGITS;
+            break;
+          case 'f':
+            symbols |= ASCII_DIGITS | DECIMAL_POINT;
+            break;
+          default:
+            break;
+        }
+        count++;
+      }
+    }
+    this.specifierCount = count;
+    this.requiredSymbols = symbols;
+  }
+
+  /**
+   * Append the format string, with specifiers replaced by arguments, to an {@link Appendable}.
+   *
+   * @param locale The locale to format for.
+   * @param args The format arguments.
+   * @param appendable The {@link Appendable} to append to.
+   * @return {@code true} if the output was appended, or {@code false} if the format string, arguments or locale are
+   *         outside the supported subset, in which case nothing was appended.
+   * @throws IOException If any of the appendable methods throw an {@code IOException}.
+   */
+  boolean formatTo(Locale locale, Object[] args, Appendable appendable) throws IOException {
+    if (segments == null || !supports(locale, args)) {
+      return false;
+    }
+    int arg = 0;
+    for (Segment segment : segments) {
+      switch (segment.conversion) {
+        case LITERAL:
+          appendable.append(format, segment.start, segment.end);
+          break;
+        case NEWLINE:
+          appendable.append(LINE_SEPARATOR);
+          break;
+        case 's':
+          appendString(segment, args[arg++], appendable);
+          break;
+        case 'd':
+          appendDecimal(segment, ((Number) args[arg++]).longValue(), appendable);
+          break;
+        case 'x':
+        case 'X':
+          appendHex(segment, args[arg++], appendable);
+          break;
+        default:
+          appendFixed(segment, ((Number) args[arg++]).doubleValue(), appendable);
+      }
+    }
+    return true;
+  }
+
+  private boolean supports(Locale locale, Object[] args) {
+    if (specifierCount == 0) {
+      return true;
+    }
+    if (args == null || args.length < specifierCount) {
+      return false;
+    }
+    if (requiredSymbols != 0 && (symbols(locale) & requiredSymbols) != requiredSymbols) {
+      return false;
+    }
+    int arg = 0;
+    for (Segment segment : segments) {
+      Object value;
+      switch (segment.conversion) {
+        case LITERAL:
+        case NEWLINE:
+          continue;
+        case 's':
+          if (args[arg++] instanceof Formattable) {
+            return false;
+          }
+          break;
+        case 'd':
+        case 'x':
+        case 'X':
+          value = args[arg++];
+          if (!(value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte)) {
+            return false;
+          }
+          break;
+        default:
+          value = args[arg++];
+          if (!(value instanceof Double || value instanceof Float)
+              || !Double.isFinite(((Number) value).doubleValue())) {
+            return false;
+          }
+      }
+    }
+    return true;
+  }
+
+  private static int symbols(Locale locale) {
+    if (locale == null) {
+      // no localization is applied
+      return ASCII_DIGITS | DECIMAL_POINT;
+    }
+    Integer symbols = localeSymbols.get(locale);
+    if (symbols == null) {
+      DecimalFormatSymbols dfs = DecimalFormatSymbols.getInstance(locale);
+      int value = 0;
+      if (dfs.getZeroDigit() == '0') {
+        value |= ASCII_DIGITS;
+        if (dfs.getDecimalSeparator() == '.') {
+          value |= DECIMAL_POINT;
+        }
+      }
+      symbols = value;
+      localeSymbols.put(locale, symbols);
+    }
+    return symbols;
+  }
+
+  private static void appendString(Segment segment, Object value, Appendable appendable) throws IOException {
+    String s = String.valueOf(value);
+    int padding = segment.width - s.length();
+    if (!segment.leftJustify) {
+      appendPadding(' ', padding, appendable);
+    }
+    appendable.append(s);
+    if (segment.leftJustify) {
+      appendPadding(' ', padding, appendable);
+    }
+  }
+
+  private static void appendDecimal(Segment segment, long value, Appendable appendable) throws IOException {
+    char[] digits = DIGITS.get();
+    int end = digits.length;
+    int start = end;
+    // render from the least significant digit, working with a negative value so that Long.MIN_VALUE is handled
+    long v = (value < 0) ? value : -value;
+    do {
+      digits[--start] = (char) ('0' - (v % 10));
+      v /= 10;
+    } while (v != 0);
+    appendNumber(segment, value < 0, digits, start, end, appendable);
+  }
+
+  private static void appendHex(Segment segment, Object value, Appendable appendable) throws IOException {
+    long bits;
+    if (value instanceof Long) {
+      bits = (Long) value;
+    } else if (value instanceof Integer) {
+      bits = ((Integer) value) & 0xffffffffL;
+    } else if (value instanceof Short) {
+      bits = ((Short) value) & 0xffffL;
+    } else {
+      bits = ((Byte) value) & 0xffL;
+    }
+    char[] digits = DIGITS.get();
+    int end = digits.length;
+    int start = end;
+    char base = (segment.conversion == 'X') ? 'A' : 'a';
+    do {
+      int digit = (int) (bits & 0xf);
+      digits[--start] = (char) ((digit < 10) ? '0' + digit : base + digit - 10);
+      bits >>>= 4;
+    } while (bits != 0);
+    appendNumber(segment, false, digits, start, end, appendable);
+  }
+
+  private static void appendFixed(Segment segment, double value, Appendable appendable) throws IOException {
+    // Formatter rounds the shortest decimal representation of the value half-up, so start from the same digits
+    StringBuilder builder = DOUBLE_BUILDER.get();
+    builder.setLength(0);
+    builder.append(Math.abs(value));
+
+    char[] digits = DIGITS.get();
+    if (digits.length < builder.length() + 1) {
+      digits = new char[builder.length() + 1];
+    }
+    // digits[0] is reserved for a carry when rounding
+    int count = 1;
+    int point = -1;
+    int exponent = 0;
+    for (int i = 0; i < builder.length(); ++i) {
+      char c = builder.charAt(i);
+      if (c == '.') {
+        point = count - 1;
+      } else if (c == 'E') {
+        exponent = Integer.parseInt(builder.substring(i + 1));
+        break;
+      } else {
+        digits[count++] = c;
+      }
+    }
+    int digitCount = count - 1;
+    // the number of digits preceding the decimal point, which may be negative or exceed the number of digits
+    int intDigits = point + exponent;
+
+    int precision = segment.precision;
+    int roundAt = intDigits + precision;
+    int offset = 1;
+    if (roundAt < digitCount) {
+      boolean roundUp = roundAt >= 0 && digits[roundAt + 1] >= '5';
+      digitCount = Math.max(roundAt, 0);
+      if (roundUp) {
+        int i = roundAt;
+        while (i > 0 && digits[i] == '9') {
+          digits[i--] = '0';
+        }
+        if (i == 0) {
+          // carried into a new leading digit
+          digits[0] = '1';
+          offset = 0;
+          intDigits++;
+          digitCount++;
+        } else {
+          digits[i]++;
+        }
+      }
+    }
+
+    int intLength = Math.max(intDigits, 1);
+    int length = intLength + ((precision > 0) ? precision + 1 : 0);
+    boolean negative = Double.compare(value, 0.0) < 0;
+    int padding = segment.width - length - (negative ? 1 : 0);
+    if (!segment.leftJustify && !segment.zeroPad) {
+      appendPadding(' ', padding, appendable);
+    }
+    if (negative) {
+      appendable.append('-');
+    }
+    if (segment.zeroPad) {
+      appendPadding('0', padding, appendable);
+    }
+    if (intDigits <= 0) {
+      appendable.append('0');
+    } else {
+      for (int i = 0; i < intDigits; ++i) {
+        appendable.append((i < digitCount) ? digits[offset + i] : '0');
+      }
+    }
+    if (precision > 0) {
+      appendable.append('.');
+      for (int i = intDigits; i < intDigits + precision; ++i) {
+        appendable.append((i >= 0 && i < digitCount) ? digits[offset + i] : '0');
+      }
+    }
+    if (segment.leftJustify) {
+      appendPadding(' ', padding, appendable);
+    }
+  }
+
+  private static void appendNumber(
+      Segment segment,
+      boolean negative,
+      char[] digits,
+      int start,
+      int end,
+      Appendable appendable) throws IOException {
+    int padding = segment.width - (end - start) - (negative ? 1 : 0);
+    if (!segment.leftJustify && !segment.zeroPad) {
+      appendPadding(' ', padding, appendable);
+    }
+    if (negative) {
+      appendable.append('-');
+    }
+    if (segment.zeroPad) {
+      appendPadding('0', padding, appendable);
+    }
+    for (int i = start; i < end; ++i) {
+      appendable.append(digits[i]);
+    }
+    if (segment.leftJustify) {
+      appendPadding(' ', padding, appendable);
+    }
+  }
+
+  private static void appendPadding(char c, int count, Appendable appendable) throws IOException {
+    for (int i = 0; i < count; ++i) {
+      appendable.append(c);
+    }
+  }
+
+  private static final class Segment {
+    // LITERAL, NEWLINE, or the conversion character of a specifier
+    final char conversion;
+    // the start and end offsets of a literal
+    final int start;
+    final int end;
+    final boolean leftJustify;
+    final boolean zeroPad;
+    final int width;
+    final int precision;
+
+    static Segment literal(int start, int end) {
+      return new Segment(LITERAL, start, end, false, false, -1, -1);
+    }
+
+    Segment(char conversion, int start, int end, boolean leftJustify, boolean zeroPad, int width, int precision) {
+      this.conversion = conversion;
+      this.start = start;
+      this.end = end;
+      this.leftJustify = leftJustify;
+      this.zeroPad = zeroPad;
+      this.width = width;
+      this.precision = precision;
+    }
+  }
+}
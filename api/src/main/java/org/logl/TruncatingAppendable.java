@@ -0,0 +1,34 @@
+package org.logl;
+
+/**
+ * An {@link Appendable} that limits the length of a message and of each of its arguments, discarding any output beyond
+ * those limits.
+ *
+ * <p>
+ * Arguments are bracketed by {@link #beginArgument()} and {@link #endArgument()}, and rendering of an argument made up
+ * of many elements (such as an array) stops once {@link #isTruncating()} returns {@code true}, so that the remainder is
+ * never rendered.
+ */
+interface TruncatingAppendable extends Appendable {
+
+  /**
+   * Start appending a message argument, which is subject to the argument length limit.
+   */
+  void beginArgument();
+
+  /**
+   * Finish appending a message argument, appending a marker if it was truncated.
+   */
+  void endArgument();
+
+  /**
+   * Check whether further output is being discarded.
+   *
+   * <p>
+   * This should only be called when there is more output to append, as the length of the discarded output is then no
+   * longer known.
+   *
+   * @return {@code true} if further output is being discarded, and rendering should stop.
+   */
+  boolean isTruncating();
+}
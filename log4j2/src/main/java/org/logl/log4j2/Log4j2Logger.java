@@ -567,6 +567,102 @@ public final class Log4j2Logger implements Logger {
     }
   }
 
+  @Override
+  public void error(String pattern, Object arg) {
+    if (log4j2Logger.isErrorEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.error(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void error(String pattern, long arg) {
+    if (log4j2Logger.isErrorEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.error(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void error(String pattern, double arg) {
+    if (log4j2Logger.isErrorEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.error(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void error(String pattern, char arg) {
+    if (log4j2Logger.isErrorEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.error(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void error(String pattern, float arg) {
+    if (log4j2Logger.isErrorEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.error(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void error(String pattern, Object arg1, Object arg2) {
+    if (log4j2Logger.isErrorEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.error(pattern, arg1, arg2);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void error(String pattern, Object arg1, Object arg2, Object arg3) {
+    if (log4j2Logger.isErrorEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.error(pattern, arg1, arg2, arg3);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void error(String pattern, Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (log4j2Logger.isErrorEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.error(pattern, arg1, arg2, arg3, arg4);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
   @Override
   public boolean isWarnEnabled() {
     return log4j2Logger.isWarnEnabled();
@@ -589,6 +685,102 @@ public final class Log4j2Logger implements Logger {
     }
   }
 
+  @Override
+  public void warn(String pattern, Object arg) {
+    if (log4j2Logger.isWarnEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.warn(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void warn(String pattern, long arg) {
+    if (log4j2Logger.isWarnEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.warn(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void warn(String pattern, double arg) {
+    if (log4j2Logger.isWarnEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.warn(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void warn(String pattern, char arg) {
+    if (log4j2Logger.isWarnEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.warn(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void warn(String pattern, float arg) {
+    if (log4j2Logger.isWarnEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.warn(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void warn(String pattern, Object arg1, Object arg2) {
+    if (log4j2Logger.isWarnEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.warn(pattern, arg1, arg2);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void warn(String pattern, Object arg1, Object arg2, Object arg3) {
+    if (log4j2Logger.isWarnEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.warn(pattern, arg1, arg2, arg3);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void warn(String pattern, Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (log4j2Logger.isWarnEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.warn(pattern, arg1, arg2, arg3, arg4);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
   @Override
   public boolean isInfoEnabled() {
     return log4j2Logger.isInfoEnabled();
@@ -611,6 +803,102 @@ public final class Log4j2Logger implements Logger {
     }
   }
 
+  @Override
+  public void info(String pattern, Object arg) {
+    if (log4j2Logger.isInfoEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.info(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void info(String pattern, long arg) {
+    if (log4j2Logger.isInfoEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.info(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void info(String pattern, double arg) {
+    if (log4j2Logger.isInfoEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.info(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void info(String pattern, char arg) {
+    if (log4j2Logger.isInfoEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.info(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void info(String pattern, float arg) {
+    if (log4j2Logger.isInfoEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.info(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void info(String pattern, Object arg1, Object arg2) {
+    if (log4j2Logger.isInfoEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.info(pattern, arg1, arg2);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void info(String pattern, Object arg1, Object arg2, Object arg3) {
+    if (log4j2Logger.isInfoEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.info(pattern, arg1, arg2, arg3);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void info(String pattern, Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (log4j2Logger.isInfoEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.info(pattern, arg1, arg2, arg3, arg4);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
   @Override
   public boolean isDebugEnabled() {
     return log4j2Logger.isDebugEnabled();
@@ -633,6 +921,102 @@ public final class Log4j2Logger implements Logger {
     }
   }
 
+  @Override
+  public void debug(String pattern, Object arg) {
+    if (log4j2Logger.isDebugEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.debug(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void debug(String pattern, long arg) {
+    if (log4j2Logger.isDebugEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.debug(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void debug(String pattern, double arg) {
+    if (log4j2Logger.isDebugEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.debug(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void debug(String pattern, char arg) {
+    if (log4j2Logger.isDebugEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.debug(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void debug(String pattern, float arg) {
+    if (log4j2Logger.isDebugEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.debug(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void debug(String pattern, Object arg1, Object arg2) {
+    if (log4j2Logger.isDebugEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.debug(pattern, arg1, arg2);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void debug(String pattern, Object arg1, Object arg2, Object arg3) {
+    if (log4j2Logger.isDebugEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.debug(pattern, arg1, arg2, arg3);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void debug(String pattern, Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (log4j2Logger.isDebugEnabled()) {
+      lock.readLock().lock();
+      try {
+        log4j2Logger.debug(pattern, arg1, arg2, arg3, arg4);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
   @Override
   public void batch(Consumer<Logger> fn) {
     lock.writeLock().lock();
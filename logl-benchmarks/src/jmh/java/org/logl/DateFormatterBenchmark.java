@@ -0,0 +1,50 @@
+package org.logl;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateFormatterBenchmark {
+
+  @Param({"UTC", "America/New_York"})
+  public String zoneId;
+
+  private final LineBuffer out = new LineBuffer();
+  private DateFormatter formatter;
+  private long time;
+
+  @Setup
+  public void setup() {
+    ZoneId zone = "UTC".equals(zoneId) ? ZoneOffset.UTC : ZoneId.of(zoneId);
+    formatter = DateFormatter.forZone(zone);
+    time = 1196676930000L; // 2007-12-03T10:15:30.00Z
+  }
+
+  @Benchmark
+  public LineBuffer formatTo() {
+    time += 1;
+    out.reset();
+    formatter.formatTo(time, out);
+    return out;
+  }
+
+  @Benchmark
+  public LineBuffer formatToNewSecond() {
+    time += 1001;
+    out.reset();
+    formatter.formatTo(time, out);
+    return out;
+  }
+}
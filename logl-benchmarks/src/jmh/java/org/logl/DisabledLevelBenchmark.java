@@ -0,0 +1,51 @@
+package org.logl;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DisabledLevelBenchmark {
+
+  private Logger logger;
+  private String user = "alice";
+  private int attempt = 3;
+  private long session = 1234567890123L;
+  private double elapsed = 0.125;
+
+  @Setup
+  public void setup() {
+    PrintWriter out = new PrintWriter(new StringWriter());
+    logger = SimpleLogger.withLogLevel(Level.INFO).toPrintWriter(out).getLogger(DisabledLevelBenchmark.class);
+  }
+
+  @Benchmark
+  public void varargs() {
+    logger.debug("User {} attempt {}", new Object[] {user, attempt});
+  }
+
+  @Benchmark
+  public void twoArgs() {
+    logger.debug("User {} attempt {}", user, attempt);
+  }
+
+  @Benchmark
+  public void longArg() {
+    logger.debug("Session {}", session);
+  }
+
+  @Benchmark
+  public void doubleArg() {
+    logger.debug("Took {}", elapsed);
+  }
+}
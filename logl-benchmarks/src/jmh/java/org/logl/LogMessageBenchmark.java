@@ -0,0 +1,50 @@
+package org.logl;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LogMessageBenchmark {
+
+  private final StringBuilder builder = new StringBuilder(256);
+  private final String user = "alice";
+  private final int attempt = 3;
+  private final long session = 1234567890123L;
+
+  @Benchmark
+  public StringBuilder stringFormat() throws IOException {
+    builder.setLength(0);
+    LogMessage.stringFormat("User %s logged in (attempt %d, session %d)", user, attempt, session).appendTo(
+        Locale.ENGLISH,
+        builder);
+    return builder;
+  }
+
+  @Benchmark
+  public StringBuilder messageFormat() throws IOException {
+    builder.setLength(0);
+    LogMessage.messageFormat("User {0} logged in (attempt {1}, session {2})", user, attempt, session).appendTo(
+        Locale.ENGLISH,
+        builder);
+    return builder;
+  }
+
+  @Benchmark
+  public StringBuilder patternFormat() throws IOException {
+    builder.setLength(0);
+    LogMessage.patternFormat("User {} logged in (attempt {}, session {})", user, attempt, session).appendTo(
+        Locale.ENGLISH,
+        builder);
+    return builder;
+  }
+}
@@ -0,0 +1,101 @@
+package org.logl;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageFormatterBenchmark {
+
+  private static final Object[] NO_ARGS = new Object[0];
+  private static final Object[] ONE_ARG = new Object[] {"alice"};
+  private static final Object[] THREE_ARGS = new Object[] {"alice", 42, 1234567890123L};
+  private static final Object[] EIGHT_ARGS = new Object[] {"alice", 42, 1234567890123L, 3.14159, true, 'x', "bob", 7};
+  private static final Object[] INT_ARRAY_ARG = new Object[] {new int[] {1, 22, 333, 4444, 55555, 666666, 7777777}};
+  private static final Object[] BYTE_ARRAY_ARG = new Object[] {new byte[] {1, -2, 3, -4, 5, -6, 7, -8, 9, -10, 11}};
+  private static final Object[] HEX_ARG =
+      new Object[] {LogMessage.hex(new byte[] {1, -2, 3, -4, 5, -6, 7, -8, 9, -10, 11})};
+  private static final Object[] OBJECT_ARRAY_ARG =
+      new Object[] {new Object[] {"alice", 42, new Object[] {"bob", 3.14159}, new long[] {1L, 2L}}};
+
+  private final StringBuilder builder = new StringBuilder(256);
+
+  @Benchmark
+  public StringBuilder noArgs() throws IOException {
+    builder.setLength(0);
+    MessageFormatter.formatTo("User logged in from the usual location", Locale.ROOT, NO_ARGS, builder);
+    return builder;
+  }
+
+  @Benchmark
+  public StringBuilder oneArg() throws IOException {
+    builder.setLength(0);
+    MessageFormatter.formatTo("User {} logged in", Locale.ROOT, ONE_ARG, builder);
+    return builder;
+  }
+
+  @Benchmark
+  public StringBuilder threeArgs() throws IOException {
+    builder.setLength(0);
+    MessageFormatter.formatTo("User {} logged in (attempt {}, session {})", Locale.ROOT, THREE_ARGS, builder);
+    return builder;
+  }
+
+  @Benchmark
+  public StringBuilder threeArgsUncached() throws IOException {
+    builder.setLength(0);
+    MessagePattern.compile("User {} logged in (attempt {}, session {})").formatTo(Locale.ROOT, THREE_ARGS, builder);
+    return builder;
+  }
+
+  @Benchmark
+  public StringBuilder eightArgs() throws IOException {
+    builder.setLength(0);
+    MessageFormatter.formatTo("{} {} {} {} {} {} {} {}", Locale.ROOT, EIGHT_ARGS, builder);
+    return builder;
+  }
+
+  @Benchmark
+  public StringBuilder eightArgsUncached() throws IOException {
+    builder.setLength(0);
+    MessagePattern.compile("{} {} {} {} {} {} {} {}").formatTo(Locale.ROOT, EIGHT_ARGS, builder);
+    return builder;
+  }
+
+  @Benchmark
+  public StringBuilder intArray() throws IOException {
+    builder.setLength(0);
+    MessageFormatter.formatTo("Values: {}", Locale.ROOT, INT_ARRAY_ARG, builder);
+    return builder;
+  }
+
+  @Benchmark
+  public StringBuilder byteArray() throws IOException {
+    builder.setLength(0);
+    MessageFormatter.formatTo("Packet: {}", Locale.ROOT, BYTE_ARRAY_ARG, builder);
+    return builder;
+  }
+
+  @Benchmark
+  public StringBuilder byteArrayHex() throws IOException {
+    builder.setLength(0);
+    MessageFormatter.formatTo("Packet: {}", Locale.ROOT, HEX_ARG, builder);
+    return builder;
+  }
+
+  @Benchmark
+  public StringBuilder objectArray() throws IOException {
+    builder.setLength(0);
+    MessageFormatter.formatTo("Values: {}", Locale.ROOT, OBJECT_ARRAY_ARG, builder);
+    return builder;
+  }
+}
@@ -0,0 +1,34 @@
+package org.logl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NameAbbreviatorBenchmark {
+
+  @Param({"", "1", "-2", "1.", "1~.2-", "*.1.2-"})
+  public String pattern;
+
+  private final String name = "org.logl.benchmarks.internal.NameAbbreviatorBenchmark";
+  private NameAbbreviator abbreviator;
+
+  @Setup
+  public void setup() {
+    abbreviator = NameAbbreviator.forPattern(pattern);
+  }
+
+  @Benchmark
+  public String abbreviate() {
+    return abbreviator.abbreviate(name);
+  }
+}
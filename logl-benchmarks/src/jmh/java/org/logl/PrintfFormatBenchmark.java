@@ -0,0 +1,39 @@
+package org.logl;
+
+import java.io.IOException;
+import java.util.Formatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PrintfFormatBenchmark {
+
+  private static final String FORMAT = "User %s logged in (attempt %d, session %08x, took %.3f ms)";
+  private static final Object[] ARGS = new Object[] {"alice", 42, 0xcafeL, 3.14159};
+
+  private final StringBuilder builder = new StringBuilder(256);
+  private final Formatter formatter = new Formatter(builder);
+
+  @Benchmark
+  public StringBuilder compiled() throws IOException {
+    builder.setLength(0);
+    PrintfFormat.forFormat(FORMAT).formatTo(Locale.US, ARGS, builder);
+    return builder;
+  }
+
+  @Benchmark
+  public StringBuilder formatter() {
+    builder.setLength(0);
+    formatter.format(Locale.US, FORMAT, ARGS);
+    return builder;
+  }
+}
@@ -0,0 +1,91 @@
+package org.logl;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Measures how writes through a {@link RotatingFilePrintWriterSupplier} scale with the number of writing threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RotatingFileWriteBenchmark {
+
+  private static final char[] LINE =
+      "2007-12-03 10:15:30.000+0000  INFO [o.l.RotatingFileWriteBenchmark] A log line of a typical length\n"
+          .toCharArray();
+
+  @Param({"channel", "mapped"})
+  public String output;
+
+  private Path tempDir;
+  private RotatingFilePrintWriterSupplier supplier;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    tempDir = Files.createTempDirectory("logl-benchmark");
+    Path logFile = tempDir.resolve("output.log");
+    if ("mapped".equals(output)) {
+      supplier = RotatingFilePrintWriterSupplier.mappedSegments(logFile, 64 * 1024 * 1024, 2);
+    } else {
+      supplier = new RotatingFilePrintWriterSupplier(logFile, FileRotationStrategy.forSize(64 * 1024 * 1024, 0), 2);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    supplier.close();
+    try (Stream<Path> files = Files.list(tempDir)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(tempDir);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public PrintWriter write1Thread() {
+    return write();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public PrintWriter write4Threads() {
+    return write();
+  }
+
+  @Benchmark
+  @Threads(16)
+  public PrintWriter write16Threads() {
+    return write();
+  }
+
+  @Benchmark
+  @Threads(64)
+  public PrintWriter write64Threads() {
+    return write();
+  }
+
+  private PrintWriter write() {
+    PrintWriter out = supplier.get();
+    out.write(LINE, 0, LINE.length);
+    return out;
+  }
+}
@@ -0,0 +1,55 @@
+package org.logl.decoder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.logl.BinaryLogDecoder;
+
+/**
+ * A command line tool that decodes a binary log file to standard output, or to a second file:
+ *
+ * <pre>
+ * logl-decoder &lt;binary log file&gt; [&lt;output file&gt;]
+ * </pre>
+ *
+ * @see BinaryLogDecoder
+ */
+public final class Main {
+  private Main() {}
+
+  /**
+   * Decode a binary log file.
+   *
+   * @param args The binary log file, and optionally the file to write the decoded log to.
+   */
+  public static void main(String[] args) {
+    if (args.length < 1 || args.length > 2) {
+      System.err.println("Usage: logl-decoder <binary log file> [<output file>]");
+      System.exit(2);
+    }
+    try (InputStream in = Files.newInputStream(Paths.get(args[0]))) {
+      Writer out = (args.length == 2) ? Files.newBufferedWriter(Paths.get(args[1]), UTF_8)
+          : new OutputStreamWriter(System.out, UTF_8);
+      try {
+        BinaryLogDecoder.decode(in, out);
+      } catch (EOFException e) {
+        System.err.println("Warning: " + e.getMessage());
+      } finally {
+        out.flush();
+        if (args.length == 2) {
+          out.close();
+        }
+      }
+    } catch (IOException e) {
+      System.err.println("Error: " + e.getMessage());
+      System.exit(1);
+    }
+  }
+}
@@ -3,7 +3,7 @@ package org.logl;
 /**
  * A {@link LoggerProvider} that provides {@link AdjustableLogger} instances.
  */
-public interface AdjustableLoggerProvider extends LoggerProvider {
+public interface AdjustableLoggerProvider extends LoggerProvider, AutoCloseable {
 
   @Override
   default AdjustableLogger getLogger(Class<?> loggingClass) {
@@ -12,4 +12,14 @@ public interface AdjustableLoggerProvider extends LoggerProvider {
 
   @Override
   AdjustableLogger getLogger(String name);
+
+  /**
+   * Close this provider.
+   *
+   * <p>
+   * Providers that buffer log output will write all pending log lines before returning. Loggers obtained from a closed
+   * provider remain usable, but will write directly to the output.
+   */
+  @Override
+  default void close() {}
 }
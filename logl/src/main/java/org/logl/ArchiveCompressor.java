@@ -0,0 +1,108 @@
+package org.logl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses files in gzip format, splitting them into blocks that are compressed in parallel.
+ *
+ * <p>
+ * Each block is compressed as a separate gzip member, and the members are concatenated in order. A concatenation of
+ * gzip members is itself a valid gzip file, which decompresses to the concatenation of the blocks.
+ */
+final class ArchiveCompressor {
+  private static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+  private final ForkJoinPool pool;
+  private final int blockSize;
+
+  ArchiveCompressor(ForkJoinPool pool) {
+    this(pool, DEFAULT_BLOCK_SIZE);
+  }
+
+  // visible for testing
+  ArchiveCompressor(ForkJoinPool pool, int blockSize) {
+    this.pool = pool;
+    this.blockSize = blockSize;
+  }
+
+  /**
+   * Compress a file.
+   *
+   * @param source The file to compress.
+   * @param target The file to write the compressed output to, which will be replaced if it exists.
+   * @throws IOException If the source could not be read, or the target could not be written.
+   */
+  void compress(Path source, Path target) throws IOException {
+    // limit the number of blocks held in memory
+    int window = pool.getParallelism() * 2;
+    Deque<ForkJoinTask<byte[]>> pending = new ArrayDeque<>(window);
+    try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+        OutputStream out = Files.newOutputStream(target)) {
+      boolean eof = false;
+      boolean empty = true;
+      while (true) {
+        while (!eof && pending.size() < window) {
+          byte[] block = readBlock(in);
+          if (block == null) {
+            eof = true;
+          } else {
+            empty = false;
+            pending.addLast(pool.submit(() -> compressBlock(block)));
+          }
+        }
+        if (pending.isEmpty()) {
+          break;
+        }
+        out.write(pending.removeFirst().join());
+      }
+      if (empty) {
+        out.write(compressBlock(new byte[0]));
+      }
+    } finally {
+      for (ForkJoinTask<byte[]> task : pending) {
+        task.cancel(false);
+      }
+    }
+  }
+
+  private byte[] readBlock(FileChannel in) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(blockSize);
+    while (buffer.hasRemaining()) {
+      if (in.read(buffer) < 0) {
+        break;
+      }
+    }
+    if (buffer.position() == 0) {
+      return null;
+    }
+    if (buffer.position() == blockSize) {
+      return buffer.array();
+    }
+    byte[] block = new byte[buffer.position()];
+    System.arraycopy(buffer.array(), 0, block, 0, block.length);
+    return block;
+  }
+
+  private static byte[] compressBlock(byte[] block) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(block.length / 4 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(bytes, 64 * 1024)) {
+      gzip.write(block);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+}
@@ -0,0 +1,285 @@
+package org.logl;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded multi-producer, single-consumer ring buffer of log events, drained by a dedicated writer thread.
+ *
+ * <p>
+ * Producers claim a sequence number with a CAS on {@code claimed}, fill the preallocated slot for that sequence and
+ * then publish it by storing the sequence into {@code published}. The writer thread consumes slots strictly in
+ * sequence order, so lines from all loggers sharing the queue are written in the order they were claimed.
+ */
+final class AsyncLogQueue {
+  private static final long PARK_NANOS = 100_000L;
+  // the number of times a producer yields while the buffer is full, before it starts parking
+  private static final int FULL_YIELDS = 64;
+
+  private final Slot[] slots;
+  private final int mask;
+  private final AtomicLongArray published;
+  private final AtomicLong claimed = new AtomicLong(0);
+  private final AtomicLong consumed = new AtomicLong(0);
+  private final Runnable flushOutput;
+  private final boolean autoFlush;
+  private final Thread writerThread;
+
+  private volatile boolean waiting = false;
+  private volatile boolean closed = false;
+  private volatile boolean stopped = false;
+  // only accessed by the writer thread, or by drainRemaining() once the writer thread has stopped
+  private long next = 0;
+  private boolean unflushed = false;
+
+  AsyncLogQueue(int capacity, Runnable flushOutput, boolean autoFlush) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Async capacity must be positive");
+    }
+    int size = (capacity == 1) ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    this.slots = new Slot[size];
+    this.published = new AtomicLongArray(size);
+    for (int i = 0; i < size; ++i) {
+      slots[i] = new Slot();
+      published.set(i, -1);
+    }
+    this.mask = size - 1;
+    this.flushOutput = flushOutput;
+    this.autoFlush = autoFlush;
+    this.writerThread = new Thread(this::run, "logl-async-writer");
+    this.writerThread.setDaemon(true);
+    this.writerThread.start();
+  }
+
+  /**
+   * Publish a single log line.
+   *
+   * @return {@code false} if the event could not be queued and should be written by the caller.
+   */
+  boolean publish(
+      SimpleLoggerImpl logger,
+      long time,
+      Level level,
+      LogMessage message,
+      CharSequence text,
+      String format,
+      Object[] args,
+      Throwable cause,
+      Thread thread) {
+    long seq = claim();
+    if (seq < 0) {
+      return false;
+    }
+    Slot slot = slots[(int) seq & mask];
+    slot.logger = logger;
+    slot.time = time;
+    slot.level = level;
+    slot.message = message;
+    slot.text = text;
+    slot.format = format;
+    slot.args = args;
+    slot.cause = cause;
+    slot.thread = thread;
+    commit(seq);
+    return true;
+  }
+
+  /**
+   * Publish a batch of log events, which will be written consecutively.
+   *
+   * @return {@code false} if the batch could not be queued and should be written by the caller.
+   */
+  boolean publish(SimpleLoggerImpl logger, Collection<SimpleLogEvent> events, Thread thread) {
+    long seq = claim();
+    if (seq < 0) {
+      return false;
+    }
+    Slot slot = slots[(int) seq & mask];
+    slot.logger = logger;
+    slot.events = events;
+    slot.thread = thread;
+    commit(seq);
+    return true;
+  }
+
+  /**
+   * Stop accepting events, and wait for all queued events to be written.
+   */
+  void close() {
+    closed = true;
+    LockSupport.unpark(writerThread);
+    if (Thread.currentThread() == writerThread) {
+      return;
+    }
+    boolean interrupted = false;
+    while (writerThread.isAlive()) {
+      try {
+        writerThread.join();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  boolean isWriterThread() {
+    return Thread.currentThread() == writerThread;
+  }
+
+  private long claim() {
+    if (isWriterThread()) {
+      // a message being formatted by the writer thread is logging, so it must be written inline
+      return -1;
+    }
+    int waits = 0;
+    while (true) {
+      if (closed) {
+        return -1;
+      }
+      long seq = claimed.get();
+      if (seq - consumed.get() >= slots.length) {
+        // buffer is full, so wait for the writer to catch up
+        LockSupport.unpark(writerThread);
+        backOff(waits++);
+        continue;
+      }
+      if (claimed.compareAndSet(seq, seq + 1)) {
+        return seq;
+      }
+    }
+  }
+
+  // yield at first, then park for progressively longer, up to the writer's own park time
+  private void backOff(int waits) {
+    if (waits < FULL_YIELDS) {
+      Thread.yield();
+    } else {
+      int shift = Math.min(waits - FULL_YIELDS, 7);
+      LockSupport.parkNanos(this, Math.min(1000L << shift, PARK_NANOS));
+    }
+  }
+
+  private void commit(long seq) {
+    published.set((int) seq & mask, seq);
+    if (waiting) {
+      LockSupport.unpark(writerThread);
+    }
+    if (stopped) {
+      // the writer thread exited while this event was being published
+      drainRemaining();
+    }
+  }
+
+  private void run() {
+    try {
+      while (true) {
+        if (published.get((int) next & mask) == next) {
+          processNext();
+          continue;
+        }
+        flush();
+        if (closed) {
+          break;
+        }
+        waiting = true;
+        if (published.get((int) next & mask) != next && !closed) {
+          LockSupport.parkNanos(this, PARK_NANOS);
+        }
+        waiting = false;
+      }
+    } finally {
+      closed = true;
+      stopped = true;
+      drainRemaining();
+    }
+  }
+
+  private synchronized void drainRemaining() {
+    while (next < claimed.get()) {
+      while (published.get((int) next & mask) != next) {
+        // the event has been claimed, but its producer has not yet published it
+        Thread.yield();
+      }
+      processNext();
+    }
+    flush();
+  }
+
+  private void processNext() {
+    Slot slot = slots[(int) next & mask];
+    try {
+      slot.writeTo();
+    } catch (RuntimeException e) {
+      // a failure to write one event must not stop the writer, but is recorded in place of the event
+      try {
+        slot.writeFailure(e);
+      } catch (RuntimeException ignored) {
+        // the output itself is failing
+      }
+    } finally {
+      slot.clear();
+      unflushed = true;
+      next++;
+      consumed.lazySet(next);
+    }
+  }
+
+  private void flush() {
+    if (autoFlush && unflushed) {
+      flushOutput.run();
+    }
+    unflushed = false;
+  }
+
+  private static final class Slot {
+    SimpleLoggerImpl logger;
+    long time;
+    Level level;
+    LogMessage message;
+    CharSequence text;
+    String format;
+    Object[] args;
+    Throwable cause;
+    Collection<SimpleLogEvent> events;
+    // the thread that logged the event, for the layout of the line
+    Thread thread;
+
+    void writeTo() {
+      if (events != null) {
+        logger.writeEvents(events, thread);
+      } else if (message != null) {
+        logger.write(time, level, message, cause, thread);
+      } else if (text != null) {
+        logger.write(time, level, text, cause, thread);
+      } else {
+        logger.writef(time, level, format, args, thread);
+      }
+    }
+
+    void writeFailure(RuntimeException failure) {
+      if (events != null) {
+        // events in a batch are never empty
+        logger.writeFailure(events.iterator().next().time(), Level.ERROR, failure, thread);
+      } else {
+        logger.writeFailure(time, level, failure, thread);
+      }
+    }
+
+    void clear() {
+      logger = null;
+      time = 0;
+      level = null;
+      message = null;
+      text = null;
+      format = null;
+      args = null;
+      cause = null;
+      events = null;
+      thread = null;
+    }
+  }
+}
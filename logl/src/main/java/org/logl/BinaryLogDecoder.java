@@ -0,0 +1,234 @@
+package org.logl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.logl.Layout.LineFormat;
+
+/**
+ * Decodes log files written by {@link SimpleLogger.Builder#toBinaryFile(Path)} into the common log format, as it would
+ * have been written by a {@link SimpleLogger} with the default layout.
+ *
+ * <p>
+ * The {@code logl-decoder} command line tool uses this class to decode a binary log file to standard output, or to a
+ * second file.
+ */
+public final class BinaryLogDecoder {
+  private static final Level[] LEVELS = Level.values();
+  private static final NameAbbreviator NO_ABBREVIATION = NameAbbreviator.forPattern("");
+
+  private final DataInputStream in;
+  private final PrintWriter out;
+  private final List<String> strings = new ArrayList<>();
+  private final Map<String, LineFormat[]> lineFormats = new HashMap<>();
+  private final LineBuffer line = new LineBuffer();
+  private DateFormatter dateFormatter;
+  private long time = 0;
+
+  /**
+   * Decode a binary log file.
+   *
+   * @param file The binary log file.
+   * @param out The writer to output the decoded log lines to.
+   * @throws EOFException If the file ends part way through an event, in which case all preceding events will have been
+   *         output.
+   * @throws IOException If the file could not be read, or is not a valid binary log file.
+   */
+  public static void decode(Path file, Writer out) throws IOException {
+    requireNonNull(file);
+    try (InputStream in = Files.newInputStream(file)) {
+      decode(in, out);
+    }
+  }
+
+  /**
+   * Decode a binary log.
+   *
+   * @param in The input stream to read the binary log from.
+   * @param out The writer to output the decoded log lines to.
+   * @throws EOFException If the stream ends part way through an event, in which case all preceding events will have
+   *         been output.
+   * @throws IOException If the stream could not be read, or is not a valid binary log.
+   */
+  public static void decode(InputStream in, Writer out) throws IOException {
+    requireNonNull(in);
+    requireNonNull(out);
+    PrintWriter printWriter = new PrintWriter(out, false);
+    try {
+      new BinaryLogDecoder(new DataInputStream(new BufferedInputStream(in)), printWriter).decode();
+    } finally {
+      printWriter.flush();
+    }
+  }
+
+  private BinaryLogDecoder(DataInputStream in, PrintWriter out) {
+    this.in = in;
+    this.out = out;
+  }
+
+  private void decode() throws IOException {
+    readHeader();
+    int tag;
+    while ((tag = in.read()) >= 0) {
+      try {
+        switch (tag) {
+          case BinaryLogSink.STRING_RECORD:
+            readStringRecord();
+            break;
+          case BinaryLogSink.EVENT_RECORD:
+            readEvent();
+            break;
+          case BinaryLogSink.RESET_STRINGS_RECORD:
+            strings.clear();
+            break;
+          default:
+            throw new IOException("Invalid record type " + tag);
+        }
+      } catch (EOFException e) {
+        // the final events may not have been completely written, e.g. if the application was terminated
+        throw new EOFException("Binary log ends part way through a record");
+      }
+    }
+  }
+
+  private void readHeader() throws IOException {
+    byte[] magic = new byte[BinaryLogSink.MAGIC.length];
+    int version;
+    try {
+      in.readFully(magic);
+      version = in.readUnsignedByte();
+    } catch (EOFException e) {
+      throw new IOException("Not a binary log file");
+    }
+    if (!Arrays.equals(magic, BinaryLogSink.MAGIC)) {
+      throw new IOException("Not a binary log file");
+    }
+    if (version != BinaryLogSink.VERSION) {
+      throw new IOException("Unsupported binary log version " + version);
+    }
+    String zone = readString();
+    try {
+      dateFormatter = DateFormatter.forZone(ZoneId.of(zone));
+    } catch (DateTimeException e) {
+      throw new IOException("Invalid timezone " + zone, e);
+    }
+  }
+
+  private void readStringRecord() throws IOException {
+    long id = readVarint();
+    if (id != strings.size() + 1) {
+      throw new IOException("Invalid string table entry " + id);
+    }
+    strings.add(readString());
+  }
+
+  private void readEvent() throws IOException {
+    long delta = readVarint();
+    time += (delta >>> 1) ^ -(delta & 1);
+    int levelOrdinal = in.readUnsignedByte();
+    if (levelOrdinal >= LEVELS.length) {
+      throw new IOException("Invalid level " + levelOrdinal);
+    }
+    Level level = LEVELS[levelOrdinal];
+    String loggerName = lookup(readVarint());
+
+    LineFormat lineFormat = lineFormat(level, loggerName);
+    line.reset();
+    // the thread is not recorded, and is not written by the default layout
+    lineFormat.writeStart(line, time, null);
+
+    long patternId = readVarint();
+    if (patternId == 0) {
+      line.append(readString());
+    } else {
+      String pattern = lookup(patternId);
+      Object[] args = new Object[(int) readVarint()];
+      for (int i = 0; i < args.length; ++i) {
+        args[i] = readArg();
+      }
+      // the arguments are strings and numbers, which are not formatted for a locale
+      MessageFormatter.formatTo(pattern, Locale.ROOT, args, line);
+    }
+    lineFormat.writeEnd(line, time, null);
+
+    if (in.readUnsignedByte() != 0) {
+      line.append(readString());
+    }
+    line.writeTo(out);
+  }
+
+  // the logger name is recorded already abbreviated
+  private LineFormat lineFormat(Level level, String loggerName) {
+    LineFormat[] formats = lineFormats.computeIfAbsent(loggerName, name -> new LineFormat[LEVELS.length]);
+    LineFormat format = formats[level.ordinal()];
+    if (format == null) {
+      format = Layout.DEFAULT.bind(level, loggerName, NO_ABBREVIATION, dateFormatter);
+      formats[level.ordinal()] = format;
+    }
+    return format;
+  }
+
+  private Object readArg() throws IOException {
+    int tag = in.readUnsignedByte();
+    switch (tag) {
+      case BinaryLogSink.NULL_ARG:
+        return null;
+      case BinaryLogSink.LONG_ARG:
+        long value = readVarint();
+        return (value >>> 1) ^ -(value & 1);
+      case BinaryLogSink.DOUBLE_ARG:
+        return Double.longBitsToDouble(in.readLong());
+      case BinaryLogSink.STRING_ARG:
+        return readString();
+      default:
+        throw new IOException("Invalid argument type " + tag);
+    }
+  }
+
+  private String lookup(long id) throws IOException {
+    if (id <= 0 || id > strings.size()) {
+      throw new IOException("Undefined string table entry " + id);
+    }
+    return strings.get((int) id - 1);
+  }
+
+  private String readString() throws IOException {
+    long length = readVarint();
+    if (length > Integer.MAX_VALUE) {
+      throw new IOException("Invalid string length " + length);
+    }
+    byte[] bytes = new byte[(int) length];
+    in.readFully(bytes);
+    return new String(bytes, UTF_8);
+  }
+
+  private long readVarint() throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = in.readUnsignedByte();
+      value |= (long) (b & 0x7f) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Invalid varint");
+  }
+}
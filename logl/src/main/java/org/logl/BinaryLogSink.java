@@ -0,0 +1,389 @@
+package org.logl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * Writes log events in a compact binary format, deferring the formatting of messages until the log is decoded.
+ *
+ * <p>
+ * The file starts with a header of the {@link #MAGIC} bytes, the {@link #VERSION} and the timezone used for
+ * timestamps. It is followed by a sequence of records, each starting with a tag byte:
+ * <ul>
+ * <li>{@link #STRING_RECORD}: defines an entry in the string table, as a varint id followed by the string. Logger names
+ * and message patterns are interned in the table when they are first used, so the file is self-describing.</li>
+ * <li>{@link #EVENT_RECORD}: a log event, as a zig-zag varint timestamp delta from the previous event (or from the
+ * epoch, for the first event), the level ordinal as a byte, the varint id of the logger name, and the varint id of the
+ * message pattern (or {@code 0} for a message that is a plain string, which then follows). For a pattern, a varint
+ * argument count follows, then each argument as a tag byte and its value. The event ends with a byte that is
+ * {@code 1} if it is followed by a rendered stack trace, or {@code 0} otherwise.</li>
+ * <li>{@link #RESET_STRINGS_RECORD}: clears the string table, so that the following string records define ids from
+ * {@code 1} again. It is written when the table is full, which bounds the strings held by the writer and the decoder
+ * when patterns are built dynamically.</li>
+ * </ul>
+ *
+ * <p>
+ * Strings are written as a varint length in bytes followed by their UTF-8 encoding, with malformed surrogate sequences
+ * written as {@code '?'}. Arguments that are integral numbers, doubles, strings or null are written as raw values,
+ * while other arguments, and those with a registered {@link ArgumentFormatter}, are formatted when they are logged and
+ * written as strings.
+ *
+ * <p>
+ * As for {@link java.io.PrintWriter}, errors writing to the file do not propagate to the logging call, but may be
+ * detected using {@link #checkError()}. After an error no further events are written, as the file may end part way
+ * through a record, or be missing string table entries that later events refer to.
+ */
+final class BinaryLogSink {
+  static final byte[] MAGIC = {'L', 'O', 'G', 'L', 'B', 'I', 'N'};
+  static final int VERSION = 1;
+
+  static final int STRING_RECORD = 1;
+  static final int EVENT_RECORD = 2;
+  static final int RESET_STRINGS_RECORD = 3;
+
+  static final int NULL_ARG = 0;
+  static final int LONG_ARG = 1;
+  static final int DOUBLE_ARG = 2;
+  static final int STRING_ARG = 3;
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+  // the largest number of bytes in a varint encoding of a long
+  private static final int MAX_VARINT_BYTES = 10;
+  private static final byte REPLACEMENT = (byte) '?';
+  // the largest number of entries in the string table
+  private static final int MAX_STRINGS = 4096;
+
+  private final FileChannel channel;
+  private final HashMap<String, Integer> strings = new HashMap<>();
+  private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  private long lastTime = 0;
+  private boolean error = false;
+  private boolean closed = false;
+
+  /**
+   * Open a file for writing, creating it if it does not exist and truncating it if it does.
+   *
+   * @param file The file to open.
+   * @param zone The timezone the decoder should use for timestamps.
+   * @return A sink for the file.
+   * @throws IOException If the file could not be opened, or the header could not be written.
+   */
+  static BinaryLogSink open(Path file, ZoneId zone) throws IOException {
+    FileChannel channel = FileChannel
+        .open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    BinaryLogSink sink = new BinaryLogSink(channel);
+    try {
+      sink.writeHeader(zone);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+    return sink;
+  }
+
+  private BinaryLogSink(FileChannel channel) {
+    this.channel = channel;
+  }
+
+  private void writeHeader(ZoneId zone) throws IOException {
+    buffer.put(MAGIC);
+    buffer.put((byte) VERSION);
+    putString(zone.getId());
+    drain();
+  }
+
+  /**
+   * Write a message with a format pattern, storing the arguments unformatted.
+   *
+   * @param loggerName The name of the logger.
+   * @param time The timestamp of the event, in milliseconds since the epoch.
+   * @param level The level of the event.
+   * @param message The message.
+   * @param locale The locale to format arguments that are not stored raw for.
+   * @param stackTrace The rendered stack trace of the cause, or {@code null}.
+   */
+  void write(
+      String loggerName,
+      long time,
+      Level level,
+      PatternMessage message,
+      Locale locale,
+      CharSequence stackTrace) {
+    int argCount = message.argCount();
+    // format any arguments that are not stored raw now, as they may log while being formatted
+    Object arg1 = (argCount > 0) ? storable(message.arg(0), locale) : null;
+    Object arg2 = (argCount > 1) ? storable(message.arg(1), locale) : null;
+    Object arg3 = (argCount > 2) ? storable(message.arg(2), locale) : null;
+    Object arg4 = (argCount > 3) ? storable(message.arg(3), locale) : null;
+
+    synchronized (this) {
+      if (closed || error) {
+        return;
+      }
+      resetStringsIfFull(2);
+      int loggerId = intern(loggerName);
+      int patternId = intern(message.pattern());
+      startEvent(time, level, loggerId, patternId);
+      if (argCount == PatternMessage.LONG_ARG) {
+        putVarint(1);
+        putLongArg(message.longArg());
+      } else if (argCount == PatternMessage.DOUBLE_ARG) {
+        putVarint(1);
+        putDoubleArg(message.doubleArg());
+      } else {
+        putVarint(argCount);
+        if (argCount > 0) {
+          putArg(arg1);
+        }
+        if (argCount > 1) {
+          putArg(arg2);
+        }
+        if (argCount > 2) {
+          putArg(arg3);
+        }
+        if (argCount > 3) {
+          putArg(arg4);
+        }
+      }
+      endEvent(stackTrace);
+    }
+  }
+
+  /**
+   * Write a message that has already been formatted.
+   *
+   * @param loggerName The name of the logger.
+   * @param time The timestamp of the event, in milliseconds since the epoch.
+   * @param level The level of the event.
+   * @param message The formatted message.
+   * @param stackTrace The rendered stack trace of the cause, or {@code null}.
+   */
+  synchronized void write(String loggerName, long time, Level level, CharSequence message, CharSequence stackTrace) {
+    if (closed || error) {
+      return;
+    }
+    resetStringsIfFull(1);
+    int loggerId = intern(loggerName);
+    startEvent(time, level, loggerId, 0);
+    putString(message);
+    endEvent(stackTrace);
+  }
+
+  /**
+   * Write all buffered events to the file.
+   */
+  synchronized void flush() {
+    if (closed || error) {
+      return;
+    }
+    try {
+      drain();
+    } catch (IOException e) {
+      error = true;
+    }
+  }
+
+  /**
+   * Write all buffered events and close the file.
+   */
+  synchronized void close() {
+    if (closed) {
+      return;
+    }
+    flush();
+    closed = true;
+    try {
+      channel.close();
+    } catch (IOException e) {
+      error = true;
+    }
+  }
+
+  /**
+   * @return {@code true} if an error has occurred writing to the file.
+   */
+  synchronized boolean checkError() {
+    return error;
+  }
+
+  private static Object storable(Object arg, Locale locale) {
+    if (arg == null) {
+      return null;
+    }
+    // arguments with a registered formatter are formatted now, as the decoder does not have the formatter
+    if ((arg instanceof String || arg instanceof Long || arg instanceof Integer || arg instanceof Short
+        || arg instanceof Byte || arg instanceof Double) && !ArgumentFormatters.isRegistered(arg.getClass())) {
+      return arg;
+    }
+    StringBuilder builder = new StringBuilder();
+    try {
+      MessageFormatter.appendParameter(builder, locale, arg);
+    } catch (IOException e) {
+      // StringBuilder does not throw this exception
+      throw new RuntimeException("unexpected exception", e);
+    }
+    return builder.toString();
+  }
+
+  // start a new string table if the strings to be interned for an event may not fit in the current one
+  private void resetStringsIfFull(int count) {
+    if (strings.size() + count > MAX_STRINGS) {
+      strings.clear();
+      ensure(1);
+      buffer.put((byte) RESET_STRINGS_RECORD);
+    }
+  }
+
+  private int intern(String string) {
+    Integer id = strings.get(string);
+    if (id != null) {
+      return id;
+    }
+    int newId = strings.size() + 1;
+    strings.put(string, newId);
+    ensure(1 + MAX_VARINT_BYTES);
+    buffer.put((byte) STRING_RECORD);
+    putVarint(newId);
+    putString(string);
+    return newId;
+  }
+
+  private void startEvent(long time, Level level, int loggerId, int patternId) {
+    ensure(2 + 3 * MAX_VARINT_BYTES);
+    buffer.put((byte) EVENT_RECORD);
+    long delta = time - lastTime;
+    lastTime = time;
+    putVarint((delta << 1) ^ (delta >> 63));
+    buffer.put((byte) level.ordinal());
+    putVarint(loggerId);
+    putVarint(patternId);
+  }
+
+  private void endEvent(CharSequence stackTrace) {
+    ensure(1);
+    if (stackTrace == null) {
+      buffer.put((byte) 0);
+    } else {
+      buffer.put((byte) 1);
+      putString(stackTrace);
+    }
+  }
+
+  private void putArg(Object arg) {
+    if (arg == null) {
+      ensure(1);
+      buffer.put((byte) NULL_ARG);
+    } else if (arg instanceof Double) {
+      putDoubleArg((Double) arg);
+    } else if (arg instanceof Number) {
+      putLongArg(((Number) arg).longValue());
+    } else {
+      ensure(1);
+      buffer.put((byte) STRING_ARG);
+      putString((String) arg);
+    }
+  }
+
+  private void putLongArg(long value) {
+    ensure(1 + MAX_VARINT_BYTES);
+    buffer.put((byte) LONG_ARG);
+    putVarint((value << 1) ^ (value >> 63));
+  }
+
+  private void putDoubleArg(double value) {
+    ensure(1 + 8);
+    buffer.put((byte) DOUBLE_ARG);
+    buffer.putLong(Double.doubleToRawLongBits(value));
+  }
+
+  private void putVarint(long value) {
+    ensure(MAX_VARINT_BYTES);
+    while ((value & ~0x7fL) != 0) {
+      buffer.put((byte) ((value & 0x7f) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  private void putString(CharSequence string) {
+    int length = string.length();
+    int encodedLength = 0;
+    for (int i = 0; i < length; ++i) {
+      char c = string.charAt(i);
+      if (c < 0x80) {
+        encodedLength += 1;
+      } else if (c < 0x800) {
+        encodedLength += 2;
+      } else if (!Character.isSurrogate(c)) {
+        encodedLength += 3;
+      } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(string.charAt(i + 1))) {
+        encodedLength += 4;
+        i++;
+      } else {
+        encodedLength += 1;
+      }
+    }
+
+    putVarint(encodedLength);
+    ensure(encodedLength);
+    for (int i = 0; i < length; ++i) {
+      char c = string.charAt(i);
+      if (c < 0x80) {
+        buffer.put((byte) c);
+      } else if (c < 0x800) {
+        buffer.put((byte) (0xc0 | (c >> 6)));
+        buffer.put((byte) (0x80 | (c & 0x3f)));
+      } else if (!Character.isSurrogate(c)) {
+        buffer.put((byte) (0xe0 | (c >> 12)));
+        buffer.put((byte) (0x80 | ((c >> 6) & 0x3f)));
+        buffer.put((byte) (0x80 | (c & 0x3f)));
+      } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(string.charAt(i + 1))) {
+        int cp = Character.toCodePoint(c, string.charAt(++i));
+        buffer.put((byte) (0xf0 | (cp >> 18)));
+        buffer.put((byte) (0x80 | ((cp >> 12) & 0x3f)));
+        buffer.put((byte) (0x80 | ((cp >> 6) & 0x3f)));
+        buffer.put((byte) (0x80 | (cp & 0x3f)));
+      } else {
+        buffer.put(REPLACEMENT);
+      }
+    }
+  }
+
+  // ensure the buffer has space for the specified number of bytes, writing its content to the file if not
+  private void ensure(int bytes) {
+    if (buffer.remaining() >= bytes) {
+      return;
+    }
+    if (error) {
+      // the rest of the event being written is discarded, as nothing more is written to the file
+      buffer.clear();
+    } else {
+      try {
+        drain();
+      } catch (IOException e) {
+        // the buffered events are lost
+        error = true;
+      }
+    }
+    if (buffer.capacity() < bytes) {
+      buffer = ByteBuffer.allocate(bytes);
+    }
+  }
+
+  private void drain() throws IOException {
+    buffer.flip();
+    try {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    } finally {
+      buffer.clear();
+    }
+  }
+}
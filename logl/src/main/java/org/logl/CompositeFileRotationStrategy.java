@@ -0,0 +1,32 @@
+package org.logl;
+
+import java.nio.file.Path;
+
+final class CompositeFileRotationStrategy implements FileRotationStrategy {
+  private final FileRotationStrategy[] strategies;
+
+  CompositeFileRotationStrategy(FileRotationStrategy[] strategies) {
+    this.strategies = strategies;
+  }
+
+  @Override
+  public boolean shouldRotate(Path outputFile, long bytesWritten) {
+    for (FileRotationStrategy strategy : strategies) {
+      if (strategy.shouldRotate(outputFile, bytesWritten)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void rotationCompleted() {
+    for (FileRotationStrategy strategy : strategies) {
+      strategy.rotationCompleted();
+    }
+  }
+
+  FileRotationStrategy[] strategies() {
+    return strategies;
+  }
+}
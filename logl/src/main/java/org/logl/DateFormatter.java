@@ -1,10 +1,12 @@
 package org.logl;
 
-import java.io.PrintWriter;
-import java.time.ZonedDateTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.ConcurrentHashMap;
 
 final class DateFormatter {
-  private DateFormatter() {}
 
   private static final String COMMON_YEARS[] = new String[200];
   static {
@@ -27,38 +29,122 @@ final class DateFormatter {
     }
   }
 
-  static void formatTo(ZonedDateTime dateTime, PrintWriter out) {
-    int year = dateTime.getYear();
-    if (year >= 1900 && year < 2100) {
-      out.write(COMMON_YEARS[year - 1900]);
-    } else {
-      String ys = Integer.toString(year % 10000);
-      out.write("   ", 0, 4 - ys.length());
-      out.write(ys);
+  private static final ConcurrentHashMap<ZoneId, DateFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
+  /**
+   * Obtain the formatter for a timezone.
+   *
+   * @param zone The timezone.
+   * @return A formatter, shared by all users of the same zone.
+   */
+  static DateFormatter forZone(ZoneId zone) {
+    return FORMATTERS.computeIfAbsent(zone, DateFormatter::new);
+  }
+
+  private final ZoneId zone;
+  // the rendered text of the most recently formatted second
+  private volatile Second second;
+
+  private DateFormatter(ZoneId zone) {
+    this.zone = zone;
+  }
+
+  /**
+   * Format a timestamp as {@code yyyy-MM-dd HH:mm:ss.SSS+hhmm}.
+   *
+   * <p>
+   * Everything other than the milliseconds is rendered once per second, so formatting a timestamp in the same second as
+   * the previous one is just three bulk copies.
+   *
+   * @param epochMillis The timestamp, as milliseconds since the epoch.
+   * @param out The buffer to write to.
+   */
+  void formatTo(long epochMillis, LineBuffer out) {
+    Second current = second(epochMillis);
+    out.write(current.dateTime);
+    out.write(THREE_DIGIT_INTS[(int) Math.floorMod(epochMillis, 1000L)]);
+    out.write(current.offset);
+  }
+
+  /**
+   * Format a timestamp in ISO-8601 extended format, as {@code yyyy-MM-ddTHH:mm:ss.SSS} followed by the offset as
+   * {@code Z} or {@code +hh:mm}, as for {@link java.time.format.DateTimeFormatter#ISO_OFFSET_DATE_TIME}.
+   *
+   * @param epochMillis The timestamp, as milliseconds since the epoch.
+   * @param out The buffer to write to.
+   */
+  void formatIsoTo(long epochMillis, LineBuffer out) {
+    Second current = second(epochMillis);
+    out.write(current.isoDateTime);
+    out.write(THREE_DIGIT_INTS[(int) Math.floorMod(epochMillis, 1000L)]);
+    out.write(current.isoOffset);
+  }
+
+  private Second second(long epochMillis) {
+    long epochSecond = Math.floorDiv(epochMillis, 1000L);
+    Second current = this.second;
+    if (current == null || current.epochSecond != epochSecond) {
+      // the offset is recalculated for each new second, so changes at DST transitions are always observed
+      current = new Second(epochSecond, zone.getRules().getOffset(Instant.ofEpochSecond(epochSecond)));
+      this.second = current;
     }
-    out.write('-');
-    out.write(TWO_DIGIT_INTS[dateTime.getMonth().getValue()]);
-    out.write('-');
-    out.write(TWO_DIGIT_INTS[dateTime.getDayOfMonth()]);
-    out.write(' ');
-    out.write(TWO_DIGIT_INTS[dateTime.getHour()]);
-    out.write(':');
-    out.write(TWO_DIGIT_INTS[dateTime.getMinute()]);
-    out.write(':');
-    out.write(TWO_DIGIT_INTS[dateTime.getSecond()]);
-    out.write('.');
-    int millis = dateTime.getNano() / 1000000;
-    out.write(THREE_DIGIT_INTS[millis]);
-    int offsetSeconds = dateTime.getOffset().getTotalSeconds();
-    if (offsetSeconds < 0) {
-      out.write('-');
-      offsetSeconds = -offsetSeconds;
-    } else {
-      out.write('+');
+    return current;
+  }
+
+  private static final class Second {
+    private final long epochSecond;
+    private final char[] dateTime;
+    private final char[] offset;
+    private final char[] isoDateTime;
+    private final char[] isoOffset;
+
+    Second(long epochSecond, ZoneOffset zoneOffset) {
+      this.epochSecond = epochSecond;
+
+      LocalDateTime dateTime = LocalDateTime.ofEpochSecond(epochSecond, 0, zoneOffset);
+      StringBuilder builder = new StringBuilder(20);
+      int year = dateTime.getYear();
+      if (year >= 1900 && year < 2100) {
+        builder.append(COMMON_YEARS[year - 1900]);
+      } else {
+        String ys = Integer.toString(year % 10000);
+        builder.append("   ", 0, 4 - ys.length());
+        builder.append(ys);
+      }
+      builder.append('-');
+      builder.append(TWO_DIGIT_INTS[dateTime.getMonthValue()]);
+      builder.append('-');
+      builder.append(TWO_DIGIT_INTS[dateTime.getDayOfMonth()]);
+      builder.append(' ');
+      builder.append(TWO_DIGIT_INTS[dateTime.getHour()]);
+      builder.append(':');
+      builder.append(TWO_DIGIT_INTS[dateTime.getMinute()]);
+      builder.append(':');
+      builder.append(TWO_DIGIT_INTS[dateTime.getSecond()]);
+      builder.append('.');
+      this.dateTime = builder.toString().toCharArray();
+
+      builder.setLength(0);
+      int offsetSeconds = zoneOffset.getTotalSeconds();
+      if (offsetSeconds < 0) {
+        builder.append('-');
+        offsetSeconds = -offsetSeconds;
+      } else {
+        builder.append('+');
+      }
+      int offsetMinutes = offsetSeconds / 60;
+      int offsetHours = offsetMinutes / 60;
+      builder.append(TWO_DIGIT_INTS[offsetHours]);
+      builder.append(TWO_DIGIT_INTS[offsetMinutes % 60]);
+      this.offset = builder.toString().toCharArray();
+
+      // the date is rendered with a sign for years beyond 4 digits, as required by ISO-8601
+      builder.setLength(0);
+      builder.append(dateTime.toLocalDate());
+      builder.append('T');
+      builder.append(this.dateTime, 11, 9);
+      this.isoDateTime = builder.toString().toCharArray();
+      this.isoOffset = zoneOffset.getId().toCharArray();
     }
-    int offsetMinutes = offsetSeconds / 60;
-    int offsetHours = offsetMinutes / 60;
-    out.write(TWO_DIGIT_INTS[offsetHours]);
-    out.write(TWO_DIGIT_INTS[offsetMinutes % 60]);
   }
 }
@@ -1,16 +1,31 @@
 package org.logl;
 
+import java.lang.ref.WeakReference;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 final class DefaultFileRotationStrategy implements FileRotationStrategy {
+  private static final long CHECK_INTERVAL_MILLIS = 1000;
+
   private final long thresholdBytes;
   private final long delayMillis;
   private final Supplier<Instant> currentTimeSupplier;
-  private AtomicReference<Instant> nextRotation = new AtomicReference<>(Instant.MIN);
+  private volatile long nextRotationMillis = Long.MIN_VALUE;
+  // the output file being checked for removal
+  private volatile Path outputFile;
+  // the number of rotations completed, and the generation of the output file that was missing when last checked
+  private volatile int generation = 0;
+  private volatile int missingGeneration = -1;
+  // the background check of the output file, once started
+  private ScheduledFuture<?> outputFileCheck;
+  private boolean stopped = false;
 
   DefaultFileRotationStrategy(long thresholdBytes, long delayMillis, Supplier<Instant> currentTimeSupplier) {
     this.thresholdBytes = thresholdBytes;
@@ -20,20 +35,92 @@ final class DefaultFileRotationStrategy implements FileRotationStrategy {
 
   @Override
   public boolean shouldRotate(Path outputFile, long bytesWritten) {
-    if (!Files.exists(outputFile)) {
+    if (outputFile != this.outputFile) {
+      watch(outputFile);
+    }
+    if (missingGeneration == generation) {
       return true;
     }
-    if (currentTimeSupplier.get().isBefore(nextRotation.get())) {
-      // rotation delay timer has not expired
+    if (bytesWritten < thresholdBytes) {
       return false;
     }
-    return bytesWritten >= thresholdBytes;
+    // rotate unless the delay timer has not expired
+    return delayMillis <= 0 || currentTimeSupplier.get().toEpochMilli() >= nextRotationMillis;
   }
 
   @Override
   public void rotationCompleted() {
+    // rotations are not concurrent, and any check still in progress applies to the previous output file
+    generation++;
     if (delayMillis > 0) {
-      nextRotation.set(currentTimeSupplier.get().plusMillis(delayMillis));
+      nextRotationMillis = currentTimeSupplier.get().toEpochMilli() + delayMillis;
+    }
+  }
+
+  // visible for testing
+  void checkOutputFile() {
+    int checkedGeneration = generation;
+    Path file = this.outputFile;
+    if (file != null && !Files.exists(file)) {
+      outputMissing(checkedGeneration);
+    }
+  }
+
+  // visible for testing
+  int generation() {
+    return generation;
+  }
+
+  // visible for testing
+  void outputMissing(int checkedGeneration) {
+    missingGeneration = checkedGeneration;
+  }
+
+  private synchronized void watch(Path outputFile) {
+    this.outputFile = outputFile;
+    if (outputFileCheck == null && !stopped) {
+      outputFileCheck = OutputFileChecker.schedule(this);
+    }
+  }
+
+  /**
+   * Stop checking for removal of the output file, which is not restarted by any later rotation checks.
+   */
+  synchronized void stop() {
+    stopped = true;
+    if (outputFileCheck != null) {
+      outputFileCheck.cancel(false);
+      outputFileCheck = null;
+    }
+  }
+
+  // visible for testing
+  synchronized boolean isCheckingOutputFile() {
+    return outputFileCheck != null;
+  }
+
+  /**
+   * Checks for removal of output files in the background, so rotation checks for each log line do not require a
+   * filesystem access.
+   */
+  private static final class OutputFileChecker {
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "logl-file-checker");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    static ScheduledFuture<?> schedule(DefaultFileRotationStrategy strategy) {
+      // only weakly reference the strategy, so that checks stop once it is no longer in use, even if not stopped
+      WeakReference<DefaultFileRotationStrategy> ref = new WeakReference<>(strategy);
+      return EXECUTOR.scheduleWithFixedDelay(() -> {
+        DefaultFileRotationStrategy s = ref.get();
+        if (s == null) {
+          // an exception suppresses all subsequent executions of the task
+          throw new CancellationException();
+        }
+        s.checkOutputFile();
+      }, CHECK_INTERVAL_MILLIS, CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
     }
   }
 }
@@ -0,0 +1,252 @@
+package org.logl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@link Writer} that encodes characters as UTF-8 directly into reusable direct buffers, which are written to a
+ * {@link FileChannel}.
+ *
+ * <p>
+ * Compared to a {@link java.io.BufferedWriter} over an {@link java.io.OutputStreamWriter}, characters are copied and
+ * encoded once, and all buffering and encoding happens under a single lock (the lock of this writer, which is also
+ * used by any {@link java.io.PrintWriter} wrapping it). Output is accumulated in several buffers, which are written
+ * with a single gathering write when they are all full or when the writer is flushed.
+ *
+ * <p>
+ * Malformed surrogate sequences are written as {@code '?'}.
+ */
+public final class FileChannelSink extends Writer {
+  private static final int BUFFER_SIZE = 8192;
+  private static final int BUFFER_COUNT = 4;
+  // the largest number of bytes a single char (or surrogate pair) encodes to
+  private static final int MAX_BYTES_PER_CHAR = 4;
+  private static final byte REPLACEMENT = (byte) '?';
+
+  private final FileChannel channel;
+  private final ByteBuffer[] buffers = new ByteBuffer[BUFFER_COUNT];
+  private final char[] chunk = new char[BUFFER_SIZE];
+  private int current = 0;
+  private char pendingHighSurrogate = 0;
+  private boolean closed = false;
+
+  /**
+   * Open a file for writing, creating it if it does not exist and truncating it if it does.
+   *
+   * @param file The file to open.
+   * @return A writer for the file.
+   * @throws IOException If the file could not be opened.
+   */
+  public static FileChannelSink open(Path file) throws IOException {
+    return open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+  }
+
+  /**
+   * Open a file for writing.
+   *
+   * @param file The file to open.
+   * @param options Options specifying how the file is opened, as for {@link FileChannel#open(Path, OpenOption...)}.
+   * @return A writer for the file.
+   * @throws IOException If the file could not be opened.
+   */
+  public static FileChannelSink open(Path file, OpenOption... options) throws IOException {
+    requireNonNull(file);
+    return new FileChannelSink(FileChannel.open(file, options));
+  }
+
+  /**
+   * Create a writer for a channel.
+   *
+   * @param channel The channel to write to, which will be closed when this writer is closed.
+   */
+  public FileChannelSink(FileChannel channel) {
+    requireNonNull(channel);
+    this.channel = channel;
+    for (int i = 0; i < BUFFER_COUNT; ++i) {
+      buffers[i] = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+  }
+
+  @Override
+  public void write(int c) throws IOException {
+    synchronized (lock) {
+      ensureOpen();
+      chunk[0] = (char) c;
+      encode(chunk, 0, 1);
+    }
+  }
+
+  @Override
+  public void write(char[] cbuf, int off, int len) throws IOException {
+    if (off < 0 || len < 0 || off > cbuf.length - len) {
+      throw new IndexOutOfBoundsException();
+    }
+    synchronized (lock) {
+      ensureOpen();
+      encode(cbuf, off, off + len);
+    }
+  }
+
+  @Override
+  public void write(String str, int off, int len) throws IOException {
+    if (off < 0 || len < 0 || off > str.length() - len) {
+      throw new IndexOutOfBoundsException();
+    }
+    synchronized (lock) {
+      ensureOpen();
+      int end = off + len;
+      while (off < end) {
+        int n = Math.min(end - off, chunk.length);
+        str.getChars(off, off + n, chunk, 0);
+        encode(chunk, 0, n);
+        off += n;
+      }
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    synchronized (lock) {
+      ensureOpen();
+      drain();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      try {
+        if (pendingHighSurrogate != 0) {
+          pendingHighSurrogate = 0;
+          ByteBuffer buffer = reserve(buffers[current]);
+          buffer.put(REPLACEMENT);
+        }
+        drain();
+      } finally {
+        closed = true;
+        channel.close();
+      }
+    }
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+  }
+
+  private void encode(char[] chars, int off, int end) throws IOException {
+    ByteBuffer buffer = buffers[current];
+    int i = off;
+
+    if (pendingHighSurrogate != 0 && i < end) {
+      buffer = reserve(buffer);
+      char c = chars[i];
+      if (Character.isLowSurrogate(c)) {
+        putCodePoint(buffer, Character.toCodePoint(pendingHighSurrogate, c));
+        i++;
+      } else {
+        buffer.put(REPLACEMENT);
+      }
+      pendingHighSurrogate = 0;
+    }
+
+    int pos = buffer.position();
+    while (i < end) {
+      if (BUFFER_SIZE - pos < MAX_BYTES_PER_CHAR) {
+        buffer.position(pos);
+        buffer = reserve(buffer);
+        pos = buffer.position();
+      }
+
+      // ASCII fast path, using absolute puts and a local position
+      int asciiEnd = Math.min(end, i + (BUFFER_SIZE - pos));
+      char c;
+      while (i < asciiEnd && (c = chars[i]) < 0x80) {
+        buffer.put(pos++, (byte) c);
+        i++;
+      }
+      if (i == end) {
+        break;
+      }
+      if (BUFFER_SIZE - pos < MAX_BYTES_PER_CHAR) {
+        continue;
+      }
+
+      c = chars[i++];
+      if (c < 0x80) {
+        buffer.put(pos++, (byte) c);
+      } else if (c < 0x800) {
+        buffer.put(pos++, (byte) (0xc0 | (c >> 6)));
+        buffer.put(pos++, (byte) (0x80 | (c & 0x3f)));
+      } else if (!Character.isSurrogate(c)) {
+        buffer.put(pos++, (byte) (0xe0 | (c >> 12)));
+        buffer.put(pos++, (byte) (0x80 | ((c >> 6) & 0x3f)));
+        buffer.put(pos++, (byte) (0x80 | (c & 0x3f)));
+      } else if (Character.isHighSurrogate(c)) {
+        if (i == end) {
+          // the low surrogate may be in the next write
+          pendingHighSurrogate = c;
+        } else if (Character.isLowSurrogate(chars[i])) {
+          buffer.position(pos);
+          putCodePoint(buffer, Character.toCodePoint(c, chars[i++]));
+          pos = buffer.position();
+        } else {
+          buffer.put(pos++, REPLACEMENT);
+        }
+      } else {
+        // unpaired low surrogate
+        buffer.put(pos++, REPLACEMENT);
+      }
+    }
+    buffer.position(pos);
+  }
+
+  private static void putCodePoint(ByteBuffer buffer, int cp) {
+    buffer.put((byte) (0xf0 | (cp >> 18)));
+    buffer.put((byte) (0x80 | ((cp >> 12) & 0x3f)));
+    buffer.put((byte) (0x80 | ((cp >> 6) & 0x3f)));
+    buffer.put((byte) (0x80 | (cp & 0x3f)));
+  }
+
+  // ensure the buffer being filled has space for at least one encoded char, moving on to the next buffer (or writing
+  // all buffers to the channel) if not
+  private ByteBuffer reserve(ByteBuffer buffer) throws IOException {
+    if (buffer.remaining() >= MAX_BYTES_PER_CHAR) {
+      return buffer;
+    }
+    if (current < BUFFER_COUNT - 1) {
+      return buffers[++current];
+    }
+    drain();
+    return buffers[current];
+  }
+
+  private void drain() throws IOException {
+    int count = current + 1;
+    try {
+      long remaining = 0;
+      for (int i = 0; i < count; ++i) {
+        remaining += buffers[i].flip().remaining();
+      }
+      while (remaining > 0) {
+        remaining -= channel.write(buffers, 0, count);
+      }
+    } finally {
+      for (int i = 0; i < count; ++i) {
+        buffers[i].clear();
+      }
+      current = 0;
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package org.logl;
 
 import java.io.PrintWriter;
+import java.nio.file.Path;
 
 /**
  * A listener for rotation events in {@link RotatingFilePrintWriterSupplier}.
@@ -23,4 +24,22 @@ public interface FileRotationListener {
    *        completed.
    */
   void rotationError(Exception e, PrintWriter out);
+
+  /**
+   * Invoked when compression of an archive is completed.
+   *
+   * @param archive The compressed archive.
+   */
+  default void compressionCompleted(Path archive) {}
+
+  /**
+   * Invoked when an exception occurs during compression of an archive.
+   *
+   * <p>
+   * The uncompressed archive will be retained.
+   *
+   * @param e The exception that occurred.
+   * @param archive The archive that could not be compressed.
+   */
+  default void compressionError(Exception e, Path archive) {}
 }
@@ -1,7 +1,11 @@
 package org.logl;
 
+import static java.util.Objects.requireNonNull;
+
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.ZoneId;
 
 /**
  * A strategy for controlling rotation in {@link RotatingFilePrintWriterSupplier}.
@@ -11,6 +15,10 @@ public interface FileRotationStrategy {
   /**
    * Obtain a strategy based on the number of bytes written to the output file.
    *
+   * <p>
+   * The strategy will also request rotation if the output file is removed, which is checked for periodically in the
+   * background until the {@link RotatingFilePrintWriterSupplier} using the strategy is closed.
+   *
    * @param thresholdBytes The number of bytes that should trigger rotation.
    * @param delayMillis A delay, in milliseconds, after a previous rotation before another is requested.
    * @return A rotation strategy.
@@ -19,6 +27,45 @@ public interface FileRotationStrategy {
     return new DefaultFileRotationStrategy(thresholdBytes, delayMillis, Instant::now);
   }
 
+  /**
+   * Obtain a strategy that rotates at regular intervals, aligned to the wall-clock time in a timezone.
+   *
+   * <p>
+   * Intervals of less than a day rotate at multiples of the interval after each local midnight, so an interval of one
+   * hour rotates on the hour and an interval of 15 minutes rotates on the quarter hour. Longer intervals must be a
+   * whole number of days, and rotate at local midnight.
+   *
+   * <p>
+   * Rotation occurs when the first log line after a boundary is written.
+   *
+   * @param interval The interval between rotations.
+   * @param zone The timezone that rotations should be aligned to.
+   * @return A rotation strategy.
+   */
+  static FileRotationStrategy forInterval(Duration interval, ZoneId zone) {
+    requireNonNull(interval);
+    requireNonNull(zone);
+    return new IntervalFileRotationStrategy(interval, zone, System::currentTimeMillis);
+  }
+
+  /**
+   * Obtain a strategy that rotates whenever any of a set of strategies would.
+   *
+   * <p>
+   * For example, {@code anyOf(forSize(10_000_000, 0), forInterval(Duration.ofDays(1), zone))} rotates daily, or sooner
+   * if an output file reaches 10MB.
+   *
+   * @param strategies The strategies to combine.
+   * @return A rotation strategy.
+   */
+  static FileRotationStrategy anyOf(FileRotationStrategy... strategies) {
+    FileRotationStrategy[] copy = strategies.clone();
+    for (FileRotationStrategy strategy : copy) {
+      requireNonNull(strategy);
+    }
+    return new CompositeFileRotationStrategy(copy);
+  }
+
   /**
    * Determine if a rotation should occur.
    *
@@ -0,0 +1,78 @@
+package org.logl;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.function.LongSupplier;
+
+final class IntervalFileRotationStrategy implements FileRotationStrategy {
+  private static final long NANOS_PER_DAY = Duration.ofDays(1).toNanos();
+
+  private final long intervalNanos;
+  private final long intervalDays;
+  private final ZoneId zone;
+  private final LongSupplier currentTimeMillis;
+  private volatile long nextRotationMillis;
+
+  IntervalFileRotationStrategy(Duration interval, ZoneId zone, LongSupplier currentTimeMillis) {
+    if (interval.isNegative() || interval.isZero()) {
+      throw new IllegalArgumentException("Interval must be positive");
+    }
+    long nanos = interval.toNanos();
+    if (nanos > NANOS_PER_DAY && nanos % NANOS_PER_DAY != 0) {
+      throw new IllegalArgumentException("Intervals longer than a day must be a whole number of days");
+    }
+    this.intervalNanos = (nanos < NANOS_PER_DAY) ? nanos : 0;
+    this.intervalDays = nanos / NANOS_PER_DAY;
+    this.zone = zone;
+    this.currentTimeMillis = currentTimeMillis;
+    this.nextRotationMillis = nextBoundary(currentTimeMillis.getAsLong());
+  }
+
+  @Override
+  public boolean shouldRotate(Path outputFile, long bytesWritten) {
+    return currentTimeMillis.getAsLong() >= nextRotationMillis;
+  }
+
+  @Override
+  public void rotationCompleted() {
+    nextRotationMillis = nextBoundary(currentTimeMillis.getAsLong());
+  }
+
+  /**
+   * Find the first boundary after a time.
+   *
+   * <p>
+   * For intervals of less than a day, boundaries are at multiples of the interval after each local midnight. For
+   * longer intervals, boundaries are at local midnight on days that are multiples of the interval after the epoch.
+   */
+  // visible for testing
+  long nextBoundary(long nowMillis) {
+    ZonedDateTime now = Instant.ofEpochMilli(nowMillis).atZone(zone);
+    LocalDate date = now.toLocalDate();
+    if (intervalDays > 0) {
+      long epochDay = date.toEpochDay();
+      long nextDay = epochDay - Math.floorMod(epochDay, intervalDays) + intervalDays;
+      return LocalDate.ofEpochDay(nextDay).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    long nanosOfDay = now.toLocalTime().toNanoOfDay();
+    long nextNanosOfDay = (nanosOfDay / intervalNanos + 1) * intervalNanos;
+    if (nextNanosOfDay >= NANOS_PER_DAY) {
+      return date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+    // local times in a gap are moved forward, and the earlier offset is used in an overlap
+    ZonedDateTime next = LocalDateTime.of(date, LocalTime.ofNanoOfDay(nextNanosOfDay)).atZone(zone);
+    long nextMillis = next.toInstant().toEpochMilli();
+    if (nextMillis <= nowMillis) {
+      // the local time repeats after a transition, and the first occurrence has already passed
+      nextMillis = next.withLaterOffsetAtOverlap().toInstant().toEpochMilli();
+    }
+    return nextMillis;
+  }
+}
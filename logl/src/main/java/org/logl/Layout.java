@@ -0,0 +1,473 @@
+package org.logl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The layout of the lines written by a simple logger, compiled from a pattern such as
+ * {@code "%d{iso} %-5level [%thread] %logger{1.} %msg%n"}.
+ *
+ * <p>
+ * The pattern is parsed once, and is then bound to each logger and level as an array of segments that write the line
+ * preceding and following the message. The literal text, the level and the logger name do not vary between lines, so
+ * consecutive constant parts are rendered once when binding and written as a single segment.
+ */
+final class Layout {
+  /**
+   * The layout used by default, e.g. {@code "2007-12-03 10:15:30.000+0000  INFO [o.l.Foo] Hello"}.
+   */
+  static final Layout DEFAULT = forPattern("%d%6level [%logger] %msg%n");
+
+  private static final int THREAD_CACHE_SIZE = 64;
+
+  // the parts preceding and following the message
+  private final Part[] start;
+  private final Part[] end;
+
+  private Layout(Part[] start, Part[] end) {
+    this.start = start;
+    this.end = end;
+  }
+
+  static Layout forPattern(String pattern) {
+    List<Part> start = new ArrayList<>();
+    List<Part> end = null;
+    StringBuilder text = new StringBuilder();
+
+    int patternLength = pattern.length();
+    int pos = 0;
+    while (pos < patternLength) {
+      char c = pattern.charAt(pos++);
+      if (c != '%') {
+        text.append(c);
+        continue;
+      }
+      if (pos == patternLength) {
+        throw new IllegalArgumentException("Layout pattern ends with an incomplete conversion");
+      }
+      if (pattern.charAt(pos) == '%') {
+        text.append('%');
+        ++pos;
+        continue;
+      }
+
+      boolean leftJustify = false;
+      if (pattern.charAt(pos) == '-') {
+        leftJustify = true;
+        ++pos;
+      }
+      int width = 0;
+      int digit;
+      while (pos < patternLength && (digit = Character.digit(pattern.charAt(pos), 10)) >= 0) {
+        if (width > (Integer.MAX_VALUE - digit) / 10) {
+          throw new IllegalArgumentException("Layout width is larger than an integer");
+        }
+        width = width * 10 + digit;
+        ++pos;
+      }
+      boolean padded = leftJustify || width > 0;
+
+      int nameStart = pos;
+      while (pos < patternLength && Character.isLetter(pattern.charAt(pos))) {
+        ++pos;
+      }
+      String name = pattern.substring(nameStart, pos);
+      String option = null;
+      if (pos < patternLength && pattern.charAt(pos) == '{') {
+        int optionEnd = pattern.indexOf('}', pos);
+        if (optionEnd < 0) {
+          throw new IllegalArgumentException("Layout pattern has an unterminated option for %" + name);
+        }
+        option = pattern.substring(pos + 1, optionEnd);
+        pos = optionEnd + 1;
+      }
+
+      Part part;
+      switch (name) {
+        case "d":
+        case "date":
+          checkUnpadded(name, padded);
+          part = new DatePart(option);
+          break;
+        case "p":
+        case "level":
+          checkNoOption(name, option);
+          part = new LevelPart(width, leftJustify);
+          break;
+        case "c":
+        case "logger":
+          part = new LoggerPart(width, leftJustify, (option == null) ? null : NameAbbreviator.forPattern(option));
+          break;
+        case "t":
+        case "thread":
+          checkNoOption(name, option);
+          part = new ThreadPart(width, leftJustify);
+          break;
+        case "sn":
+        case "sequenceNumber":
+          checkUnpadded(name, padded);
+          checkNoOption(name, option);
+          part = new SequenceNumberPart();
+          break;
+        case "n":
+          checkUnpadded(name, padded);
+          checkNoOption(name, option);
+          text.append(LineBuffer.LINE_SEPARATOR);
+          continue;
+        case "m":
+        case "msg":
+        case "message":
+          checkUnpadded(name, padded);
+          checkNoOption(name, option);
+          if (end != null) {
+            throw new IllegalArgumentException("Layout pattern contains more than one %msg");
+          }
+          addText(start, text);
+          end = new ArrayList<>();
+          continue;
+        default:
+          throw new IllegalArgumentException("Unknown conversion %" + name + " in layout pattern");
+      }
+      List<Part> parts = (end == null) ? start : end;
+      addText(parts, text);
+      parts.add(part);
+    }
+
+    if (end == null) {
+      throw new IllegalArgumentException("Layout pattern does not contain %msg");
+    }
+    addText(end, text);
+    return new Layout(start.toArray(new Part[0]), end.toArray(new Part[0]));
+  }
+
+  private static void checkUnpadded(String name, boolean padded) {
+    if (padded) {
+      throw new IllegalArgumentException("Layout conversion %" + name + " does not support a width");
+    }
+  }
+
+  private static void checkNoOption(String name, String option) {
+    if (option != null) {
+      throw new IllegalArgumentException("Layout conversion %" + name + " does not support an option");
+    }
+  }
+
+  private static void addText(List<Part> parts, StringBuilder text) {
+    if (text.length() > 0) {
+      parts.add(new TextPart(text.toString()));
+      text.setLength(0);
+    }
+  }
+
+  /**
+   * Bind this layout to a logger and level.
+   *
+   * @param level The level of the lines.
+   * @param loggerName The full name of the logger.
+   * @param defaultAbbreviator The abbreviator for logger names that do not specify an abbreviation.
+   * @param dateFormatter The formatter for timestamps.
+   * @return The format of lines written by the logger at the level.
+   */
+  LineFormat bind(Level level, String loggerName, NameAbbreviator defaultAbbreviator, DateFormatter dateFormatter) {
+    return new LineFormat(
+        bind(start, level, loggerName, defaultAbbreviator, dateFormatter),
+        bind(end, level, loggerName, defaultAbbreviator, dateFormatter));
+  }
+
+  private static Segment[] bind(
+      Part[] parts,
+      Level level,
+      String loggerName,
+      NameAbbreviator defaultAbbreviator,
+      DateFormatter dateFormatter) {
+    List<Segment> segments = new ArrayList<>(parts.length);
+    StringBuilder text = new StringBuilder();
+    for (Part part : parts) {
+      Segment segment = part.bind(level, loggerName, defaultAbbreviator, dateFormatter);
+      if (segment instanceof TextSegment) {
+        text.append(((TextSegment) segment).text);
+        continue;
+      }
+      if (text.length() > 0) {
+        segments.add(new TextSegment(text.toString()));
+        text.setLength(0);
+      }
+      segments.add(segment);
+    }
+    if (text.length() > 0) {
+      segments.add(new TextSegment(text.toString()));
+    }
+    return segments.toArray(new Segment[0]);
+  }
+
+  private static void appendLong(LineBuffer out, long value) {
+    try {
+      MessageFormatter.appendLong(out, value);
+    } catch (IOException e) {
+      // LineBuffer does not throw this exception
+      throw new RuntimeException("unexpected exception", e);
+    }
+  }
+
+  private static String pad(String value, int width, boolean leftJustify) {
+    if (value.length() >= width) {
+      return value;
+    }
+    StringBuilder padded = new StringBuilder(width);
+    if (leftJustify) {
+      padded.append(value);
+    }
+    for (int i = value.length(); i < width; ++i) {
+      padded.append(' ');
+    }
+    if (!leftJustify) {
+      padded.append(value);
+    }
+    return padded.toString();
+  }
+
+  /**
+   * The format of the lines written by a logger at a level.
+   */
+  static final class LineFormat {
+    private final Segment[] start;
+    private final Segment[] end;
+
+    private LineFormat(Segment[] start, Segment[] end) {
+      this.start = start;
+      this.end = end;
+    }
+
+    /**
+     * Write the part of a line preceding the message.
+     *
+     * @param out The buffer to write to.
+     * @param now The timestamp of the line, in milliseconds since the epoch.
+     * @param thread The thread that logged the line.
+     */
+    void writeStart(LineBuffer out, long now, Thread thread) {
+      for (Segment segment : start) {
+        segment.writeTo(out, now, thread);
+      }
+    }
+
+    /**
+     * Write the part of a line following the message.
+     *
+     * @param out The buffer to write to.
+     * @param now The timestamp of the line, in milliseconds since the epoch.
+     * @param thread The thread that logged the line.
+     */
+    void writeEnd(LineBuffer out, long now, Thread thread) {
+      for (Segment segment : end) {
+        segment.writeTo(out, now, thread);
+      }
+    }
+  }
+
+  private interface Part {
+    // the segment writing this part for a logger and level, which is a TextSegment if it does not vary between lines
+    Segment bind(Level level, String loggerName, NameAbbreviator defaultAbbreviator, DateFormatter dateFormatter);
+  }
+
+  private interface Segment {
+    void writeTo(LineBuffer out, long now, Thread thread);
+  }
+
+  private static final class TextPart implements Part {
+    private final TextSegment text;
+
+    TextPart(String text) {
+      this.text = new TextSegment(text);
+    }
+
+    @Override
+    public Segment bind(
+        Level level,
+        String loggerName,
+        NameAbbreviator defaultAbbreviator,
+        DateFormatter dateFormatter) {
+      return text;
+    }
+  }
+
+  private static final class LevelPart implements Part {
+    private final int width;
+    private final boolean leftJustify;
+
+    LevelPart(int width, boolean leftJustify) {
+      this.width = width;
+      this.leftJustify = leftJustify;
+    }
+
+    @Override
+    public Segment bind(
+        Level level,
+        String loggerName,
+        NameAbbreviator defaultAbbreviator,
+        DateFormatter dateFormatter) {
+      return new TextSegment(pad(level.name(), width, leftJustify));
+    }
+  }
+
+  private static final class LoggerPart implements Part {
+    private final int width;
+    private final boolean leftJustify;
+    private final NameAbbreviator abbreviator;
+
+    LoggerPart(int width, boolean leftJustify, NameAbbreviator abbreviator) {
+      this.width = width;
+      this.leftJustify = leftJustify;
+      this.abbreviator = abbreviator;
+    }
+
+    @Override
+    public Segment bind(
+        Level level,
+        String loggerName,
+        NameAbbreviator defaultAbbreviator,
+        DateFormatter dateFormatter) {
+      NameAbbreviator nameAbbreviator = (abbreviator == null) ? defaultAbbreviator : abbreviator;
+      return new TextSegment(pad(nameAbbreviator.abbreviate(loggerName), width, leftJustify));
+    }
+  }
+
+  private static final class DatePart implements Part {
+    private static final int DEFAULT = 0;
+    private static final int ISO = 1;
+    private static final int EPOCH_MILLIS = 2;
+    private static final int EPOCH_MICROS = 3;
+
+    private final int format;
+
+    DatePart(String option) {
+      if (option == null) {
+        this.format = DEFAULT;
+      } else if (option.equals("iso")) {
+        this.format = ISO;
+      } else if (option.equals("epochMillis")) {
+        this.format = EPOCH_MILLIS;
+      } else if (option.equals("epochMicros")) {
+        this.format = EPOCH_MICROS;
+      } else {
+        throw new IllegalArgumentException("Unknown date format '" + option + "' in layout pattern");
+      }
+    }
+
+    @Override
+    public Segment bind(
+        Level level,
+        String loggerName,
+        NameAbbreviator defaultAbbreviator,
+        DateFormatter dateFormatter) {
+      switch (format) {
+        case ISO:
+          return (out, now, thread) -> dateFormatter.formatIsoTo(now, out);
+        case EPOCH_MILLIS:
+          return (out, now, thread) -> appendLong(out, now);
+        case EPOCH_MICROS:
+          // the clock has millisecond precision
+          return (out, now, thread) -> appendLong(out, now * 1000);
+        default:
+          return (out, now, thread) -> dateFormatter.formatTo(now, out);
+      }
+    }
+  }
+
+  /**
+   * Writes a number that is incremented for each line written using the layout.
+   *
+   * <p>
+   * The number is taken as the line is rendered, before the output lock is held, so numbers are unique but may be
+   * written out of order by concurrent threads, and are skipped by lines that are rendered but then discarded.
+   */
+  private static final class SequenceNumberPart implements Part, Segment {
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Override
+    public Segment bind(
+        Level level,
+        String loggerName,
+        NameAbbreviator defaultAbbreviator,
+        DateFormatter dateFormatter) {
+      // the sequence is shared by every logger and level bound to this layout
+      return this;
+    }
+
+    @Override
+    public void writeTo(LineBuffer out, long now, Thread thread) {
+      appendLong(out, sequence.incrementAndGet());
+    }
+  }
+
+  /**
+   * Writes the name of the thread that logged a line.
+   *
+   * <p>
+   * The padded name is rendered once for each thread, and held in a direct-mapped cache keyed by thread id, so that
+   * lines logged by a thread (including lines written for it by the async writer thread) reuse its rendered name until
+   * the thread is renamed.
+   */
+  private static final class ThreadPart implements Part, Segment {
+    private final int width;
+    private final boolean leftJustify;
+    private final ThreadName[] cache = new ThreadName[THREAD_CACHE_SIZE];
+
+    ThreadPart(int width, boolean leftJustify) {
+      this.width = width;
+      this.leftJustify = leftJustify;
+    }
+
+    @Override
+    public Segment bind(
+        Level level,
+        String loggerName,
+        NameAbbreviator defaultAbbreviator,
+        DateFormatter dateFormatter) {
+      // the cache is shared by every logger and level bound to this layout
+      return this;
+    }
+
+    @Override
+    public void writeTo(LineBuffer out, long now, Thread thread) {
+      long id = thread.getId();
+      String name = thread.getName();
+      int index = (int) id & (THREAD_CACHE_SIZE - 1);
+      ThreadName cached = cache[index];
+      if (cached == null || cached.id != id || !cached.name.equals(name)) {
+        cached = new ThreadName(id, name, pad(name, width, leftJustify).toCharArray());
+        cache[index] = cached;
+      }
+      out.write(cached.rendered);
+    }
+  }
+
+  private static final class ThreadName {
+    final long id;
+    final String name;
+    final char[] rendered;
+
+    ThreadName(long id, String name, char[] rendered) {
+      this.id = id;
+      this.name = name;
+      this.rendered = rendered;
+    }
+  }
+
+  private static final class TextSegment implements Segment {
+    private final String text;
+    private final char[] chars;
+
+    TextSegment(String text) {
+      this.text = text;
+      this.chars = text.toCharArray();
+    }
+
+    @Override
+    public void writeTo(LineBuffer out, long now, Thread thread) {
+      out.write(chars);
+    }
+  }
+}
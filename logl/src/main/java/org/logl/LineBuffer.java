@@ -0,0 +1,497 @@
+package org.logl;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * A reusable buffer that a complete log line (or batch of lines) is rendered into before being written to the output.
+ *
+ * <p>
+ * Each thread has its own buffer, so rendering can happen outside of any lock and only the final bulk copy needs to be
+ * serialized.
+ */
+final class LineBuffer extends Writer implements CharSequence, TruncatingAppendable {
+  static final String LINE_SEPARATOR = System.lineSeparator();
+
+  private static final String TRUNCATED = "...[truncated]";
+  private static final String TRUNCATED_PREFIX = "...[truncated ";
+  private static final String TRUNCATED_SUFFIX = " chars]";
+
+  private static final int INITIAL_CAPACITY = 256;
+  private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+  private static final ThreadLocal<SoftReference<LineBuffer>> REUSABLE_BUFFER =
+      ThreadLocal.withInitial(() -> new SoftReference<>(null));
+
+  // the escape sequence for each ASCII character that must be escaped in a JSON string, or null
+  private static final String[] JSON_ESCAPES = new String[128];
+  static {
+    for (int c = 0; c < 0x20; ++c) {
+      JSON_ESCAPES[c] = String.format("\\u%04x", c);
+    }
+    JSON_ESCAPES['\b'] = "\\b";
+    JSON_ESCAPES['\t'] = "\\t";
+    JSON_ESCAPES['\n'] = "\\n";
+    JSON_ESCAPES['\f'] = "\\f";
+    JSON_ESCAPES['\r'] = "\\r";
+    JSON_ESCAPES['"'] = "\\\"";
+    JSON_ESCAPES['\\'] = "\\\\";
+  }
+
+  private char[] chars = new char[INITIAL_CAPACITY];
+  private int length = 0;
+  private boolean inUse = false;
+  private PrintWriter printWriter;
+
+  // the offset beyond which output is discarded, which is the lesser of the message and argument limits
+  private int limit = Integer.MAX_VALUE;
+  private int messageLimit = Integer.MAX_VALUE;
+  private int maxArgumentLength = Integer.MAX_VALUE;
+  private int argumentDepth = 0;
+  // the number of characters discarded, which is not known if rendering was stopped
+  private long discarded = 0;
+  private boolean discardedUnknown = false;
+  private long messageDiscarded = 0;
+  private boolean messageDiscardedUnknown = false;
+  // the offsets and count of the last argument truncation marker, which is merged with a message marker following it
+  private int argumentMarkerStart = -1;
+  private int argumentMarkerEnd = -1;
+  private long argumentMarkerDiscarded = 0;
+  private boolean argumentMarkerDiscardedUnknown = false;
+
+  /**
+   * Obtain the line buffer for the current thread.
+   *
+   * <p>
+   * The buffer must be returned using {@link #release()} once the line has been written.
+   *
+   * @return An empty line buffer.
+   */
+  static LineBuffer acquire() {
+    LineBuffer buffer = REUSABLE_BUFFER.get().get();
+    if (buffer == null) {
+      buffer = new LineBuffer();
+      REUSABLE_BUFFER.set(new SoftReference<>(buffer));
+    } else if (buffer.inUse) {
+      // a line is already being rendered by this thread (e.g. a message argument is itself logging)
+      buffer = new LineBuffer();
+    }
+    buffer.inUse = true;
+    return buffer;
+  }
+
+  /**
+   * Return this buffer for reuse by the current thread.
+   */
+  void release() {
+    reset();
+    if (chars.length > MAX_RETAINED_CAPACITY) {
+      chars = new char[INITIAL_CAPACITY];
+    }
+    inUse = false;
+  }
+
+  /**
+   * Discard the content of this buffer.
+   */
+  void reset() {
+    length = 0;
+    limit = messageLimit = maxArgumentLength = Integer.MAX_VALUE;
+    argumentDepth = 0;
+    argumentMarkerEnd = -1;
+  }
+
+  /**
+   * Start appending a message, limiting its length and the length of each of its arguments.
+   *
+   * <p>
+   * Output beyond the limits is discarded, and is replaced by a marker giving the number of characters discarded. The
+   * marker for a truncated argument counts towards the length of the message, and if it does not fit then the message
+   * is truncated at the end of the argument instead. The marker for a truncated message follows the truncated message,
+   * and replaces an argument marker that immediately precedes it.
+   *
+   * @param maxMessageLength The maximum number of characters in the message.
+   * @param maxArgumentLength The maximum number of characters in each argument of the message.
+   */
+  void beginMessage(int maxMessageLength, int maxArgumentLength) {
+    this.messageLimit = (int) Math.min(Integer.MAX_VALUE, (long) length + maxMessageLength);
+    this.limit = messageLimit;
+    this.maxArgumentLength = maxArgumentLength;
+    this.discarded = 0;
+    this.discardedUnknown = false;
+    this.argumentMarkerEnd = -1;
+  }
+
+  /**
+   * Finish appending a message, appending a marker if it was truncated.
+   */
+  void endMessage() {
+    limit = messageLimit = maxArgumentLength = Integer.MAX_VALUE;
+    argumentDepth = 0;
+    if ((discarded > 0 || discardedUnknown) && argumentMarkerEnd == length) {
+      // a single marker covers both the argument and the rest of the message
+      length = argumentMarkerStart;
+      discarded += argumentMarkerDiscarded;
+      discardedUnknown |= argumentMarkerDiscardedUnknown;
+    }
+    argumentMarkerEnd = -1;
+    appendTruncationMarker(discarded, discardedUnknown);
+    discarded = 0;
+    discardedUnknown = false;
+  }
+
+  @Override
+  public void beginArgument() {
+    // arguments of nested messages are limited as part of the outermost argument
+    if (argumentDepth++ > 0 || maxArgumentLength == Integer.MAX_VALUE) {
+      return;
+    }
+    limit = (int) Math.min(messageLimit, (long) length + maxArgumentLength);
+    messageDiscarded = discarded;
+    messageDiscardedUnknown = discardedUnknown;
+    discarded = 0;
+    discardedUnknown = false;
+  }
+
+  @Override
+  public void endArgument() {
+    if (--argumentDepth > 0 || maxArgumentLength == Integer.MAX_VALUE) {
+      return;
+    }
+    long argumentDiscarded = discarded;
+    boolean argumentDiscardedUnknown = discardedUnknown;
+    discarded = messageDiscarded;
+    discardedUnknown = messageDiscardedUnknown;
+    if (argumentDiscarded == 0 && !argumentDiscardedUnknown) {
+      limit = messageLimit;
+      return;
+    }
+    if (limit < messageLimit
+        && truncationMarkerLength(argumentDiscarded, argumentDiscardedUnknown) <= messageLimit - length) {
+      limit = messageLimit;
+      argumentMarkerStart = length;
+      appendTruncationMarker(argumentDiscarded, argumentDiscardedUnknown);
+      argumentMarkerEnd = length;
+      argumentMarkerDiscarded = argumentDiscarded;
+      argumentMarkerDiscardedUnknown = argumentDiscardedUnknown;
+    } else {
+      // the message limit was reached, or the marker would exceed it, so the truncation is marked at the end of the
+      // message
+      messageLimit = limit = length;
+      discarded += argumentDiscarded;
+      discardedUnknown |= argumentDiscardedUnknown;
+    }
+  }
+
+  @Override
+  public boolean isTruncating() {
+    if (length < limit) {
+      return false;
+    }
+    discardedUnknown = true;
+    return true;
+  }
+
+  private static int truncationMarkerLength(long count, boolean countUnknown) {
+    if (countUnknown) {
+      return TRUNCATED.length();
+    }
+    int digits = 1;
+    for (long n = count; n >= 10; n /= 10) {
+      ++digits;
+    }
+    return TRUNCATED_PREFIX.length() + digits + TRUNCATED_SUFFIX.length();
+  }
+
+  // the marker is written within the current limit, which the caller ensures it fits in
+  private void appendTruncationMarker(long count, boolean countUnknown) {
+    if (count == 0 && !countUnknown) {
+      return;
+    }
+    if (countUnknown) {
+      write(TRUNCATED);
+    } else {
+      write(TRUNCATED_PREFIX);
+      try {
+        MessageFormatter.appendLong(this, count);
+      } catch (IOException e) {
+        // LineBuffer does not throw this exception
+        throw new RuntimeException("unexpected exception", e);
+      }
+      write(TRUNCATED_SUFFIX);
+    }
+  }
+
+  // the number of characters that may be appended, counting any that will be discarded
+  private int available(int len) {
+    if (len <= limit - length) {
+      return len;
+    }
+    int available = Math.max(limit - length, 0);
+    discarded += len - available;
+    return available;
+  }
+
+  // once output is truncated, remove a trailing high surrogate, as its low surrogate has been discarded
+  private void truncated() {
+    if (length > 0 && Character.isHighSurrogate(chars[length - 1])) {
+      if (limit == messageLimit) {
+        messageLimit = length - 1;
+      }
+      limit = --length;
+      ++discarded;
+    }
+  }
+
+  /**
+   * Remove a range of characters from this buffer.
+   *
+   * @param start The offset of the first character to remove.
+   * @param end The offset after the last character to remove.
+   */
+  void delete(int start, int end) {
+    System.arraycopy(chars, end, chars, start, length - end);
+    length -= end - start;
+  }
+
+  /**
+   * Move the characters from an offset to the end of this buffer to an earlier offset, after which the characters
+   * they pass over follow them.
+   *
+   * @param start The offset of the first character to move.
+   * @param dest The offset to move the characters to, which must not be greater than {@code start}.
+   */
+  void moveTo(int start, int dest) {
+    // rotate the range in place by reversing both parts and then the whole
+    reverse(dest, start);
+    reverse(start, length);
+    reverse(dest, length);
+  }
+
+  private void reverse(int start, int end) {
+    for (int i = start, j = end - 1; i < j; ++i, --j) {
+      char c = chars[i];
+      chars[i] = chars[j];
+      chars[j] = c;
+    }
+  }
+
+  /**
+   * Escape the characters from an offset to the end of this buffer, so they may appear within a JSON string.
+   *
+   * <p>
+   * This allows content to be rendered directly into the buffer and then escaped in place, without an intermediate
+   * copy. If no characters need escaping, the buffer is only scanned.
+   *
+   * @param start The offset of the first character to escape.
+   */
+  void escapeJson(int start) {
+    int extra = 0;
+    for (int i = start; i < length; ++i) {
+      char c = chars[i];
+      if (c < 128 && JSON_ESCAPES[c] != null) {
+        extra += JSON_ESCAPES[c].length() - 1;
+      }
+    }
+    if (extra == 0) {
+      return;
+    }
+    ensureCapacity(extra);
+    // expand from the end, so each character is moved only once
+    int dst = length + extra;
+    for (int src = length - 1; src >= start; --src) {
+      char c = chars[src];
+      String escape = (c < 128) ? JSON_ESCAPES[c] : null;
+      if (escape == null) {
+        chars[--dst] = c;
+      } else {
+        dst -= escape.length();
+        escape.getChars(0, escape.length(), chars, dst);
+      }
+    }
+    length += extra;
+  }
+
+  /**
+   * Append a character sequence, escaped so it may appear within a JSON string.
+   *
+   * @param csq The character sequence to append.
+   * @param start The index of the first character to append.
+   * @param end The index after the last character to append.
+   */
+  void appendJsonEscaped(CharSequence csq, int start, int end) {
+    int from = length;
+    append(csq, start, end);
+    escapeJson(from);
+  }
+
+  @Override
+  public int length() {
+    return length;
+  }
+
+  @Override
+  public char charAt(int index) {
+    if (index < 0 || index >= length) {
+      throw new IndexOutOfBoundsException("Index out of range: " + index);
+    }
+    return chars[index];
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    if (start < 0 || end > length || start > end) {
+      throw new IndexOutOfBoundsException("Range out of bounds: " + start + "-" + end);
+    }
+    return new String(chars, start, end - start);
+  }
+
+  /**
+   * Append a formatted string, as for {@link PrintWriter#printf(String, Object...)}.
+   *
+   * <p>
+   * Format strings using only common specifiers are rendered directly by a compiled {@link PrintfFormat}, otherwise
+   * they are formatted using a {@link java.util.Formatter}.
+   *
+   * @param format The format string.
+   * @param args The format arguments.
+   */
+  void printf(String format, Object[] args) {
+    Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+    try {
+      if (PrintfFormat.forFormat(format).formatTo(locale, args, this)) {
+        return;
+      }
+    } catch (IOException e) {
+      // LineBuffer does not throw this exception
+      throw new RuntimeException("unexpected exception", e);
+    }
+    if (printWriter == null) {
+      printWriter = new PrintWriter(this, false);
+    }
+    printWriter.format(locale, format, args);
+  }
+
+  /**
+   * Append a line separator.
+   */
+  void newLine() {
+    write(LINE_SEPARATOR, 0, LINE_SEPARATOR.length());
+  }
+
+  /**
+   * Write the content of this buffer to an output, as a single bulk write.
+   *
+   * @param out The output to write to.
+   */
+  void writeTo(PrintWriter out) {
+    out.write(chars, 0, length);
+  }
+
+  @Override
+  public void write(int c) {
+    if (available(1) == 0) {
+      truncated();
+      return;
+    }
+    ensureCapacity(1);
+    chars[length++] = (char) c;
+  }
+
+  @Override
+  public void write(char[] cbuf) {
+    write(cbuf, 0, cbuf.length);
+  }
+
+  @Override
+  public void write(char[] cbuf, int off, int len) {
+    int available = available(len);
+    ensureCapacity(available);
+    System.arraycopy(cbuf, off, chars, length, available);
+    length += available;
+    if (available < len) {
+      truncated();
+    }
+  }
+
+  @Override
+  public void write(String str) {
+    write(str, 0, str.length());
+  }
+
+  @Override
+  public void write(String str, int off, int len) {
+    int available = available(len);
+    ensureCapacity(available);
+    str.getChars(off, off + available, chars, length);
+    length += available;
+    if (available < len) {
+      truncated();
+    }
+  }
+
+  @Override
+  public LineBuffer append(char c) {
+    write(c);
+    return this;
+  }
+
+  @Override
+  public LineBuffer append(CharSequence csq) {
+    if (csq == null) {
+      write("null", 0, 4);
+    } else {
+      append(csq, 0, csq.length());
+    }
+    return this;
+  }
+
+  @Override
+  public LineBuffer append(CharSequence csq, int start, int end) {
+    if (csq == null) {
+      return append("null", start, end);
+    }
+    if (csq instanceof String) {
+      write((String) csq, start, end - start);
+      return this;
+    }
+    int len = available(end - start);
+    boolean truncated = len < end - start;
+    end = start + len;
+    ensureCapacity(len);
+    if (csq instanceof StringBuilder) {
+      ((StringBuilder) csq).getChars(start, end, chars, length);
+      length += len;
+    } else {
+      // avoid CharSequence.toString(), which would copy the sequence
+      for (int i = start; i < end; ++i) {
+        chars[length++] = csq.charAt(i);
+      }
+    }
+    if (truncated) {
+      truncated();
+    }
+    return this;
+  }
+
+  @Override
+  public void flush() {}
+
+  @Override
+  public void close() {}
+
+  @Override
+  public String toString() {
+    return new String(chars, 0, length);
+  }
+
+  private void ensureCapacity(int additional) {
+    int required = length + additional;
+    if (required > chars.length) {
+      chars = Arrays.copyOf(chars, Math.max(required, chars.length * 2));
+    }
+  }
+}
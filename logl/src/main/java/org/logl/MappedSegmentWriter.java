@@ -0,0 +1,205 @@
+package org.logl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link Writer} that appends UTF-8 encoded output to a fixed size, memory-mapped file segment.
+ *
+ * <p>
+ * Writes are not serialized: each write is encoded into a per-thread buffer, space is claimed in the segment by
+ * atomically advancing the write position, and the encoded bytes are copied into the mapped region. Once a claim
+ * exceeds the segment, the segment is full and that write, and any following writes, are held in an overflow queue and
+ * appended to the file when it is closed. On close, the file is truncated to the length actually written.
+ *
+ * <p>
+ * Flushing is a no-op, as writes to the mapped region are immediately visible to other readers of the file. Until it is
+ * closed, the file will have the full segment size, with the unused remainder being zero-filled.
+ *
+ * <p>
+ * Writes must not be concurrent with {@link #close()}.
+ */
+final class MappedSegmentWriter extends Writer {
+  private static final ThreadLocal<SoftReference<Scratch>> SCRATCH =
+      ThreadLocal.withInitial(() -> new SoftReference<>(null));
+
+  private final FileChannel channel;
+  private final MappedByteBuffer segment;
+  private final int capacity;
+  private final AtomicLong position = new AtomicLong(0);
+  private final Queue<byte[]> overflow = new ConcurrentLinkedQueue<>();
+  // the start of the claim that crossed the end of the segment, if any
+  private volatile int straddleStart;
+  private volatile boolean closed = false;
+
+  /**
+   * Open a file as a mapped segment, creating it if it does not exist and truncating it if it does.
+   *
+   * @param file The file to open.
+   * @param capacity The size of the segment, in bytes.
+   * @return A writer for the segment.
+   * @throws IOException If the file could not be opened or mapped.
+   */
+  static MappedSegmentWriter open(Path file, int capacity) throws IOException {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Segment size must be positive");
+    }
+    FileChannel channel = FileChannel.open(
+        file,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING,
+        StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+    try {
+      return new MappedSegmentWriter(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity), capacity);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private MappedSegmentWriter(FileChannel channel, MappedByteBuffer segment, int capacity) {
+    this.channel = channel;
+    this.segment = segment;
+    this.capacity = capacity;
+    this.straddleStart = capacity;
+  }
+
+  /**
+   * @return {@code true} if the segment has no more space for writes.
+   */
+  boolean isFull() {
+    return position.get() >= capacity;
+  }
+
+  @Override
+  public void write(char[] cbuf, int off, int len) throws IOException {
+    if (off < 0 || len < 0 || off > cbuf.length - len) {
+      throw new IndexOutOfBoundsException();
+    }
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    if (len == 0) {
+      return;
+    }
+    Scratch scratch = Scratch.get();
+    int n = scratch.encode(cbuf, off, off + len);
+    long start = position.getAndAdd(n);
+    if (start + n <= capacity) {
+      ByteBuffer view = scratch.viewOf(this);
+      view.position((int) start);
+      view.put(scratch.bytes, 0, n);
+    } else {
+      if (start < capacity) {
+        straddleStart = (int) start;
+      }
+      overflow.add(Arrays.copyOf(scratch.bytes, n));
+    }
+    scratch.release();
+  }
+
+  @Override
+  public void flush() {}
+
+  @Override
+  public void close() throws IOException {
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      try {
+        long length = Math.min(position.get(), straddleStart);
+        channel.truncate(length);
+        channel.position(length);
+        for (byte[] bytes : overflow) {
+          ByteBuffer buffer = ByteBuffer.wrap(bytes);
+          while (buffer.hasRemaining()) {
+            channel.write(buffer);
+          }
+        }
+        overflow.clear();
+      } finally {
+        channel.close();
+      }
+    }
+  }
+
+  private static final class Scratch {
+    private static final int INITIAL_CAPACITY = 512;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+    // a view of the segment last written to by this thread, which avoids a duplicate per write
+    private MappedSegmentWriter owner;
+    private ByteBuffer view;
+
+    static Scratch get() {
+      Scratch scratch = SCRATCH.get().get();
+      if (scratch == null) {
+        scratch = new Scratch();
+        SCRATCH.set(new SoftReference<>(scratch));
+      }
+      return scratch;
+    }
+
+    ByteBuffer viewOf(MappedSegmentWriter writer) {
+      if (owner != writer) {
+        owner = writer;
+        view = writer.segment.duplicate();
+      }
+      return view;
+    }
+
+    void release() {
+      if (bytes.length > MAX_RETAINED_CAPACITY) {
+        bytes = new byte[INITIAL_CAPACITY];
+      }
+    }
+
+    // encode as UTF-8, replacing malformed surrogates with '?', and return the number of bytes
+    int encode(char[] chars, int off, int end) {
+      // a char encodes to at most 3 bytes, and a surrogate pair to 4
+      int required = (end - off) * 3;
+      if (required > bytes.length) {
+        bytes = new byte[Math.max(required, bytes.length * 2)];
+      }
+      byte[] dest = bytes;
+      int pos = 0;
+      int i = off;
+      while (i < end) {
+        char c = chars[i++];
+        if (c < 0x80) {
+          dest[pos++] = (byte) c;
+        } else if (c < 0x800) {
+          dest[pos++] = (byte) (0xc0 | (c >> 6));
+          dest[pos++] = (byte) (0x80 | (c & 0x3f));
+        } else if (!Character.isSurrogate(c)) {
+          dest[pos++] = (byte) (0xe0 | (c >> 12));
+          dest[pos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+          dest[pos++] = (byte) (0x80 | (c & 0x3f));
+        } else if (Character.isHighSurrogate(c) && i < end && Character.isLowSurrogate(chars[i])) {
+          int cp = Character.toCodePoint(c, chars[i++]);
+          dest[pos++] = (byte) (0xf0 | (cp >> 18));
+          dest[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+          dest[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+          dest[pos++] = (byte) (0x80 | (cp & 0x3f));
+        } else {
+          dest[pos++] = (byte) '?';
+        }
+      }
+      return pos;
+    }
+  }
+}
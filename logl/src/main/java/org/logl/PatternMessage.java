@@ -0,0 +1,163 @@
+package org.logl;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * A reusable {@link LogMessage} for a pattern formatted message with a fixed number of arguments.
+ *
+ * <p>
+ * Each thread has its own message, so logging with the fixed-arity pattern methods does not need to capture the
+ * arguments in a new message. The message must be returned using {@link #release()} once it has been rendered, and a
+ * message that must outlive the logging call, such as one queued for an asynchronous writer, must be copied.
+ */
+final class PatternMessage implements LogMessage {
+  private static final ThreadLocal<PatternMessage> REUSABLE_MESSAGE = ThreadLocal.withInitial(PatternMessage::new);
+  static final int LONG_ARG = -1;
+  static final int DOUBLE_ARG = -2;
+
+  private String pattern;
+  // the number of object arguments, or LONG_ARG or DOUBLE_ARG for a single primitive argument
+  private int argCount;
+  private Object arg1;
+  private Object arg2;
+  private Object arg3;
+  private Object arg4;
+  private long longArg;
+  private double doubleArg;
+  private boolean inUse = false;
+
+  /**
+   * Obtain the message for the current thread.
+   *
+   * @return A message, which must be initialized with one of the {@code with} methods.
+   */
+  static PatternMessage acquire() {
+    PatternMessage message = REUSABLE_MESSAGE.get();
+    if (message.inUse) {
+      // a message is already being rendered by this thread (e.g. a message argument is itself logging)
+      message = new PatternMessage();
+    }
+    message.inUse = true;
+    return message;
+  }
+
+  /**
+   * Return this message for reuse by the current thread.
+   */
+  void release() {
+    pattern = null;
+    arg1 = null;
+    arg2 = null;
+    arg3 = null;
+    arg4 = null;
+    inUse = false;
+  }
+
+  PatternMessage with(String pattern, Object arg) {
+    return with(pattern, 1, arg, null, null, null);
+  }
+
+  PatternMessage with(String pattern, long arg) {
+    this.pattern = pattern;
+    this.argCount = LONG_ARG;
+    this.longArg = arg;
+    return this;
+  }
+
+  PatternMessage with(String pattern, double arg) {
+    this.pattern = pattern;
+    this.argCount = DOUBLE_ARG;
+    this.doubleArg = arg;
+    return this;
+  }
+
+  PatternMessage with(String pattern, Object arg1, Object arg2) {
+    return with(pattern, 2, arg1, arg2, null, null);
+  }
+
+  PatternMessage with(String pattern, Object arg1, Object arg2, Object arg3) {
+    return with(pattern, 3, arg1, arg2, arg3, null);
+  }
+
+  PatternMessage with(String pattern, Object arg1, Object arg2, Object arg3, Object arg4) {
+    return with(pattern, 4, arg1, arg2, arg3, arg4);
+  }
+
+  private PatternMessage with(String pattern, int argCount, Object arg1, Object arg2, Object arg3, Object arg4) {
+    this.pattern = pattern;
+    this.argCount = argCount;
+    this.arg1 = arg1;
+    this.arg2 = arg2;
+    this.arg3 = arg3;
+    this.arg4 = arg4;
+    return this;
+  }
+
+  /**
+   * @return A new message with the same pattern and arguments, which is not reused.
+   */
+  PatternMessage copy() {
+    PatternMessage copy = new PatternMessage();
+    copy.with(pattern, argCount, arg1, arg2, arg3, arg4);
+    copy.longArg = longArg;
+    copy.doubleArg = doubleArg;
+    return copy;
+  }
+
+  String pattern() {
+    return pattern;
+  }
+
+  /**
+   * @return The number of object arguments, or {@link #LONG_ARG} or {@link #DOUBLE_ARG} for a single primitive
+   *         argument.
+   */
+  int argCount() {
+    return argCount;
+  }
+
+  Object arg(int index) {
+    switch (index) {
+      case 0:
+        return arg1;
+      case 1:
+        return arg2;
+      case 2:
+        return arg3;
+      default:
+        return arg4;
+    }
+  }
+
+  long longArg() {
+    return longArg;
+  }
+
+  double doubleArg() {
+    return doubleArg;
+  }
+
+  @Override
+  public void appendTo(Locale locale, Appendable appendable) throws IOException {
+    switch (argCount) {
+      case LONG_ARG:
+        MessageFormatter.formatTo(pattern, longArg, appendable);
+        break;
+      case DOUBLE_ARG:
+        MessageFormatter.formatTo(pattern, doubleArg, appendable);
+        break;
+      case 1:
+        MessageFormatter.formatTo(pattern, locale, arg1, appendable);
+        break;
+      case 2:
+        MessageFormatter.formatTo(pattern, locale, arg1, arg2, appendable);
+        break;
+      case 3:
+        MessageFormatter.formatTo(pattern, locale, arg1, arg2, arg3, appendable);
+        break;
+      default:
+        MessageFormatter.formatTo(pattern, locale, arg1, arg2, arg3, arg4, appendable);
+    }
+  }
+}
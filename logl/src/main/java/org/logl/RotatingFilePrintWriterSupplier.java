@@ -1,42 +1,60 @@
 package org.logl;
 
+import static java.util.Objects.requireNonNull;
+
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.io.Writer;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
 
 /**
  * A {@link Supplier} for a {@link PrintWriter} that writes to an sequence of output files, rotating to a new file
  * whenever the current file exceeds a given size or time period.
+ *
+ * <p>
+ * Unless another executor is specified, rotation is run in a background thread, so the thread that is logging when
+ * rotation is required does not wait for it.
  */
 public class RotatingFilePrintWriterSupplier implements Supplier<PrintWriter>, Closeable {
 
+  private static final String COMPRESSED_SUFFIX = ".gz";
+  private static final String PARTIAL_SUFFIX = ".tmp";
   private static final Writer NULL_WRITER = new NullWriter();
+  // replaces the current output whilst writers are blocked, if the output file must be closed before it is archived
+  private static final Output ROTATION_IN_PROGRESS = new Output(NULL_WRITER);
 
   private final Path outputFile;
   private final FileRotationStrategy rotationStrategy;
   private final int maxArchives;
   private final FileRotationListener rotationListener;
   private final Executor rotationExecutor;
+  private final int segmentSize;
+  private final ArchiveCompressor archiveCompressor;
+  private final Executor compressionExecutor;
+  private final SequencedArchives sequencedArchives;
 
-  private final ReadWriteLock logFileLock = new ReentrantReadWriteLock(true);
-  private final PrintWriter writer = new PrintWriter(new LockingWriter(), false);
+  private final Object rotationLock = new Object();
+  private final PrintWriter writer = new UnsynchronizedPrintWriter(new OutputWriter());
   private final AtomicBoolean closed = new AtomicBoolean(false);
   private final AtomicBoolean rotating = new AtomicBoolean(false);
-  private final AtomicLong written = new AtomicLong(0);
-  private Writer out = NULL_WRITER;
+  private final Runnable rotation = this::runRotation;
+  private volatile Output current;
 
   /**
    * Create a {@code PrintWriter} supplier.
@@ -48,7 +66,7 @@ public class RotatingFilePrintWriterSupplier implements Supplier<PrintWriter>, C
    */
   public RotatingFilePrintWriterSupplier(Path outputFile, FileRotationStrategy rotationStrategy, int maxArchives)
       throws IOException {
-    this(outputFile, rotationStrategy, maxArchives, new NoOpListener(), Runnable::run);
+    this(outputFile, rotationStrategy, maxArchives, new NoOpListener(), BackgroundRotator.EXECUTOR);
   }
 
   /**
@@ -65,7 +83,7 @@ public class RotatingFilePrintWriterSupplier implements Supplier<PrintWriter>, C
       FileRotationStrategy rotationStrategy,
       int maxArchives,
       FileRotationListener rotationListener) throws IOException {
-    this(outputFile, rotationStrategy, maxArchives, rotationListener, Runnable::run);
+    this(outputFile, rotationStrategy, maxArchives, rotationListener, BackgroundRotator.EXECUTOR);
   }
 
   /**
@@ -101,18 +119,269 @@ public class RotatingFilePrintWriterSupplier implements Supplier<PrintWriter>, C
       int maxArchives,
       FileRotationListener rotationListener,
       Executor rotationExecutor) throws IOException {
-    this.outputFile = outputFile;
-    this.rotationStrategy = rotationStrategy;
-    this.maxArchives = maxArchives;
-    this.rotationListener = rotationListener;
-    this.rotationExecutor = rotationExecutor;
-    this.out = openOutputFile(outputFile);
+    this(
+        forFile(outputFile)
+            .withRotationStrategy(rotationStrategy)
+            .withMaxArchives(maxArchives)
+            .withRotationListener(rotationListener)
+            .usingRotationExecutor(rotationExecutor));
+  }
+
+  private RotatingFilePrintWriterSupplier(Builder builder) throws IOException {
+    this.outputFile = builder.outputFile;
+    this.rotationStrategy = builder.rotationStrategy;
+    this.maxArchives = builder.maxArchives;
+    this.rotationListener = builder.rotationListener;
+    this.rotationExecutor = builder.rotationExecutor;
+    this.segmentSize = builder.segmentSize;
+    this.archiveCompressor = (builder.compressionPool != null) ? new ArchiveCompressor(builder.compressionPool) : null;
+    if (archiveCompressor != null && builder.compressionExecutor == null) {
+      this.compressionExecutor = BackgroundCompressor.EXECUTOR;
+    } else {
+      this.compressionExecutor = builder.compressionExecutor;
+    }
+    this.sequencedArchives = builder.sequencedArchives ? new SequencedArchives(outputFile, maxArchives) : null;
+    this.current = new Output(openOutputFile(outputFile));
+  }
+
+  /**
+   * Start building a {@code PrintWriter} supplier.
+   *
+   * <p>
+   * Unless otherwise configured, the supplier will only rotate the output file if it is removed, and will keep up to
+   * 10 archives.
+   *
+   * @param outputFile The file to write the latest output to.
+   * @return A builder for a {@code PrintWriter} supplier.
+   */
+  public static Builder forFile(Path outputFile) {
+    return new Builder(outputFile);
+  }
+
+  /**
+   * Create a {@code PrintWriter} supplier that writes to memory-mapped output files.
+   *
+   * @param outputFile The file to write the latest output to.
+   * @param segmentSize The size, in bytes, of each output file.
+   * @param maxArchives The maximum number of rotated archives to keep.
+   * @return A {@code PrintWriter} supplier.
+   * @throws IOException If the file could not be opened for writing.
+   * @see Builder#withMappedSegments(int)
+   */
+  public static RotatingFilePrintWriterSupplier mappedSegments(Path outputFile, int segmentSize, int maxArchives)
+      throws IOException {
+    return forFile(outputFile).withMappedSegments(segmentSize).withMaxArchives(maxArchives).build();
+  }
+
+  /**
+   * Create a {@code PrintWriter} supplier that writes to memory-mapped output files.
+   *
+   * <p>
+   * Output files will be rotated whenever the segment is full, as well as whenever the rotation strategy requests it.
+   *
+   * @param outputFile The file to write the latest output to.
+   * @param segmentSize The size, in bytes, of each output file.
+   * @param rotationStrategy The strategy for rotating this file away before the segment is full.
+   * @param maxArchives The maximum number of rotated archives to keep.
+   * @param rotationListener A listener for callbacks related to rotation.
+   * @param rotationExecutor A {@link Executor} that will be used for running rotations.
+   * @return A {@code PrintWriter} supplier.
+   * @throws IOException If the file could not be opened for writing.
+   * @see Builder#withMappedSegments(int)
+   */
+  public static RotatingFilePrintWriterSupplier mappedSegments(
+      Path outputFile,
+      int segmentSize,
+      FileRotationStrategy rotationStrategy,
+      int maxArchives,
+      FileRotationListener rotationListener,
+      Executor rotationExecutor) throws IOException {
+    return forFile(outputFile)
+        .withMappedSegments(segmentSize)
+        .withRotationStrategy(rotationStrategy)
+        .withMaxArchives(maxArchives)
+        .withRotationListener(rotationListener)
+        .usingRotationExecutor(rotationExecutor)
+        .build();
+  }
+
+  /**
+   * A builder for a {@link RotatingFilePrintWriterSupplier}.
+   */
+  public static final class Builder {
+    private final Path outputFile;
+    // a strategy that only rotates if the output file is removed
+    private FileRotationStrategy rotationStrategy = FileRotationStrategy.forSize(Long.MAX_VALUE, 0);
+    private int maxArchives = 10;
+    private FileRotationListener rotationListener = new NoOpListener();
+    private Executor rotationExecutor = BackgroundRotator.EXECUTOR;
+    private int segmentSize = 0;
+    private ForkJoinPool compressionPool = null;
+    private Executor compressionExecutor = null;
+    private boolean sequencedArchives = false;
+
+    private Builder(Path outputFile) {
+      requireNonNull(outputFile);
+      this.outputFile = outputFile;
+    }
+
+    /**
+     * Use the specified strategy for rotating the output file.
+     *
+     * @param rotationStrategy The strategy for rotating the output file away.
+     * @return This builder.
+     */
+    public Builder withRotationStrategy(FileRotationStrategy rotationStrategy) {
+      requireNonNull(rotationStrategy);
+      this.rotationStrategy = rotationStrategy;
+      return this;
+    }
+
+    /**
+     * Keep at most the specified number of archives.
+     *
+     * @param maxArchives The maximum number of rotated archives to keep.
+     * @return This builder.
+     */
+    public Builder withMaxArchives(int maxArchives) {
+      this.maxArchives = maxArchives;
+      return this;
+    }
+
+    /**
+     * Notify the specified listener of rotation events.
+     *
+     * @param rotationListener A listener for callbacks related to rotation.
+     * @return This builder.
+     */
+    public Builder withRotationListener(FileRotationListener rotationListener) {
+      requireNonNull(rotationListener);
+      this.rotationListener = rotationListener;
+      return this;
+    }
+
+    /**
+     * Run rotations using the specified executor.
+     *
+     * <p>
+     * By default, rotation is run in a background thread that is shared by all suppliers. The next output file is
+     * opened in that thread and then swapped in, and until then writers continue to write to the previous file.
+     *
+     * @param rotationExecutor A {@link Executor} that will be used for running rotations.
+     * @return This builder.
+     */
+    public Builder usingRotationExecutor(Executor rotationExecutor) {
+      requireNonNull(rotationExecutor);
+      this.rotationExecutor = rotationExecutor;
+      return this;
+    }
+
+    /**
+     * Write to memory-mapped output files.
+     *
+     * <p>
+     * Each output file is preallocated and mapped into memory with the given segment size, and log lines are appended
+     * by copying them into the mapped region, without any system calls or locking between concurrent writers. The file
+     * is rotated when the segment is full, as well as whenever the rotation strategy requests it, and is truncated to
+     * the length actually written when rotated or closed. A log line that does not fit in the remainder of a segment
+     * will be appended to the end of that file when it is rotated.
+     *
+     * <p>
+     * Whilst being written, the output file will have the full segment size with any unused space being zero-filled.
+     *
+     * @param segmentSize The size, in bytes, of each output file.
+     * @return This builder.
+     */
+    public Builder withMappedSegments(int segmentSize) {
+      if (segmentSize <= 0) {
+        throw new IllegalArgumentException("Segment size must be positive");
+      }
+      this.segmentSize = segmentSize;
+      return this;
+    }
+
+    /**
+     * Compress archives using gzip, in parallel using the common {@link ForkJoinPool}.
+     *
+     * @return This builder.
+     * @see #withCompressedArchives(ForkJoinPool, Executor)
+     */
+    public Builder withCompressedArchives() {
+      return withCompressedArchives(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Compress archives using gzip, in a background thread.
+     *
+     * @param pool The pool to use for compressing blocks of the archive.
+     * @return This builder.
+     * @see #withCompressedArchives(ForkJoinPool, Executor)
+     */
+    public Builder withCompressedArchives(ForkJoinPool pool) {
+      requireNonNull(pool);
+      this.compressionPool = pool;
+      this.compressionExecutor = null;
+      return this;
+    }
+
+    /**
+     * Compress archives using gzip.
+     *
+     * <p>
+     * Each archive is compressed after rotation, using the specified executor, and the uncompressed archive is removed
+     * once compression is complete. Large files are split into blocks which are compressed in parallel in the specified
+     * pool. Unless archives are {@link #withSequencedArchives() sequenced}, existing archives are renamed on each
+     * rotation, so no further rotation will occur until compression is complete. For this reason, compressed archives
+     * of {@link #withMappedSegments(int) mapped segments} must be sequenced, as writes to a full segment would
+     * otherwise be held in memory whilst an archive is compressed.
+     *
+     * @param pool The pool to use for compressing blocks of the archive.
+     * @param compressionExecutor The {@link Executor} that will be used for compressing each archive.
+     * @return This builder.
+     */
+    public Builder withCompressedArchives(ForkJoinPool pool, Executor compressionExecutor) {
+      requireNonNull(pool);
+      requireNonNull(compressionExecutor);
+      this.compressionPool = pool;
+      this.compressionExecutor = compressionExecutor;
+      return this;
+    }
+
+    /**
+     * Name archives with increasing sequence numbers.
+     *
+     * <p>
+     * By default, archives are named like logrotate, where {@code output.log.1} is always the most recent archive and
+     * every archive is renamed on each rotation. With sequence numbers, {@code output.log.1} is the first archive ever
+     * created, and archives are never renamed, so rotation only requires moving the output file and removing the oldest
+     * archive. The existing archives are found once when the supplier is created, and then tracked in memory.
+     *
+     * @return This builder.
+     */
+    public Builder withSequencedArchives() {
+      this.sequencedArchives = true;
+      return this;
+    }
+
+    /**
+     * Create the {@code PrintWriter} supplier.
+     *
+     * @return A {@code PrintWriter} supplier.
+     * @throws IOException If the file could not be opened for writing.
+     * @throws IllegalStateException If archives of mapped segments are compressed but not sequenced.
+     */
+    public RotatingFilePrintWriterSupplier build() throws IOException {
+      if (segmentSize > 0 && compressionPool != null && !sequencedArchives) {
+        throw new IllegalStateException("Compressed archives of mapped segments must be sequenced");
+      }
+      return new RotatingFilePrintWriterSupplier(this);
+    }
   }
 
   @Override
   public PrintWriter get() {
     if (!closed.get() && !rotating.get()) {
-      if (rotationStrategy.shouldRotate(outputFile, written.get())) {
+      if (rotationStrategy.shouldRotate(outputFile, current.written.sum())) {
         rotate();
       }
     }
@@ -121,13 +390,24 @@ public class RotatingFilePrintWriterSupplier implements Supplier<PrintWriter>, C
 
   @Override
   public void close() throws IOException {
-    logFileLock.writeLock().lock();
-    try {
+    synchronized (rotationLock) {
       closed.set(true);
-      out.close();
-    } finally {
-      out = NULL_WRITER;
-      logFileLock.writeLock().unlock();
+      stopChecks(rotationStrategy);
+      Output output = current;
+      current = new Output(NULL_WRITER);
+      output.awaitWriters();
+      output.writer.close();
+    }
+  }
+
+  // stop any background checks of the output file made by the built-in strategies
+  private static void stopChecks(FileRotationStrategy strategy) {
+    if (strategy instanceof DefaultFileRotationStrategy) {
+      ((DefaultFileRotationStrategy) strategy).stop();
+    } else if (strategy instanceof CompositeFileRotationStrategy) {
+      for (FileRotationStrategy s : ((CompositeFileRotationStrategy) strategy).strategies()) {
+        stopChecks(s);
+      }
     }
   }
 
@@ -136,63 +416,78 @@ public class RotatingFilePrintWriterSupplier implements Supplier<PrintWriter>, C
     if (rotating.getAndSet(true)) {
       return;
     }
+    try {
+      rotationExecutor.execute(rotation);
+    } catch (Exception e) {
+      rotating.set(false);
+    }
+  }
 
+  private void runRotation() {
     StringWriter buffer = new StringWriter();
     PrintWriter bufferWriter = new PrintWriter(buffer);
-    Runnable runnable = () -> {
-      logFileLock.writeLock().lock();
-      try {
+    Path archive = null;
+    boolean compressing = false;
+    try {
+      synchronized (rotationLock) {
+        if (closed.get()) {
+          return;
+        }
+        Output output = current;
         try {
-          try {
-            out.flush();
-            out.close();
-          } catch (Exception e) {
-            // failed to close
-            rotationListener.rotationError(e, bufferWriter);
-            return;
-          }
-
-          out = NULL_WRITER;
-          written.set(0);
-
+          // the output file is archived whilst it is still open, so writers can continue until the new file is
+          // ready to be swapped in
           if (Files.exists(outputFile)) {
             try {
-              shift();
-              Files.move(outputFile, archiveFile(outputFile, 1));
+              archive = archiveOutputFile(output, bufferWriter);
             } catch (Exception e) {
               // failed to shift
               rotationListener.rotationError(e, bufferWriter);
+              if (current == ROTATION_IN_PROGRESS) {
+                // the output was closed, so continue by appending to the output file
+                output = new Output(reopenOutputFile(bufferWriter));
+                current = output;
+              }
               return;
             }
           }
-        } finally {
-          if (!closed.get() && out == NULL_WRITER) {
-            try {
-              out = openOutputFile(outputFile);
-            } catch (IOException e) {
-              // failed to open output
-              rotationListener.rotationError(e, bufferWriter);
+
+          Output next;
+          try {
+            next = new Output(openOutputFile(outputFile));
+          } catch (IOException e) {
+            rotationListener.rotationError(e, bufferWriter);
+            if (current != ROTATION_IN_PROGRESS) {
+              // failed to open output, so continue writing to the archived file
+              return;
             }
+            next = new Output(NULL_WRITER);
           }
-        }
 
-        rotationStrategy.rotationCompleted();
-        rotationListener.rotationCompleted(bufferWriter);
-      } finally {
-        try {
-          out.append(buffer.getBuffer());
-        } catch (IOException e) {
-          // ignore
+          current = next;
+          // wait for writes to the previous file to finish
+          output.awaitWriters();
+          closeOutput(output, bufferWriter);
+          output = next;
+
+          rotationStrategy.rotationCompleted();
+          rotationListener.rotationCompleted(bufferWriter);
+        } finally {
+          try {
+            output.writer.append(buffer.getBuffer());
+          } catch (IOException e) {
+            // ignore
+          }
         }
-        rotating.set(false);
-        logFileLock.writeLock().unlock();
       }
-    };
 
-    try {
-      rotationExecutor.execute(runnable);
-    } catch (Exception e) {
-      rotating.set(false);
+      if (archive != null && archiveCompressor != null) {
+        compressing = compressInBackground(archive);
+      }
+    } finally {
+      if (!compressing) {
+        rotating.set(false);
+      }
     }
   }
 
@@ -200,39 +495,176 @@ public class RotatingFilePrintWriterSupplier implements Supplier<PrintWriter>, C
    * @return A list of all archives, in order from most recent to oldest.
    */
   public List<Path> archives() {
+    if (sequencedArchives != null) {
+      return sequencedArchives.newestFirst();
+    }
     List<Path> archives = new ArrayList<>();
     Path archive;
-    for (int i = 1; Files.exists(archive = archiveFile(outputFile, i)); ++i) {
+    for (int i = 1; (archive = findArchive(outputFile, i)) != null; ++i) {
       archives.add(archive);
     }
     return archives;
   }
 
+  private Path archiveOutputFile(Output output, PrintWriter bufferWriter) throws IOException {
+    if (sequencedArchives != null) {
+      Path archive = sequencedArchives.nextArchive();
+      moveOutputFile(output, archive, bufferWriter);
+      sequencedArchives.archived(archive);
+      return archive;
+    }
+    shift();
+    Path archive = archiveFile(outputFile, 1);
+    moveOutputFile(output, archive, bufferWriter);
+    return archive;
+  }
+
+  // an open file cannot be moved on some platforms (e.g. Windows), so if moving it fails, block writers whilst the
+  // output is closed and then moved
+  private void moveOutputFile(Output output, Path archive, PrintWriter bufferWriter) throws IOException {
+    try {
+      move(outputFile, archive, false);
+    } catch (IOException e) {
+      current = ROTATION_IN_PROGRESS;
+      output.awaitWriters();
+      closeOutput(output, bufferWriter);
+      try {
+        move(outputFile, archive, true);
+      } catch (IOException ex) {
+        ex.addSuppressed(e);
+        throw ex;
+      }
+    }
+  }
+
+  // visible for testing
+  void move(Path source, Path target, boolean closed) throws IOException {
+    Files.move(source, target);
+  }
+
+  private void closeOutput(Output output, PrintWriter bufferWriter) {
+    try {
+      output.writer.flush();
+      output.writer.close();
+    } catch (Exception e) {
+      // failed to close
+      rotationListener.rotationError(e, bufferWriter);
+    }
+  }
+
+  private Writer reopenOutputFile(PrintWriter bufferWriter) {
+    try {
+      return FileChannelSink
+          .open(outputFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      // failed to open output
+      rotationListener.rotationError(e, bufferWriter);
+      return NULL_WRITER;
+    }
+  }
+
   private void shift() throws IOException {
     for (int i = lastArchiveFileNumber(outputFile); i > 0; --i) {
-      Path archive = archiveFile(outputFile, i);
+      Path archive = findArchive(outputFile, i);
       if (i >= maxArchives) {
         Files.delete(archive);
+      } else if (isCompressed(archive)) {
+        Files.move(archive, compressedFile(archiveFile(outputFile, i + 1)));
       } else {
         Files.move(archive, archiveFile(outputFile, i + 1));
       }
     }
   }
 
+  // compress an archive using the compression executor, returning true if rotation must wait for it to complete
+  private boolean compressInBackground(Path archive) {
+    // unless sequenced, archives are renamed on each rotation, so must not be rotated whilst being compressed
+    boolean blocksRotation = sequencedArchives == null;
+    try {
+      compressionExecutor.execute(() -> {
+        try {
+          compress(archive);
+        } finally {
+          if (blocksRotation) {
+            rotating.set(false);
+          }
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      compress(archive);
+      return false;
+    }
+    return blocksRotation;
+  }
+
+  private void compress(Path archive) {
+    Path compressed = compressedFile(archive);
+    // compress to a temporary file first, so that a compressed archive is never incomplete
+    Path partial = partialFile(compressed);
+    try {
+      archiveCompressor.compress(archive, partial);
+      Files.move(partial, compressed, StandardCopyOption.REPLACE_EXISTING);
+      if (sequencedArchives != null && !sequencedArchives.compressed(archive, compressed)) {
+        // the archive was removed whilst being compressed
+        Files.deleteIfExists(compressed);
+        return;
+      }
+      Files.delete(archive);
+    } catch (Exception e) {
+      try {
+        Files.deleteIfExists(partial);
+        Files.deleteIfExists(compressed);
+      } catch (IOException ex) {
+        // ignore
+      }
+      rotationListener.compressionError(e, archive);
+      return;
+    }
+    rotationListener.compressionCompleted(compressed);
+  }
+
   private static Path archiveFile(Path outputFile, int number) {
     return outputFile.resolveSibling(outputFile.getFileName().toString() + '.' + number);
   }
 
+  private static Path compressedFile(Path file) {
+    return file.resolveSibling(file.getFileName().toString() + COMPRESSED_SUFFIX);
+  }
+
+  private static Path partialFile(Path compressed) {
+    return compressed.resolveSibling(compressed.getFileName().toString() + PARTIAL_SUFFIX);
+  }
+
+  private static boolean isCompressed(Path file) {
+    return file.getFileName().toString().endsWith(COMPRESSED_SUFFIX);
+  }
+
+  // find an archive, which may be compressed, or return null if there is no archive with the given number
+  private static Path findArchive(Path outputFile, int number) {
+    Path archive = archiveFile(outputFile, number);
+    if (Files.exists(archive)) {
+      return archive;
+    }
+    Path compressed = compressedFile(archive);
+    if (Files.exists(compressed)) {
+      return compressed;
+    }
+    return null;
+  }
+
   private static int lastArchiveFileNumber(Path outputFile) {
     int i = 0;
-    while (Files.exists(archiveFile(outputFile, i + 1))) {
+    while (findArchive(outputFile, i + 1) != null) {
       i++;
     }
     return i;
   }
 
-  private static Writer openOutputFile(Path file) throws IOException {
-    return Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+  private Writer openOutputFile(Path file) throws IOException {
+    if (segmentSize > 0) {
+      return MappedSegmentWriter.open(file, segmentSize);
+    }
+    return FileChannelSink.open(file);
   }
 
   private static long fileSize(Path file) {
@@ -244,30 +676,186 @@ public class RotatingFilePrintWriterSupplier implements Supplier<PrintWriter>, C
     }
   }
 
-  private class LockingWriter extends Writer {
+  /**
+   * Runs rotations in a background thread, one at a time, so that the thread that is logging when rotation is required
+   * does not wait for the archives to be renamed or for the next output file to be opened.
+   */
+  private static final class BackgroundRotator {
+    static final Executor EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+      Thread thread = new Thread(r, "logl-file-rotator");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Compresses archives in a background thread, one at a time, so that rotation does not wait for compression.
+   */
+  private static final class BackgroundCompressor {
+    static final Executor EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+      Thread thread = new Thread(r, "logl-archive-compressor");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * An output file, and the state used to track writes to it.
+   *
+   * <p>
+   * Writers register themselves in a striped in-flight counter before using the output, and then check that it is
+   * still current. Rotation replaces the current output before waiting for its counters to reach zero, so once they do
+   * no writer can still be using it. Each thread always uses the same stripe, so a stripe can never be observed as zero
+   * whilst a writer it counts is in-flight.
+   */
+  private static final class Output {
+    // at least two stripes per processor, each occupying its own 128 bytes to avoid false sharing
+    private static final int STRIPE_PADDING = 16;
+    private static final int STRIPES = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1);
+    private static final int STRIPE_MASK = STRIPES - 1;
+
+    final Writer writer;
+    final MappedSegmentWriter segment;
+    final LongAdder written = new LongAdder();
+    private final AtomicLongArray inFlight = new AtomicLongArray(STRIPES * STRIPE_PADDING);
+
+    Output(Writer writer) {
+      this.writer = writer;
+      this.segment = (writer instanceof MappedSegmentWriter) ? (MappedSegmentWriter) writer : null;
+    }
+
+    static int stripe() {
+      return ((int) Thread.currentThread().getId() & STRIPE_MASK) * STRIPE_PADDING;
+    }
+
+    void enter(int stripe) {
+      inFlight.getAndIncrement(stripe);
+    }
+
+    void exit(int stripe) {
+      inFlight.getAndDecrement(stripe);
+    }
+
+    void awaitWriters() {
+      for (int i = 0; i < STRIPES; ++i) {
+        while (inFlight.get(i * STRIPE_PADDING) != 0) {
+          Thread.yield();
+        }
+      }
+    }
+
+    boolean isSegmentFull() {
+      return segment != null && segment.isFull();
+    }
+  }
+
+  private class OutputWriter extends Writer {
     @Override
     public void write(char[] cbuf, int off, int len) throws IOException {
-      logFileLock.readLock().lock();
+      int stripe = Output.stripe();
+      Output output = acquire(stripe);
+      if (output == null) {
+        return;
+      }
       try {
-        out.write(cbuf, off, len);
+        output.writer.write(cbuf, off, len);
       } finally {
-        logFileLock.readLock().unlock();
+        output.exit(stripe);
+      }
+      output.written.add(len);
+      if (output.isSegmentFull() && !closed.get()) {
+        rotate();
       }
-      written.getAndAdd(len);
     }
 
     @Override
     public void flush() throws IOException {
-      logFileLock.readLock().lock();
+      int stripe = Output.stripe();
+      Output output = acquire(stripe);
+      if (output == null) {
+        return;
+      }
       try {
-        out.flush();
+        output.writer.flush();
       } finally {
-        logFileLock.readLock().unlock();
+        output.exit(stripe);
       }
     }
 
     @Override
     public void close() {}
+
+    // returns the current output, registered as in use by this thread, or null if output should be discarded
+    private Output acquire(int stripe) {
+      while (true) {
+        Output output = current;
+        if (output == ROTATION_IN_PROGRESS) {
+          if (Thread.holdsLock(rotationLock)) {
+            // written by the rotating thread (e.g. by a rotation listener)
+            return null;
+          }
+          synchronized (rotationLock) {
+            // the lock is held for the duration of the rotation
+          }
+          continue;
+        }
+        output.enter(stripe);
+        if (output == current) {
+          return output;
+        }
+        output.exit(stripe);
+      }
+    }
+  }
+
+  /**
+   * A {@link PrintWriter} that does not serialize writes, as the underlying output is thread-safe.
+   */
+  private static final class UnsynchronizedPrintWriter extends PrintWriter {
+    UnsynchronizedPrintWriter(Writer out) {
+      super(out, false);
+    }
+
+    @Override
+    public void write(int c) {
+      try {
+        out.write(c);
+      } catch (IOException e) {
+        setError();
+      }
+    }
+
+    @Override
+    public void write(char[] buf, int off, int len) {
+      try {
+        out.write(buf, off, len);
+      } catch (IOException e) {
+        setError();
+      }
+    }
+
+    @Override
+    public void write(String s, int off, int len) {
+      try {
+        out.write(s, off, len);
+      } catch (IOException e) {
+        setError();
+      }
+    }
+
+    @Override
+    public void flush() {
+      try {
+        out.flush();
+      } catch (IOException e) {
+        setError();
+      }
+    }
+
+    @Override
+    public void close() {
+      // the output is closed when the supplier is closed
+    }
   }
 
   private static class NullWriter extends Writer {
@@ -0,0 +1,156 @@
+package org.logl;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * An index of archives named with monotonically increasing sequence numbers, such as {@code output.log.17}.
+ *
+ * <p>
+ * Archives are never renamed once created, so archiving an output file is a single rename and, once there are more
+ * than the maximum number of archives, a single delete. The index is built by listing the directory once, and is then
+ * maintained in memory.
+ */
+final class SequencedArchives {
+  private static final String COMPRESSED_SUFFIX = ".gz";
+  private static final String PARTIAL_SUFFIX = ".tmp";
+
+  private final Path outputFile;
+  private final int maxArchives;
+  // oldest first
+  private final Deque<Path> archives = new ArrayDeque<>();
+  private long lastSequence = 0;
+
+  SequencedArchives(Path outputFile, int maxArchives) throws IOException {
+    this.outputFile = outputFile;
+    this.maxArchives = maxArchives;
+
+    String prefix = outputFile.getFileName().toString() + '.';
+    TreeMap<Long, Path> existing = new TreeMap<>();
+    List<Path> leftovers = new ArrayList<>();
+    Path dir = outputFile.toAbsolutePath().getParent();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+      for (Path file : stream) {
+        String name = file.getFileName().toString();
+        Path archive = outputFile.resolveSibling(name);
+        if (name.startsWith(prefix) && name.endsWith(COMPRESSED_SUFFIX + PARTIAL_SUFFIX)) {
+          // compression was interrupted, and the uncompressed archive was retained
+          leftovers.add(archive);
+          continue;
+        }
+        long sequence = sequenceNumber(name, prefix);
+        if (sequence <= 0) {
+          continue;
+        }
+        Path other = existing.put(sequence, archive);
+        if (other != null) {
+          // an archive is only compressed once complete, so the uncompressed archive is a leftover from before its
+          // removal was interrupted
+          if (isCompressed(archive)) {
+            leftovers.add(other);
+          } else {
+            existing.put(sequence, other);
+            leftovers.add(archive);
+          }
+        }
+      }
+    }
+    for (Path leftover : leftovers) {
+      Files.deleteIfExists(leftover);
+    }
+    archives.addAll(existing.values());
+    if (!existing.isEmpty()) {
+      lastSequence = existing.lastKey();
+    }
+  }
+
+  /**
+   * @return The name for the next archive.
+   */
+  synchronized Path nextArchive() {
+    return outputFile.resolveSibling(outputFile.getFileName().toString() + '.' + (lastSequence + 1));
+  }
+
+  /**
+   * Record that the output file has been moved to the next archive, and remove the oldest archives if there are more
+   * than the maximum.
+   *
+   * @param archive The new archive, as returned by {@link #nextArchive()}.
+   * @throws IOException If an old archive could not be removed.
+   */
+  synchronized void archived(Path archive) throws IOException {
+    lastSequence++;
+    archives.addLast(archive);
+    while (archives.size() > maxArchives) {
+      Files.deleteIfExists(archives.removeFirst());
+    }
+  }
+
+  /**
+   * Record that an archive has been replaced by a compressed copy.
+   *
+   * @param archive The archive.
+   * @param compressed The compressed archive.
+   * @return {@code false} if the archive has since been removed.
+   */
+  synchronized boolean compressed(Path archive, Path compressed) {
+    Deque<Path> replaced = new ArrayDeque<>(archives.size());
+    boolean found = false;
+    for (Path path : archives) {
+      if (!found && path.equals(archive)) {
+        replaced.addLast(compressed);
+        found = true;
+      } else {
+        replaced.addLast(path);
+      }
+    }
+    if (found) {
+      archives.clear();
+      archives.addAll(replaced);
+    }
+    return found;
+  }
+
+  /**
+   * @return A list of all archives, in order from most recent to oldest.
+   */
+  synchronized List<Path> newestFirst() {
+    List<Path> list = new ArrayList<>(archives.size());
+    for (Iterator<Path> it = archives.descendingIterator(); it.hasNext();) {
+      list.add(it.next());
+    }
+    return list;
+  }
+
+  private static boolean isCompressed(Path file) {
+    return file.getFileName().toString().endsWith(COMPRESSED_SUFFIX);
+  }
+
+  // parse the sequence number of an archive, or return 0 if the name is not an archive
+  private static long sequenceNumber(String name, String prefix) {
+    if (!name.startsWith(prefix)) {
+      return 0;
+    }
+    int end = name.endsWith(COMPRESSED_SUFFIX) ? name.length() - COMPRESSED_SUFFIX.length() : name.length();
+    if (end == prefix.length() || end - prefix.length() > 18) {
+      return 0;
+    }
+    long sequence = 0;
+    for (int i = prefix.length(); i < end; ++i) {
+      char c = name.charAt(i);
+      if (c < '0' || c > '9') {
+        return 0;
+      }
+      sequence = sequence * 10 + (c - '0');
+    }
+    return sequence;
+  }
+}
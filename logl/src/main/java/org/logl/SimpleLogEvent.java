@@ -1,17 +1,16 @@
 package org.logl;
 
 import java.io.IOException;
-import java.time.Instant;
 import java.util.Locale;
 
 final class SimpleLogEvent {
-  private final Instant time;
+  private final long time;
   private final Level level;
   private final CharSequence formattedMessage;
   private final LogMessage message;
   private final Throwable cause;
 
-  SimpleLogEvent(Instant time, Level level, CharSequence formattedMessage, Throwable cause) {
+  SimpleLogEvent(long time, Level level, CharSequence formattedMessage, Throwable cause) {
     this.time = time;
     this.level = level;
     this.formattedMessage = formattedMessage;
@@ -19,7 +18,7 @@ final class SimpleLogEvent {
     this.cause = cause;
   }
 
-  SimpleLogEvent(Instant time, Level level, LogMessage message, Throwable cause) {
+  SimpleLogEvent(long time, Level level, LogMessage message, Throwable cause) {
     this.time = time;
     this.level = level;
     this.formattedMessage = null;
@@ -27,7 +26,7 @@ final class SimpleLogEvent {
     this.cause = cause;
   }
 
-  Instant time() {
+  long time() {
     return time;
   }
 
@@ -2,21 +2,36 @@ package org.logl;
 
 import static java.util.Objects.requireNonNull;
 
-import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.function.Consumer;
-import java.util.function.Supplier;
+
+import org.logl.Layout.LineFormat;
+import org.logl.SimpleLoggerImpl.Batch;
 
 final class SimpleLogWriter implements LogWriter {
   private final Level level;
   private final SimpleLoggerImpl logger;
-  private final Supplier<Instant> currentTimeSupplier;
+  private final LineFormat lineFormat;
+  // the constant part of each JSON line following the timestamp, up to the opening quote of the message
+  private final char[] jsonLinePrefix;
 
-  SimpleLogWriter(Level level, SimpleLoggerImpl logger, Supplier<Instant> currentTimeSupplier) {
+  SimpleLogWriter(Level level, SimpleLoggerImpl logger, LineFormat lineFormat, String loggerName) {
     this.level = level;
     this.logger = logger;
-    this.currentTimeSupplier = currentTimeSupplier;
+    this.lineFormat = lineFormat;
+
+    LineBuffer jsonPrefix = new LineBuffer();
+    jsonPrefix.append("\",\"level\":\"").append(level.name()).append("\",\"logger\":\"");
+    jsonPrefix.appendJsonEscaped(loggerName, 0, loggerName.length());
+    jsonPrefix.append("\",\"message\":\"");
+    this.jsonLinePrefix = jsonPrefix.toString().toCharArray();
+  }
+
+  LineFormat lineFormat() {
+    return lineFormat;
+  }
+
+  char[] jsonLinePrefix() {
+    return jsonLinePrefix;
   }
 
   @Override
@@ -49,47 +64,164 @@ final class SimpleLogWriter implements LogWriter {
     logger.logf(level, format, args);
   }
 
+  @Override
+  public void log(String pattern, Object arg) {
+    requireNonNull(pattern);
+    if (arg instanceof Throwable) {
+      log(pattern, (Throwable) arg);
+      return;
+    }
+    if (logger.isEnabled(level)) {
+      logger.log(level, PatternMessage.acquire().with(pattern, arg));
+    }
+  }
+
+  @Override
+  public void log(String pattern, long arg) {
+    requireNonNull(pattern);
+    if (logger.isEnabled(level)) {
+      logger.log(level, PatternMessage.acquire().with(pattern, arg));
+    }
+  }
+
+  @Override
+  public void log(String pattern, double arg) {
+    requireNonNull(pattern);
+    if (logger.isEnabled(level)) {
+      logger.log(level, PatternMessage.acquire().with(pattern, arg));
+    }
+  }
+
+  // boxed once enabled, as PatternMessage holds only long and double primitive arguments
+  @Override
+  public void log(String pattern, char arg) {
+    requireNonNull(pattern);
+    if (logger.isEnabled(level)) {
+      logger.log(level, PatternMessage.acquire().with(pattern, (Object) arg));
+    }
+  }
+
+  @Override
+  public void log(String pattern, float arg) {
+    requireNonNull(pattern);
+    if (logger.isEnabled(level)) {
+      logger.log(level, PatternMessage.acquire().with(pattern, (Object) arg));
+    }
+  }
+
+  @Override
+  public void log(String pattern, Object arg1, Object arg2) {
+    requireNonNull(pattern);
+    if (logger.isEnabled(level)) {
+      logger.log(level, PatternMessage.acquire().with(pattern, arg1, arg2));
+    }
+  }
+
+  @Override
+  public void log(String pattern, Object arg1, Object arg2, Object arg3) {
+    requireNonNull(pattern);
+    if (logger.isEnabled(level)) {
+      logger.log(level, PatternMessage.acquire().with(pattern, arg1, arg2, arg3));
+    }
+  }
+
+  @Override
+  public void log(String pattern, Object arg1, Object arg2, Object arg3, Object arg4) {
+    requireNonNull(pattern);
+    if (logger.isEnabled(level)) {
+      logger.log(level, PatternMessage.acquire().with(pattern, arg1, arg2, arg3, arg4));
+    }
+  }
+
   @Override
   public void batch(Consumer<LogWriter> fn) {
     requireNonNull(fn);
-    List<SimpleLogEvent> events = new ArrayList<>(32);
-    fn.accept(new BatchLogWriter(level, currentTimeSupplier, events::add));
-    logger.writeEvents(events);
+    logger.batch(level, fn);
   }
 
   static final class BatchLogWriter implements LogWriter {
     private final Level level;
-    private final Supplier<Instant> currentTimeSupplier;
-    private final Consumer<SimpleLogEvent> eventConsumer;
+    private final Batch batch;
 
-    BatchLogWriter(Level level, Supplier<Instant> currentTimeSupplier, Consumer<SimpleLogEvent> eventConsumer) {
+    BatchLogWriter(Level level, Batch batch) {
       this.level = level;
-      this.currentTimeSupplier = currentTimeSupplier;
-      this.eventConsumer = eventConsumer;
+      this.batch = batch;
     }
 
     @Override
     public void log(LogMessage message) {
       requireNonNull(message);
-      eventConsumer.accept(new SimpleLogEvent(currentTimeSupplier.get(), level, message, null));
+      batch.add(level, message, null);
     }
 
     @Override
     public void log(CharSequence message) {
       requireNonNull(message);
-      eventConsumer.accept(new SimpleLogEvent(currentTimeSupplier.get(), level, message, null));
+      batch.add(level, message, null);
     }
 
     @Override
     public void log(LogMessage message, Throwable cause) {
       requireNonNull(message);
-      eventConsumer.accept(new SimpleLogEvent(currentTimeSupplier.get(), level, message, cause));
+      batch.add(level, message, cause);
     }
 
     @Override
     public void log(CharSequence message, Throwable cause) {
       requireNonNull(message);
-      eventConsumer.accept(new SimpleLogEvent(currentTimeSupplier.get(), level, message, cause));
+      batch.add(level, message, cause);
+    }
+
+    @Override
+    public void log(String pattern, Object arg) {
+      requireNonNull(pattern);
+      if (arg instanceof Throwable) {
+        log(pattern, (Throwable) arg);
+        return;
+      }
+      batch.add(level, PatternMessage.acquire().with(pattern, arg));
+    }
+
+    @Override
+    public void log(String pattern, long arg) {
+      requireNonNull(pattern);
+      batch.add(level, PatternMessage.acquire().with(pattern, arg));
+    }
+
+    @Override
+    public void log(String pattern, double arg) {
+      requireNonNull(pattern);
+      batch.add(level, PatternMessage.acquire().with(pattern, arg));
+    }
+
+    @Override
+    public void log(String pattern, char arg) {
+      requireNonNull(pattern);
+      batch.add(level, PatternMessage.acquire().with(pattern, (Object) arg));
+    }
+
+    @Override
+    public void log(String pattern, float arg) {
+      requireNonNull(pattern);
+      batch.add(level, PatternMessage.acquire().with(pattern, (Object) arg));
+    }
+
+    @Override
+    public void log(String pattern, Object arg1, Object arg2) {
+      requireNonNull(pattern);
+      batch.add(level, PatternMessage.acquire().with(pattern, arg1, arg2));
+    }
+
+    @Override
+    public void log(String pattern, Object arg1, Object arg2, Object arg3) {
+      requireNonNull(pattern);
+      batch.add(level, PatternMessage.acquire().with(pattern, arg1, arg2, arg3));
+    }
+
+    @Override
+    public void log(String pattern, Object arg1, Object arg2, Object arg3, Object arg4) {
+      requireNonNull(pattern);
+      batch.add(level, PatternMessage.acquire().with(pattern, arg1, arg2, arg3, arg4));
     }
 
     @Override
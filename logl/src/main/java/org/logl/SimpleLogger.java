@@ -2,16 +2,23 @@ package org.logl;
 
 import static java.util.Objects.requireNonNull;
 
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.util.Locale;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 /**
  * Factory methods for creating loggers that writes log lines using a common log format.
+ *
+ * <p>
+ * Unless writing asynchronously, logging a {@link CharSequence} or a pattern formatted message with up to four
+ * arguments does not allocate once the logger is warmed up, including when the lines are written in a batch.
  */
 public final class SimpleLogger {
   private SimpleLogger() {}
@@ -46,6 +53,72 @@ public final class SimpleLogger {
     return new Builder().withLogLevel(level);
   }
 
+  /**
+   * Start building a simple logger that abbreviates logger names using the specified pattern.
+   *
+   * @param pattern The abbreviation pattern.
+   * @return A builder for a simple logger.
+   * @throws IllegalArgumentException If the pattern is not valid.
+   * @see Builder#withNameAbbreviation(String)
+   */
+  public static Builder withNameAbbreviation(String pattern) {
+    return new Builder().withNameAbbreviation(pattern);
+  }
+
+  /**
+   * Start building a simple logger that writes log lines using the specified layout pattern.
+   *
+   * @param pattern The layout pattern.
+   * @return A builder for a simple logger.
+   * @throws IllegalArgumentException If the pattern is not valid.
+   * @see Builder#withLayout(String)
+   */
+  public static Builder withLayout(String pattern) {
+    return new Builder().withLayout(pattern);
+  }
+
+  /**
+   * Start building a simple logger that uses the specified renderer for the stack traces of logged exceptions.
+   *
+   * @param renderer The renderer to use for stack traces.
+   * @return A builder for a simple logger.
+   */
+  public static Builder withThrowableRenderer(ThrowableRenderer renderer) {
+    return new Builder().withThrowableRenderer(renderer);
+  }
+
+  /**
+   * Start building a simple logger that limits the number of characters output for each log message.
+   *
+   * @param maxChars The maximum number of characters output for each log message.
+   * @return A builder for a simple logger.
+   * @see Builder#withMaxMessageLength(int)
+   */
+  public static Builder withMaxMessageLength(int maxChars) {
+    return new Builder().withMaxMessageLength(maxChars);
+  }
+
+  /**
+   * Start building a simple logger that limits the number of characters output for each message argument.
+   *
+   * @param maxChars The maximum number of characters output for each message argument.
+   * @return A builder for a simple logger.
+   * @see Builder#withMaxArgumentLength(int)
+   */
+  public static Builder withMaxArgumentLength(int maxChars) {
+    return new Builder().withMaxArgumentLength(maxChars);
+  }
+
+  /**
+   * Start building a simple logger that writes each log line as a JSON object.
+   *
+   * @return A builder for a simple logger.
+   * @see Builder#asJsonLines()
+   */
+  public static Builder asJsonLines() {
+    return new Builder().asJsonLines();
+  }
+
   /**
    * Start building a simple logger that uses the specified supplier for timestamps.
    *
@@ -68,6 +141,17 @@ public final class SimpleLogger {
     return new Builder().withoutAutoFlush();
   }
 
+  /**
+   * Start building a simple logger that writes log lines asynchronously.
+   *
+   * @param capacity The maximum number of log lines that may be queued for writing.
+   * @return A builder for a simple logger.
+   * @see Builder#async(int)
+   */
+  public static Builder async(int capacity) {
+    return new Builder().async(capacity);
+  }
+
   /**
    * Create a simple {@link AdjustableLoggerProvider} instance that writes logs to the supplied {@link PrintWriter}.
    *
@@ -88,6 +172,30 @@ public final class SimpleLogger {
     return new Builder().toPrintWriter(writerSupplier);
   }
 
+  /**
+   * Create a simple {@link AdjustableLoggerProvider} instance that writes logs to a file.
+   *
+   * @param file The file to output log lines to.
+   * @return A {@link AdjustableLoggerProvider} that provides {@link Logger} instances using a common log format.
+   * @throws IOException If the file could not be opened for writing.
+   * @see Builder#toFile(Path)
+   */
+  public static AdjustableLoggerProvider toFile(Path file) throws IOException {
+    return new Builder().toFile(file);
+  }
+
+  /**
+   * Create a simple {@link AdjustableLoggerProvider} instance that writes logs to a file in a compact binary format.
+   *
+   * @param file The file to output log events to.
+   * @return A {@link AdjustableLoggerProvider} that provides {@link Logger} instances that write binary log events.
+   * @throws IOException If the file could not be opened for writing.
+   * @see Builder#toBinaryFile(Path)
+   */
+  public static AdjustableLoggerProvider toBinaryFile(Path file) throws IOException {
+    return new Builder().toBinaryFile(file);
+  }
+
   /**
    * A builder for a logger that uses a common log format.
    */
@@ -95,8 +203,15 @@ public final class SimpleLogger {
     ZoneId zone = ZoneOffset.UTC;
     Locale locale = Locale.getDefault();
     Level level = Level.INFO;
-    Supplier<Instant> currentTimeSupplier = Instant::now;
+    LongSupplier clock = System::currentTimeMillis;
+    ThrowableRenderer throwableRenderer = ThrowableRenderer.standard();
+    NameAbbreviator nameAbbreviator = NameAbbreviator.forPattern("1.");
+    Layout layout = Layout.DEFAULT;
+    boolean jsonLines = false;
+    int maxMessageLength = Integer.MAX_VALUE;
+    int maxArgumentLength = Integer.MAX_VALUE;
     boolean autoFlush = true;
+    int asyncCapacity = 0;
 
     /**
      * Use the specified timezone for timestamps.
@@ -134,6 +249,145 @@ public final class SimpleLogger {
       return this;
     }
 
+    /**
+     * Abbreviate logger names using the specified pattern.
+     *
+     * <p>
+     * The pattern is either a count of the name elements to retain from the right (e.g. {@code "1"} outputs
+     * {@code "Foo"} for {@code "org.logl.Foo"}), a negative count of elements to drop from the left, or a sequence of
+     * fragments giving the number of characters to retain for each element, optionally followed by an ellipsis, where
+     * the final fragment applies to all remaining elements (e.g. {@code "1."} outputs {@code "o.l.Foo"}, and
+     * {@code "1~.2~"} outputs {@code "o~.lo~.Foo"}). An empty pattern outputs the name unabbreviated. The default
+     * pattern is {@code "1."}.
+     *
+     * @param pattern The abbreviation pattern.
+     * @return This builder.
+     * @throws IllegalArgumentException If the pattern is not valid.
+     */
+    public Builder withNameAbbreviation(String pattern) {
+      requireNonNull(pattern);
+      this.nameAbbreviator = NameAbbreviator.forPattern(pattern);
+      return this;
+    }
+
+    /**
+     * Write log lines using the specified layout pattern.
+     *
+     * <p>
+     * The pattern is literal text containing the following conversions:
+     * <ul>
+     * <li>{@code %d}: the timestamp, e.g. {@code 2007-12-03 10:15:30.000+0000}. The options {@code %d{iso}} for
+     * ISO-8601 (e.g. {@code 2007-12-03T10:15:30.000Z}), {@code %d{epochMillis}} for milliseconds since the epoch and
+     * {@code %d{epochMicros}} for microseconds since the epoch select other formats. Timestamps have millisecond
+     * precision, so epoch microseconds are a multiple of 1000.</li>
+     * <li>{@code %level}: the level.</li>
+     * <li>{@code %logger}: the logger name, abbreviated as set by {@link #withNameAbbreviation(String)} or as given by
+     * an option, e.g. {@code %logger{1.}}.</li>
+     * <li>{@code %thread}: the name of the thread that logged the line.</li>
+     * <li>{@code %sn}: a sequence number, starting at 1 and incremented for each line formatted with the layout. Each
+     * line has a unique number, but numbers are assigned when lines are formatted rather than when they are written, so
+     * lines logged concurrently by different threads may be written out of order. A line that is formatted but then
+     * discarded, such as a line in a batch whose level is disabled before the batch ends, leaves a gap.</li>
+     * <li>{@code %msg}: the message.</li>
+     * <li>{@code %n}: the line separator.</li>
+     * <li>{@code %%}: a literal {@code '%'}.</li>
+     * </ul>
+     * The level, logger and thread may be padded to a minimum width, which is right justified (e.g. {@code %6level}) or
+     * left justified (e.g. {@code %-5level}). The pattern must contain {@code %msg} exactly once, and the stack trace
+     * of a logged exception is output following the line. The default pattern is {@code "%d%6level [%logger] %msg%n"}.
+     *
+     * <p>
+     * The pattern is compiled once, and the text, level and logger name are rendered once for each logger and level, so
+     * the pattern is not parsed for each line. The layout does not apply to {@link #asJsonLines() JSON lines} or to
+     * binary log files.
+     *
+     * @param pattern The layout pattern.
+     * @return This builder.
+     * @throws IllegalArgumentException If the pattern is not valid.
+     */
+    public Builder withLayout(String pattern) {
+      requireNonNull(pattern);
+      this.layout = Layout.forPattern(pattern);
+      return this;
+    }
+
+    /**
+     * Use the specified renderer for the stack traces of logged exceptions.
+     *
+     * <p>
+     * By default, stack traces are output in full, as by {@link Throwable#printStackTrace()}.
+     *
+     * @param renderer The renderer to use for stack traces.
+     * @return This builder.
+     */
+    public Builder withThrowableRenderer(ThrowableRenderer renderer) {
+      requireNonNull(renderer);
+      this.throwableRenderer = renderer;
+      return this;
+    }
+
+    /**
+     * Limit the number of characters output for each log message.
+     *
+     * <p>
+     * Once the limit is reached, no further output is rendered for the message, and a marker such as
+     * {@code "...[truncated 48211 chars]"} is appended. The limit applies to the message text only, and not to the
+     * line prefix or the stack trace of a logged exception. By default, messages are not limited.
+     *
+     * @param maxChars The maximum number of characters output for each message.
+     * @return This builder.
+     */
+    public Builder withMaxMessageLength(int maxChars) {
+      if (maxChars <= 0) {
+        throw new IllegalArgumentException("Max message length must be positive");
+      }
+      this.maxMessageLength = maxChars;
+      return this;
+    }
+
+    /**
+     * Limit the number of characters output for each argument of a pattern format log message.
+     *
+     * <p>
+     * Once the limit is reached, no further output is rendered for the argument, and a marker such as
+     * {@code "...[truncated 48211 chars]"} is appended. Arrays, collections and maps are rendered element by element,
+     * so elements beyond the limit are never rendered. Arguments of messages written to a binary log file are not
+     * limited, as they are formatted when the log is decoded. By default, arguments are not limited.
+     *
+     * @param maxChars The maximum number of characters output for each argument.
+     * @return This builder.
+     */
+    public Builder withMaxArgumentLength(int maxChars) {
+      if (maxChars <= 0) {
+        throw new IllegalArgumentException("Max argument length must be positive");
+      }
+      this.maxArgumentLength = maxChars;
+      return this;
+    }
+
+    /**
+     * Write each log line as a JSON object, on a single line.
+     *
+     * <p>
+     * Each object has {@code "timestamp"}, {@code "level"}, {@code "logger"} and {@code "message"} fields, for example:
+     *
+     * <pre>
+     * {"timestamp":"2007-12-03 10:15:30.000+0000","level":"INFO","logger":"o.l.Foo","message":"Hello"}
+     * </pre>
+     *
+     * <p>
+     * A logged exception is added as a {@code "throwable"} field, holding an array with an object for the exception and
+     * for each of its causes. Each has the {@code "class"}, {@code "message"} and {@code "frames"} of the exception,
+     * with the number of frames limited by the {@link #withThrowableRenderer(ThrowableRenderer) throwable renderer}.
+     * Messages are escaped as they are rendered into the line, so are not copied into an intermediate string.
+     *
+     * @return This builder.
+     */
+    public Builder asJsonLines() {
+      this.jsonLines = true;
+      return this;
+    }
+
     /**
      * Use the specified supplier for timestamps.
      *
@@ -146,7 +400,7 @@ public final class SimpleLogger {
      */
     public Builder usingCurrentTimeSupplier(Supplier<Instant> currentTimeSupplier) {
       requireNonNull(currentTimeSupplier);
-      this.currentTimeSupplier = currentTimeSupplier;
+      this.clock = () -> currentTimeSupplier.get().toEpochMilli();
       return this;
     }
 
@@ -160,6 +414,29 @@ public final class SimpleLogger {
       return this;
     }
 
+    /**
+     * Write log lines asynchronously.
+     *
+     * <p>
+     * Log lines will be queued in a fixed size ring buffer, and formatted and written to the output by a dedicated
+     * writer thread. If the buffer is full, logging will block until the writer thread has caught up. As formatting is
+     * deferred, all arguments to log messages should remain constant after they are logged.
+     *
+     * <p>
+     * The provider should be closed when it is no longer required, which will write any queued log lines and stop the
+     * writer thread.
+     *
+     * @param capacity The maximum number of log lines that may be queued for writing.
+     * @return This builder.
+     */
+    public Builder async(int capacity) {
+      if (capacity <= 0) {
+        throw new IllegalArgumentException("Async capacity must be positive");
+      }
+      this.asyncCapacity = capacity;
+      return this;
+    }
+
     /**
      * Create a simple {@link AdjustableLoggerProvider} instance that writes logs to the supplied {@link PrintWriter}.
      *
@@ -179,23 +456,90 @@ public final class SimpleLogger {
      */
     public AdjustableLoggerProvider toPrintWriter(Supplier<PrintWriter> writerSupplier) {
       requireNonNull(writerSupplier);
-      return new Provider(this, writerSupplier);
+      return new Provider(this, writerSupplier, null, null);
+    }
+
+    /**
+     * Create a simple {@link AdjustableLoggerProvider} instance that writes logs to a file.
+     *
+     * <p>
+     * The file is created if it does not exist, or truncated if it does. Log lines are encoded and written using a
+     * {@link FileChannelSink}, and the file is closed when the provider is closed.
+     *
+     * @param file The file to output log lines to.
+     * @return A {@link AdjustableLoggerProvider} that provides {@link Logger} instances using a common log format.
+     * @throws IOException If the file could not be opened for writing.
+     */
+    public AdjustableLoggerProvider toFile(Path file) throws IOException {
+      requireNonNull(file);
+      PrintWriter writer = new PrintWriter(FileChannelSink.open(file), false);
+      return new Provider(this, () -> writer, writer, null);
+    }
+
+    /**
+     * Create a simple {@link AdjustableLoggerProvider} instance that writes logs to a file in a compact binary format.
+     *
+     * <p>
+     * The file is created if it does not exist, or truncated if it does, and is closed when the provider is closed.
+     * Rather than formatting each log line, the logger name, message pattern and raw arguments of each event are
+     * recorded, and the file can later be decoded to the common log format using {@link BinaryLogDecoder} or the
+     * {@code logl-decoder} tool. Events logged using the pattern methods with up to four arguments are recorded without
+     * formatting their pattern or any integral, double or string arguments. All other messages, and the stack traces of
+     * any exceptions, are formatted when they are logged.
+     *
+     * @param file The file to output log events to.
+     * @return A {@link AdjustableLoggerProvider} that provides {@link Logger} instances that write binary log events.
+     * @throws IOException If the file could not be opened for writing.
+     */
+    public AdjustableLoggerProvider toBinaryFile(Path file) throws IOException {
+      requireNonNull(file);
+      return new Provider(this, null, null, BinaryLogSink.open(file, zone));
     }
   }
 
   private static class Provider implements AdjustableLoggerProvider {
     private final Builder builder;
     private final Supplier<PrintWriter> writerSupplier;
+    private final PrintWriter ownedWriter;
+    private final BinaryLogSink binarySink;
+    private final AsyncLogQueue queue;
     private final ConcurrentHashMap<String, SimpleLoggerImpl> loggers = new ConcurrentHashMap<>();
 
-    private Provider(Builder builder, Supplier<PrintWriter> writerSupplier) {
+    private Provider(
+        Builder builder,
+        Supplier<PrintWriter> writerSupplier,
+        PrintWriter ownedWriter,
+        BinaryLogSink binarySink) {
       this.builder = builder;
       this.writerSupplier = writerSupplier;
+      this.ownedWriter = ownedWriter;
+      this.binarySink = binarySink;
+      int asyncCapacity = builder.asyncCapacity;
+      if (asyncCapacity <= 0) {
+        this.queue = null;
+      } else if (binarySink != null) {
+        this.queue = new AsyncLogQueue(asyncCapacity, binarySink::flush, builder.autoFlush);
+      } else {
+        this.queue = new AsyncLogQueue(asyncCapacity, () -> writerSupplier.get().flush(), builder.autoFlush);
+      }
     }
 
     @Override
     public AdjustableLogger getLogger(String name) {
-      return loggers.computeIfAbsent(name, n -> new SimpleLoggerImpl(n, builder, writerSupplier));
+      return loggers.computeIfAbsent(name, n -> new SimpleLoggerImpl(n, builder, writerSupplier, binarySink, queue));
+    }
+
+    @Override
+    public void close() {
+      if (queue != null) {
+        queue.close();
+      }
+      if (ownedWriter != null) {
+        ownedWriter.close();
+      }
+      if (binarySink != null) {
+        binarySink.close();
+      }
     }
   }
 }
@@ -4,47 +4,72 @@ import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.time.Instant;
-import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
+import org.logl.Layout.LineFormat;
 import org.logl.SimpleLogWriter.BatchLogWriter;
 import org.logl.SimpleLogger.Builder;
 
 final class SimpleLoggerImpl implements AdjustableLogger {
 
-  private final String name;
   private final AtomicReference<Level> level;
-  private final Supplier<Instant> currentTimeSupplier;
-  private final ZoneId zone;
+  private final LongSupplier clock;
+  private final DateFormatter dateFormatter;
+  private final ThrowableRenderer throwableRenderer;
+  private final boolean jsonLines;
+  private final int maxMessageLength;
+  private final int maxArgumentLength;
   private final Locale locale;
   private final boolean autoFlush;
   private final Supplier<PrintWriter> writerSupplier;
+  private final BinaryLogSink binarySink;
+  private final String binaryName;
+  private final AsyncLogQueue queue;
 
   private final SimpleLogWriter errorWriter;
   private final SimpleLogWriter warnWriter;
   private final SimpleLogWriter infoWriter;
   private final SimpleLogWriter debugWriter;
-
-  SimpleLoggerImpl(String name, Builder builder, Supplier<PrintWriter> writerSupplier) {
-    this.name = NameAbbreviator.forPattern("1.").abbreviate(name);
+  private final ThreadLocal<Batch> reusableBatch = ThreadLocal.withInitial(Batch::new);
+
+  SimpleLoggerImpl(
+      String name,
+      Builder builder,
+      Supplier<PrintWriter> writerSupplier,
+      BinaryLogSink binarySink,
+      AsyncLogQueue queue) {
     this.level = new AtomicReference<>(builder.level);
-    this.currentTimeSupplier = builder.currentTimeSupplier;
-    this.zone = builder.zone;
+    this.clock = builder.clock;
+    this.dateFormatter = DateFormatter.forZone(builder.zone);
+    this.throwableRenderer = builder.throwableRenderer;
+    this.jsonLines = builder.jsonLines;
+    this.maxMessageLength = builder.maxMessageLength;
+    this.maxArgumentLength = builder.maxArgumentLength;
     this.locale = builder.locale;
     this.autoFlush = builder.autoFlush;
     this.writerSupplier = writerSupplier;
+    this.binarySink = binarySink;
+    this.queue = queue;
+
+    String abbreviatedName = builder.nameAbbreviator.abbreviate(name);
+    this.binaryName = abbreviatedName;
+    this.errorWriter = newWriter(Level.ERROR, name, abbreviatedName, builder);
+    this.warnWriter = newWriter(Level.WARN, name, abbreviatedName, builder);
+    this.infoWriter = newWriter(Level.INFO, name, abbreviatedName, builder);
+    this.debugWriter = newWriter(Level.DEBUG, name, abbreviatedName, builder);
+  }
 
-    this.errorWriter = new SimpleLogWriter(Level.ERROR, this, currentTimeSupplier);
-    this.warnWriter = new SimpleLogWriter(Level.WARN, this, currentTimeSupplier);
-    this.infoWriter = new SimpleLogWriter(Level.INFO, this, currentTimeSupplier);
-    this.debugWriter = new SimpleLogWriter(Level.DEBUG, this, currentTimeSupplier);
+  private SimpleLogWriter newWriter(Level level, String name, String abbreviatedName, Builder builder) {
+    LineFormat lineFormat = builder.layout.bind(level, name, builder.nameAbbreviator, dateFormatter);
+    return new SimpleLogWriter(level, this, lineFormat, abbreviatedName);
   }
 
   @Override
@@ -88,30 +113,33 @@ final class SimpleLoggerImpl implements AdjustableLogger {
     if (!isEnabled(level)) {
       return;
     }
-    Instant now = currentTimeSupplier.get();
-    PrintWriter out;
-    synchronized (this) {
-      out = writerSupplier.get();
-      writePrefix(out, now, level);
-      writeMessage(out, message);
-      out.println();
+    long now = clock.getAsLong();
+    if (queue != null && queue.publish(this, now, level, message, null, null, null, null, Thread.currentThread())) {
+      return;
     }
+    write(now, level, message, null, Thread.currentThread());
   }
 
-  void log(Level level, CharSequence message) {
-    if (!isEnabled(level)) {
-      return;
-    }
-    Instant now = currentTimeSupplier.get();
-    PrintWriter out;
-    synchronized (this) {
-      out = writerSupplier.get();
-      writePrefix(out, now, level);
-      out.print(message);
-      out.println();
+  void log(Level level, PatternMessage message) {
+    try {
+      if (!isEnabled(level)) {
+        return;
+      }
+      long now = clock.getAsLong();
+      if (queue != null
+          && queue.publish(this, now, level, message.copy(), null, null, null, null, Thread.currentThread())) {
+        return;
+      }
+      write(now, level, message, null, Thread.currentThread());
+    } finally {
+      message.release();
     }
   }
 
+  void log(Level level, CharSequence message) {
+    log(level, message, null);
+  }
+
   void log(Level level, LogMessage message, Throwable cause) {
     if (cause == null) {
       log(level, message);
@@ -120,110 +148,453 @@ final class SimpleLoggerImpl implements AdjustableLogger {
     if (!isEnabled(level)) {
       return;
     }
-    Instant now = currentTimeSupplier.get();
-    PrintWriter out;
-    synchronized (this) {
-      out = writerSupplier.get();
-      writePrefix(out, now, level);
-      writeMessage(out, message);
-      out.println();
-      cause.printStackTrace(out);
+    long now = clock.getAsLong();
+    if (queue != null && queue.publish(this, now, level, message, null, null, null, cause, Thread.currentThread())) {
+      return;
     }
+    write(now, level, message, cause, Thread.currentThread());
   }
 
   void log(Level level, CharSequence message, Throwable cause) {
-    if (cause == null) {
-      log(level, message);
-      return;
-    }
     if (!isEnabled(level)) {
       return;
     }
-    Instant now = currentTimeSupplier.get();
-    PrintWriter out;
-    synchronized (this) {
-      out = writerSupplier.get();
-      writePrefix(out, now, level);
-      out.print(message);
-      out.println();
-      cause.printStackTrace(out);
+    long now = clock.getAsLong();
+    if (queue != null) {
+      // the sequence may be mutable, so capture its content before handing it to the writer thread
+      String text = message.toString();
+      if (queue.publish(this, now, level, null, text, null, null, cause, Thread.currentThread())) {
+        return;
+      }
     }
+    write(now, level, message, cause, Thread.currentThread());
   }
 
   void logf(Level level, String format, Object... args) {
     if (!isEnabled(level)) {
       return;
     }
-    Instant now = currentTimeSupplier.get();
-    PrintWriter out;
-    synchronized (this) {
-      out = writerSupplier.get();
-      writePrefix(out, now, level);
-      out.printf(format, args);
-      out.println();
+    long now = clock.getAsLong();
+    if (queue != null && queue.publish(this, now, level, null, null, format, args, null, Thread.currentThread())) {
+      return;
+    }
+    writef(now, level, format, args, Thread.currentThread());
+  }
+
+  void write(long now, Level level, LogMessage message, Throwable cause, Thread thread) {
+    if (binarySink != null) {
+      writeBinary(now, level, message, cause);
+      flushBinary();
+      return;
+    }
+    LineBuffer line = LineBuffer.acquire();
+    try {
+      render(line, now, level, message, cause, thread);
+      writeLines(line);
+    } finally {
+      line.release();
     }
   }
 
-  void writeEvents(Collection<SimpleLogEvent> logEvents) {
-    if (logEvents.isEmpty()) {
+  void write(long now, Level level, CharSequence message, Throwable cause, Thread thread) {
+    if (binarySink != null) {
+      writeBinary(now, level, message, cause);
+      flushBinary();
       return;
     }
+    LineBuffer line = LineBuffer.acquire();
+    try {
+      render(line, now, level, message, cause, thread);
+      writeLines(line);
+    } finally {
+      line.release();
+    }
+  }
+
+  void writef(long now, Level level, String format, Object[] args, Thread thread) {
+    LineBuffer line = LineBuffer.acquire();
+    try {
+      if (binarySink != null) {
+        writeMessage(line, format, args);
+        binarySink.write(binaryName, now, level, line, null);
+        flushBinary();
+        return;
+      }
+      if (jsonLines) {
+        int messageStart = beginJsonLine(line, now, level);
+        writeMessage(line, format, args);
+        endJsonLine(line, messageStart, null);
+      } else {
+        LineFormat lineFormat = levelWriter(level).lineFormat();
+        lineFormat.writeStart(line, now, thread);
+        writeMessage(line, format, args);
+        lineFormat.writeEnd(line, now, thread);
+      }
+      writeLines(line);
+    } finally {
+      line.release();
+    }
+  }
+
+  // write a line in place of an event that could not be written, so that the event is not silently lost
+  void writeFailure(long now, Level level, RuntimeException failure, Thread thread) {
+    write(now, level, "[FAILED to write log event: " + failure + "]", null, thread);
+  }
+
+  void writeEvents(Collection<SimpleLogEvent> logEvents, Thread thread) {
     Level currentLevel = this.level.get();
-    PrintWriter out;
-    synchronized (this) {
-      out = writerSupplier.get();
+    if (binarySink != null) {
       for (SimpleLogEvent logEvent : logEvents) {
         Level level = logEvent.level();
         if (level.compareTo(currentLevel) > 0) {
           continue;
         }
-
-        writePrefix(out, logEvent.time(), level);
-
         LogMessage message = logEvent.message();
         if (message != null) {
-          writeMessage(out, message);
+          writeBinary(logEvent.time(), level, message, logEvent.cause());
         } else {
-          out.print(logEvent.formattedMessage(locale));
+          writeBinary(logEvent.time(), level, logEvent.formattedMessage(locale), logEvent.cause());
+        }
+      }
+      flushBinary();
+      return;
+    }
+    LineBuffer lines = LineBuffer.acquire();
+    try {
+      for (SimpleLogEvent logEvent : logEvents) {
+        Level level = logEvent.level();
+        if (level.compareTo(currentLevel) > 0) {
+          continue;
         }
-        out.println();
 
-        Throwable cause = logEvent.cause();
-        if (cause != null) {
-          cause.printStackTrace(out);
+        LogMessage message = logEvent.message();
+        if (message != null) {
+          render(lines, logEvent.time(), level, message, logEvent.cause(), thread);
+        } else {
+          render(lines, logEvent.time(), level, logEvent.formattedMessage(locale), logEvent.cause(), thread);
         }
       }
+      writeLines(lines);
+    } finally {
+      lines.release();
     }
-    if (autoFlush) {
+  }
+
+  // a pattern message is written with its arguments unformatted, and any other message is formatted now
+  private void writeBinary(long now, Level level, LogMessage message, Throwable cause) {
+    LineBuffer stackTrace = renderStackTrace(now, cause);
+    try {
+      if (message instanceof PatternMessage) {
+        binarySink.write(binaryName, now, level, (PatternMessage) message, locale, stackTrace);
+        return;
+      }
+      LineBuffer text = LineBuffer.acquire();
+      try {
+        writeMessage(text, message);
+        binarySink.write(binaryName, now, level, text, stackTrace);
+      } finally {
+        text.release();
+      }
+    } finally {
+      if (stackTrace != null) {
+        stackTrace.release();
+      }
+    }
+  }
+
+  private void writeBinary(long now, Level level, CharSequence message, Throwable cause) {
+    LineBuffer stackTrace = renderStackTrace(now, cause);
+    try {
+      binarySink.write(binaryName, now, level, message, stackTrace);
+    } finally {
+      if (stackTrace != null) {
+        stackTrace.release();
+      }
+    }
+  }
+
+  private void flushBinary() {
+    // the async writer thread flushes once it has drained the queue
+    if (autoFlush && (queue == null || !queue.isWriterThread())) {
+      binarySink.flush();
+    }
+  }
+
+  private LineBuffer renderStackTrace(long now, Throwable cause) {
+    if (cause == null) {
+      return null;
+    }
+    LineBuffer stackTrace = LineBuffer.acquire();
+    throwableRenderer.render(cause, now, stackTrace);
+    return stackTrace;
+  }
+
+  private void writeLines(LineBuffer lines) {
+    if (lines.length() == 0) {
+      return;
+    }
+    PrintWriter out = writeLine(lines);
+    // the async writer thread flushes once it has drained the queue
+    if (autoFlush && (queue == null || !queue.isWriterThread())) {
       out.flush();
     }
   }
 
-  private void writePrefix(PrintWriter out, Instant now, Level level) {
-    DateFormatter.formatTo(now.atZone(zone), out);
-    String lname = level.name();
-    out.write("  ", 0, 6 - lname.length());
-    out.write(lname);
-    out.write(" [");
-    out.write(name);
-    out.write("] ");
+  private void render(LineBuffer out, long now, Level level, LogMessage message, Throwable cause, Thread thread) {
+    if (jsonLines) {
+      int messageStart = beginJsonLine(out, now, level);
+      writeMessage(out, message);
+      endJsonLine(out, messageStart, cause);
+      return;
+    }
+    LineFormat lineFormat = levelWriter(level).lineFormat();
+    lineFormat.writeStart(out, now, thread);
+    writeMessage(out, message);
+    lineFormat.writeEnd(out, now, thread);
+    if (cause != null) {
+      throwableRenderer.render(cause, now, out);
+    }
   }
 
-  private void writeMessage(PrintWriter out, LogMessage message) {
+  private void render(LineBuffer out, long now, Level level, CharSequence message, Throwable cause, Thread thread) {
+    if (jsonLines) {
+      int messageStart = beginJsonLine(out, now, level);
+      writeMessage(out, message);
+      endJsonLine(out, messageStart, cause);
+      return;
+    }
+    LineFormat lineFormat = levelWriter(level).lineFormat();
+    lineFormat.writeStart(out, now, thread);
+    writeMessage(out, message);
+    lineFormat.writeEnd(out, now, thread);
+    if (cause != null) {
+      throwableRenderer.render(cause, now, out);
+    }
+  }
+
+  private PrintWriter writeLine(LineBuffer line) {
+    PrintWriter out;
+    synchronized (this) {
+      out = writerSupplier.get();
+      line.writeTo(out);
+    }
+    return out;
+  }
+
+  // write the fields preceding the message, returning the offset at which the message starts
+  private int beginJsonLine(LineBuffer out, long now, Level level) {
+    out.write("{\"timestamp\":\"");
+    dateFormatter.formatTo(now, out);
+    out.write(levelWriter(level).jsonLinePrefix());
+    return out.length();
+  }
+
+  // escape the message that was rendered in place, and write the remaining fields
+  private void endJsonLine(LineBuffer out, int messageStart, Throwable cause) {
+    out.escapeJson(messageStart);
+    out.append('"');
+    if (cause != null) {
+      out.write(",\"throwable\":");
+      throwableRenderer.renderJson(cause, out);
+    }
+    out.append('}');
+    out.newLine();
+  }
+
+  private SimpleLogWriter levelWriter(Level level) {
+    switch (level) {
+      case ERROR:
+        return errorWriter;
+      case WARN:
+        return warnWriter;
+      case INFO:
+        return infoWriter;
+      case DEBUG:
+        return debugWriter;
+      default:
+        throw new IllegalArgumentException("No writer for level " + level);
+    }
+  }
+
+  private void writeMessage(LineBuffer out, LogMessage message) {
+    out.beginMessage(maxMessageLength, maxArgumentLength);
     try {
       message.appendTo(locale, out);
     } catch (IOException ex) {
-      // PrintWriter does not throw this exception
+      // LineBuffer does not throw this exception
       throw new RuntimeException("unexpected exception", ex);
     }
+    out.endMessage();
+  }
+
+  private void writeMessage(LineBuffer out, CharSequence message) {
+    out.beginMessage(maxMessageLength, maxArgumentLength);
+    out.append(message);
+    out.endMessage();
+  }
+
+  private void writeMessage(LineBuffer out, String format, Object[] args) {
+    out.beginMessage(maxMessageLength, maxArgumentLength);
+    out.printf(format, args);
+    out.endMessage();
   }
 
   @Override
   public void batch(Consumer<Logger> fn) {
     requireNonNull(fn);
-    List<SimpleLogEvent> events = new ArrayList<>(32);
-    fn.accept(new BatchLogger(events::add));
-    writeEvents(events);
+    Batch batch = beginBatch();
+    try {
+      fn.accept(batch.logger);
+      writeBatch(batch);
+    } finally {
+      releaseBatch(batch);
+    }
+  }
+
+  void batch(Level level, Consumer<LogWriter> fn) {
+    Batch batch = beginBatch();
+    try {
+      fn.accept(batch.logger.writer(level));
+      writeBatch(batch);
+    } finally {
+      releaseBatch(batch);
+    }
+  }
+
+  private Batch beginBatch() {
+    Batch batch = reusableBatch.get();
+    if (batch.inUse) {
+      // a batch is already in progress for this logger on this thread
+      batch = new Batch();
+    }
+    batch.inUse = true;
+    if (queue != null || binarySink != null) {
+      batch.events = new ArrayList<>(32);
+    } else {
+      batch.lines = LineBuffer.acquire();
+    }
+    return batch;
+  }
+
+  private void writeBatch(Batch batch) {
+    if (batch.events == null) {
+      batch.finishLines();
+      writeLines(batch.lines);
+    } else if (!batch.events.isEmpty()
+        && (queue == null || !queue.publish(this, batch.events, Thread.currentThread()))) {
+      writeEvents(batch.events, Thread.currentThread());
+    }
+  }
+
+  private void releaseBatch(Batch batch) {
+    if (batch.lines != null) {
+      batch.lines.release();
+    }
+    batch.clearDeferredLines();
+    batch.events = null;
+    batch.lines = null;
+    batch.lineCount = 0;
+    batch.inUse = false;
+  }
+
+  /**
+   * The lines logged within a batch.
+   *
+   * <p>
+   * When writing synchronously, each line is rendered as it is logged and a thread reuses the same batch for every
+   * call, so batching does not allocate. A message logged at a level that is disabled is kept instead, and is only
+   * rendered if its level is enabled when the batch ends. When writing asynchronously or in binary, the lines are
+   * collected as events for the writer thread or the binary sink.
+   */
+  final class Batch {
+    final BatchLogger logger = new BatchLogger(this);
+    private List<SimpleLogEvent> events;
+    private LineBuffer lines;
+    // the start offset and level of each line rendered into the buffer
+    private int[] lineStarts = new int[16];
+    private Level[] lineLevels = new Level[16];
+    // the lines logged while their level was disabled, which are only rendered if it is enabled when the batch ends
+    private SimpleLogEvent[] deferredLines = new SimpleLogEvent[16];
+    private boolean hasDeferredLines = false;
+    private int lineCount = 0;
+    private boolean inUse = false;
+
+    private void startLine(Level level) {
+      if (lineCount == lineStarts.length) {
+        lineStarts = Arrays.copyOf(lineStarts, lineCount * 2);
+        lineLevels = Arrays.copyOf(lineLevels, lineCount * 2);
+        deferredLines = Arrays.copyOf(deferredLines, lineCount * 2);
+      }
+      lineStarts[lineCount] = lines.length();
+      lineLevels[lineCount] = level;
+      lineCount++;
+    }
+
+    private void deferLine(SimpleLogEvent event) {
+      startLine(event.level());
+      deferredLines[lineCount - 1] = event;
+      hasDeferredLines = true;
+    }
+
+    // remove lines that are not enabled at the current level, which may have changed since they were logged, and
+    // render deferred lines that are now enabled in their place
+    private void finishLines() {
+      Level currentLevel = level.get();
+      for (int i = lineCount - 1; i >= 0; --i) {
+        if (lineLevels[i].compareTo(currentLevel) > 0) {
+          int end = (i + 1 < lineCount) ? lineStarts[i + 1] : lines.length();
+          lines.delete(lineStarts[i], end);
+        } else if (deferredLines[i] != null) {
+          SimpleLogEvent event = deferredLines[i];
+          int start = lines.length();
+          render(lines, event.time(), event.level(), event.message(), event.cause(), Thread.currentThread());
+          lines.moveTo(start, lineStarts[i]);
+        }
+      }
+    }
+
+    private void clearDeferredLines() {
+      if (hasDeferredLines) {
+        Arrays.fill(deferredLines, 0, lineCount, null);
+        hasDeferredLines = false;
+      }
+    }
+
+    void add(Level level, LogMessage message, Throwable cause) {
+      long now = clock.getAsLong();
+      if (events != null) {
+        events.add(new SimpleLogEvent(now, level, message, cause));
+      } else if (!isEnabled(level)) {
+        // the level may change before the batch ends, so keep the message to render then if it is enabled
+        deferLine(new SimpleLogEvent(now, level, message, cause));
+      } else {
+        startLine(level);
+        render(lines, now, level, message, cause, Thread.currentThread());
+      }
+    }
+
+    void add(Level level, CharSequence message, Throwable cause) {
+      long now = clock.getAsLong();
+      if (events != null) {
+        // the sequence may be mutable, so capture its content as it is only written once the batch ends
+        events.add(new SimpleLogEvent(now, level, message.toString(), cause));
+      } else {
+        startLine(level);
+        render(lines, now, level, message, cause, Thread.currentThread());
+      }
+    }
+
+    void add(Level level, PatternMessage message) {
+      try {
+        if (events != null || !isEnabled(level)) {
+          add(level, message.copy(), null);
+        } else {
+          add(level, message, null);
+        }
+      } finally {
+        message.release();
+      }
+    }
   }
 
   final class BatchLogger implements Logger {
@@ -232,15 +603,11 @@ final class SimpleLoggerImpl implements AdjustableLogger {
     private final LogWriter infoWriter;
     private final LogWriter debugWriter;
 
-    BatchLogger(Consumer<SimpleLogEvent> eventConsumer) {
-      this.errorWriter = isEnabled(Level.ERROR) ? new BatchLogWriter(Level.ERROR, currentTimeSupplier, eventConsumer)
-          : NullLogWriter.instance();
-      this.warnWriter = isEnabled(Level.WARN) ? new BatchLogWriter(Level.WARN, currentTimeSupplier, eventConsumer)
-          : NullLogWriter.instance();
-      this.infoWriter = isEnabled(Level.INFO) ? new BatchLogWriter(Level.INFO, currentTimeSupplier, eventConsumer)
-          : NullLogWriter.instance();
-      this.debugWriter = isEnabled(Level.DEBUG) ? new BatchLogWriter(Level.DEBUG, currentTimeSupplier, eventConsumer)
-          : NullLogWriter.instance();
+    BatchLogger(Batch batch) {
+      this.errorWriter = new BatchLogWriter(Level.ERROR, batch);
+      this.warnWriter = new BatchLogWriter(Level.WARN, batch);
+      this.infoWriter = new BatchLogWriter(Level.INFO, batch);
+      this.debugWriter = new BatchLogWriter(Level.DEBUG, batch);
     }
 
     @Override
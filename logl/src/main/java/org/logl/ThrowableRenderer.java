@@ -0,0 +1,310 @@
+package org.logl;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders the stack traces of exceptions that are logged.
+ *
+ * <p>
+ * The standard renderer produces the same output as {@link Throwable#printStackTrace()}, but caches the rendered form
+ * of each stack frame so that deep stacks are not re-stringified on every error. Renderers may also cap the number of
+ * frames output for each exception in a chain, and collapse repeats of an identical stack trace into a single line
+ * that references the first occurrence.
+ */
+public final class ThrowableRenderer {
+  private static final String CAUSE_CAPTION = "Caused by: ";
+  private static final String SUPPRESSED_CAPTION = "Suppressed: ";
+  private static final int MAX_CACHED_FRAMES = 8192;
+  private static final int MAX_FINGERPRINTS = 1024;
+  // a cycle of causes is not followed beyond this length when fingerprinting
+  private static final int MAX_FINGERPRINT_CHAIN = 64;
+
+  private static final ConcurrentHashMap<StackTraceElement, String> renderedFrames = new ConcurrentHashMap<>();
+  private static final ThrowableRenderer STANDARD = new ThrowableRenderer(Integer.MAX_VALUE, 0);
+
+  private final int maxDepth;
+  private final long repeatWindowMillis;
+  private final ConcurrentHashMap<Long, Occurrence> occurrences;
+
+  /**
+   * @return A renderer that outputs complete stack traces, in the same format as {@link Throwable#printStackTrace()}.
+   */
+  public static ThrowableRenderer standard() {
+    return STANDARD;
+  }
+
+  private ThrowableRenderer(int maxDepth, long repeatWindowMillis) {
+    this.maxDepth = maxDepth;
+    this.repeatWindowMillis = repeatWindowMillis;
+    this.occurrences = (repeatWindowMillis > 0) ? new ConcurrentHashMap<>() : null;
+  }
+
+  /**
+   * Create a renderer that outputs at most the specified number of frames for each exception in a chain.
+   *
+   * <p>
+   * Frames that are in common with an enclosing exception are collapsed, as for the standard renderer, before the limit
+   * is applied.
+   *
+   * @param maxDepth The maximum number of frames to output for each exception.
+   * @return A new renderer.
+   */
+  public ThrowableRenderer withMaxDepth(int maxDepth) {
+    if (maxDepth <= 0) {
+      throw new IllegalArgumentException("Max depth must be positive");
+    }
+    return new ThrowableRenderer(maxDepth, repeatWindowMillis);
+  }
+
+  /**
+   * Create a renderer that collapses repeats of an identical stack trace within a window of time.
+   *
+   * <p>
+   * Stack traces are identified by a fingerprint of the exception types and stack frames of the exception and its
+   * causes, ignoring their messages. The first occurrence of a stack trace is rendered in full, followed by a line
+   * containing its fingerprint. Further occurrences within the window are rendered as a single line containing the
+   * exception, its fingerprint and the number of repeats. Once the window has passed since the stack trace was last
+   * rendered in full, it will be rendered in full again.
+   *
+   * @param window The window of time within which repeated stack traces are collapsed.
+   * @return A new renderer.
+   */
+  public ThrowableRenderer withRepeatWindow(Duration window) {
+    if (window.isNegative() || window.isZero()) {
+      throw new IllegalArgumentException("Repeat window must be positive");
+    }
+    return new ThrowableRenderer(maxDepth, window.toMillis());
+  }
+
+  /**
+   * Render an exception.
+   *
+   * @param throwable The exception to render.
+   * @param now The current time, in milliseconds since the epoch.
+   * @param out The buffer to render into.
+   */
+  void render(Throwable throwable, long now, LineBuffer out) {
+    if (occurrences == null) {
+      renderTrace(throwable, out);
+      return;
+    }
+
+    long fingerprint = fingerprint(throwable);
+    Occurrence occurrence = occurrences.get(fingerprint);
+    if (occurrence != null && now - occurrence.renderedAt < repeatWindowMillis) {
+      int repeats = occurrence.repeats.incrementAndGet();
+      out.append(String.valueOf(throwable));
+      out.append(" [stack trace ");
+      appendFingerprint(fingerprint, out);
+      out.append(", repeated ");
+      out.append(Integer.toString(repeats));
+      out.append(repeats == 1 ? " time]" : " times]");
+      out.newLine();
+      return;
+    }
+
+    if (occurrences.size() >= MAX_FINGERPRINTS) {
+      occurrences.clear();
+    }
+    occurrences.put(fingerprint, new Occurrence(now));
+    renderTrace(throwable, out);
+    out.append("\t[stack trace ");
+    appendFingerprint(fingerprint, out);
+    out.append(']');
+    out.newLine();
+  }
+
+  /**
+   * Render an exception as a JSON array, containing an object for the exception and for each of its causes.
+   *
+   * <p>
+   * Each object has the exception {@code "class"}, its {@code "message"} (if any) and its {@code "frames"}, limited to
+   * the maximum depth with the count of any further frames in {@code "omittedFrames"}. Suppressed exceptions are
+   * rendered as nested arrays within a {@code "suppressed"} array. Repeats are not collapsed.
+   *
+   * @param throwable The exception to render.
+   * @param out The buffer to render into.
+   */
+  void renderJson(Throwable throwable, LineBuffer out) {
+    Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    renderJsonChain(throwable, seen, out);
+  }
+
+  private void renderJsonChain(Throwable throwable, Set<Throwable> seen, LineBuffer out) {
+    out.append('[');
+    for (Throwable t = throwable; t != null && seen.add(t); t = t.getCause()) {
+      if (t != throwable) {
+        out.append(',');
+      }
+      out.append("{\"class\":\"");
+      out.append(t.getClass().getName());
+      out.append('"');
+      String message = t.getMessage();
+      if (message != null) {
+        out.append(",\"message\":\"");
+        out.appendJsonEscaped(message, 0, message.length());
+        out.append('"');
+      }
+      out.append(",\"frames\":[");
+      StackTraceElement[] trace = t.getStackTrace();
+      int end = Math.min(trace.length, maxDepth);
+      for (int i = 0; i < end; ++i) {
+        if (i != 0) {
+          out.append(',');
+        }
+        // reuse the rendered frame, without its "\tat " prefix
+        String frame = renderFrame(trace[i]);
+        out.append('"');
+        out.appendJsonEscaped(frame, 4, frame.length());
+        out.append('"');
+      }
+      out.append(']');
+      if (end < trace.length) {
+        out.append(",\"omittedFrames\":");
+        out.append(Integer.toString(trace.length - end));
+      }
+      Throwable[] suppressed = t.getSuppressed();
+      if (suppressed.length != 0) {
+        out.append(",\"suppressed\":[");
+        for (int i = 0; i < suppressed.length; ++i) {
+          if (i != 0) {
+            out.append(',');
+          }
+          renderJsonChain(suppressed[i], seen, out);
+        }
+        out.append(']');
+      }
+      out.append('}');
+    }
+    out.append(']');
+  }
+
+  private void renderTrace(Throwable throwable, LineBuffer out) {
+    Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    seen.add(throwable);
+
+    out.append(String.valueOf(throwable));
+    out.newLine();
+    StackTraceElement[] trace = throwable.getStackTrace();
+    renderFrames(trace, trace.length - 1, 0, "", out);
+    for (Throwable suppressed : throwable.getSuppressed()) {
+      renderEnclosed(suppressed, trace, SUPPRESSED_CAPTION, "\t", seen, out);
+    }
+    Throwable cause = throwable.getCause();
+    if (cause != null) {
+      renderEnclosed(cause, trace, CAUSE_CAPTION, "", seen, out);
+    }
+  }
+
+  private void renderEnclosed(
+      Throwable throwable,
+      StackTraceElement[] enclosingTrace,
+      String caption,
+      String prefix,
+      Set<Throwable> seen,
+      LineBuffer out) {
+    if (!seen.add(throwable)) {
+      out.append(prefix);
+      out.append(caption);
+      out.append("[CIRCULAR REFERENCE: ");
+      out.append(String.valueOf(throwable));
+      out.append(']');
+      out.newLine();
+      return;
+    }
+
+    StackTraceElement[] trace = throwable.getStackTrace();
+    int m = trace.length - 1;
+    int n = enclosingTrace.length - 1;
+    while (m >= 0 && n >= 0 && trace[m].equals(enclosingTrace[n])) {
+      m--;
+      n--;
+    }
+
+    out.append(prefix);
+    out.append(caption);
+    out.append(String.valueOf(throwable));
+    out.newLine();
+    renderFrames(trace, m, trace.length - 1 - m, prefix, out);
+    for (Throwable suppressed : throwable.getSuppressed()) {
+      renderEnclosed(suppressed, trace, SUPPRESSED_CAPTION, prefix + "\t", seen, out);
+    }
+    Throwable cause = throwable.getCause();
+    if (cause != null) {
+      renderEnclosed(cause, trace, CAUSE_CAPTION, prefix, seen, out);
+    }
+  }
+
+  // render frames 0 to last (inclusive), followed by the count of frames in common with the enclosing trace
+  private void renderFrames(StackTraceElement[] trace, int last, int framesInCommon, String prefix, LineBuffer out) {
+    int end = Math.min(last, maxDepth - 1);
+    for (int i = 0; i <= end; ++i) {
+      out.append(prefix);
+      out.append(renderFrame(trace[i]));
+      out.newLine();
+    }
+    if (end < last) {
+      out.append(prefix);
+      out.append("\t... ");
+      out.append(Integer.toString(last - end));
+      out.append(" frames omitted");
+      out.newLine();
+    }
+    if (framesInCommon != 0) {
+      out.append(prefix);
+      out.append("\t... ");
+      out.append(Integer.toString(framesInCommon));
+      out.append(" more");
+      out.newLine();
+    }
+  }
+
+  private static String renderFrame(StackTraceElement frame) {
+    String rendered = renderedFrames.get(frame);
+    if (rendered == null) {
+      rendered = "\tat " + frame;
+      if (renderedFrames.size() >= MAX_CACHED_FRAMES) {
+        renderedFrames.clear();
+      }
+      renderedFrames.put(frame, rendered);
+    }
+    return rendered;
+  }
+
+  private static long fingerprint(Throwable throwable) {
+    long hash = 0xcbf29ce484222325L;
+    Throwable t = throwable;
+    for (int i = 0; t != null && i < MAX_FINGERPRINT_CHAIN; ++i) {
+      hash = mix(hash, t.getClass().getName().hashCode());
+      for (StackTraceElement frame : t.getStackTrace()) {
+        hash = mix(hash, frame.hashCode());
+      }
+      t = t.getCause();
+    }
+    return hash;
+  }
+
+  private static long mix(long hash, int value) {
+    return (hash ^ value) * 0x100000001b3L;
+  }
+
+  private static void appendFingerprint(long fingerprint, LineBuffer out) {
+    for (int shift = 60; shift >= 0; shift -= 4) {
+      out.append(Character.forDigit((int) (fingerprint >>> shift) & 0xf, 16));
+    }
+  }
+
+  private static final class Occurrence {
+    final long renderedAt;
+    final AtomicInteger repeats = new AtomicInteger();
+
+    Occurrence(long renderedAt) {
+      this.renderedAt = renderedAt;
+    }
+  }
+}
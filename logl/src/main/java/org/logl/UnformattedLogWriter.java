@@ -32,101 +32,152 @@ final class UnformattedLogWriter implements LogWriter {
 
   @Override
   public void log(LogMessage message) {
+    log(message, null);
+  }
+
+  @Override
+  public void log(CharSequence message) {
+    log(message, null);
+  }
+
+  @Override
+  public void log(LogMessage message, Throwable cause) {
     requireNonNull(message);
     if (!logger.isEnabled(level)) {
       return;
     }
-    PrintWriter out;
-    synchronized (logger) {
-      out = writerSupplier.get();
+    LineBuffer line = LineBuffer.acquire();
+    try {
+      logger.beginMessage(line);
       try {
-        message.appendTo(locale, out);
+        message.appendTo(locale, line);
       } catch (IOException ex) {
-        // PrintWriter does not throw this exception
+        // LineBuffer does not throw this exception
         throw new RuntimeException("unexpected exception", ex);
       }
-      out.println();
-    }
-    if (autoFlush) {
-      out.flush();
+      line.endMessage();
+      line.newLine();
+      if (cause != null) {
+        logger.renderThrowable(cause, line);
+      }
+      writeLine(line);
+    } finally {
+      line.release();
     }
   }
 
   @Override
-  public void log(CharSequence message) {
+  public void log(CharSequence message, Throwable cause) {
     requireNonNull(message);
     if (!logger.isEnabled(level)) {
       return;
     }
-    PrintWriter out;
-    synchronized (logger) {
-      out = writerSupplier.get();
-      out.println(message);
-    }
-    if (autoFlush) {
-      out.flush();
+    LineBuffer line = LineBuffer.acquire();
+    try {
+      logger.beginMessage(line);
+      line.append(message);
+      line.endMessage();
+      line.newLine();
+      if (cause != null) {
+        logger.renderThrowable(cause, line);
+      }
+      writeLine(line);
+    } finally {
+      line.release();
     }
   }
 
   @Override
-  public void log(LogMessage message, Throwable cause) {
-    if (cause == null) {
-      log(message);
+  public void logf(String format, Object... args) {
+    requireNonNull(format);
+    if (!logger.isEnabled(level)) {
       return;
     }
-    requireNonNull(message);
-    if (!logger.isEnabled(level)) {
+    LineBuffer line = LineBuffer.acquire();
+    try {
+      logger.beginMessage(line);
+      line.printf(format, args);
+      line.endMessage();
+      line.newLine();
+      writeLine(line);
+    } finally {
+      line.release();
+    }
+  }
+
+  @Override
+  public void log(String pattern, Object arg) {
+    requireNonNull(pattern);
+    if (arg instanceof Throwable) {
+      log(pattern, (Throwable) arg);
       return;
     }
-    PrintWriter out;
-    synchronized (logger) {
-      out = writerSupplier.get();
-      try {
-        message.appendTo(locale, out);
-      } catch (IOException ex) {
-        // PrintWriter does not throw this exception
-        throw new RuntimeException("unexpected exception", ex);
-      }
-      out.println();
-      cause.printStackTrace(out);
+    if (logger.isEnabled(level)) {
+      log((l, a) -> MessageFormatter.formatTo(pattern, l, arg, a));
     }
-    if (autoFlush) {
-      out.flush();
+  }
+
+  @Override
+  public void log(String pattern, long arg) {
+    requireNonNull(pattern);
+    if (logger.isEnabled(level)) {
+      log((l, a) -> MessageFormatter.formatTo(pattern, arg, a));
     }
   }
 
   @Override
-  public void log(CharSequence message, Throwable cause) {
-    if (cause == null) {
-      log(message);
-      return;
+  public void log(String pattern, double arg) {
+    requireNonNull(pattern);
+    if (logger.isEnabled(level)) {
+      log((l, a) -> MessageFormatter.formatTo(pattern, arg, a));
     }
-    requireNonNull(message);
-    if (!logger.isEnabled(level)) {
-      return;
+  }
+
+  @Override
+  public void log(String pattern, char arg) {
+    requireNonNull(pattern);
+    if (logger.isEnabled(level)) {
+      log((l, a) -> MessageFormatter.formatTo(pattern, arg, a));
     }
-    PrintWriter out;
-    synchronized (logger) {
-      out = writerSupplier.get();
-      out.println(message);
-      cause.printStackTrace(out);
+  }
+
+  @Override
+  public void log(String pattern, float arg) {
+    requireNonNull(pattern);
+    if (logger.isEnabled(level)) {
+      log((l, a) -> MessageFormatter.formatTo(pattern, arg, a));
     }
-    if (autoFlush) {
-      out.flush();
+  }
+
+  @Override
+  public void log(String pattern, Object arg1, Object arg2) {
+    requireNonNull(pattern);
+    if (logger.isEnabled(level)) {
+      log((l, a) -> MessageFormatter.formatTo(pattern, l, arg1, arg2, a));
     }
   }
 
   @Override
-  public void logf(String format, Object... args) {
-    requireNonNull(format);
-    if (!logger.isEnabled(level)) {
-      return;
+  public void log(String pattern, Object arg1, Object arg2, Object arg3) {
+    requireNonNull(pattern);
+    if (logger.isEnabled(level)) {
+      log((l, a) -> MessageFormatter.formatTo(pattern, l, arg1, arg2, arg3, a));
     }
+  }
+
+  @Override
+  public void log(String pattern, Object arg1, Object arg2, Object arg3, Object arg4) {
+    requireNonNull(pattern);
+    if (logger.isEnabled(level)) {
+      log((l, a) -> MessageFormatter.formatTo(pattern, l, arg1, arg2, arg3, arg4, a));
+    }
+  }
+
+  private void writeLine(LineBuffer line) {
     PrintWriter out;
     synchronized (logger) {
       out = writerSupplier.get();
-      out.printf(format, args);
-      out.println();
+      line.writeTo(out);
     }
     if (autoFlush) {
       out.flush();
@@ -33,6 +33,38 @@ public final class UnformattedLogger {
     return new Builder().withLogLevel(level);
   }
 
+  /**
+   * Start building an unformatted logger that uses the specified renderer for the stack traces of logged exceptions.
+   *
+   * @param renderer The renderer to use for stack traces.
+   * @return A builder for an unformatted logger.
+   */
+  public static Builder withThrowableRenderer(ThrowableRenderer renderer) {
+    return new Builder().withThrowableRenderer(renderer);
+  }
+
+  /**
+   * Start building an unformatted logger that limits the number of characters output for each log message.
+   *
+   * @param maxChars The maximum number of characters output for each log message.
+   * @return A builder for an unformatted logger.
+   * @see Builder#withMaxMessageLength(int)
+   */
+  public static Builder withMaxMessageLength(int maxChars) {
+    return new Builder().withMaxMessageLength(maxChars);
+  }
+
+  /**
+   * Start building an unformatted logger that limits the number of characters output for each message argument.
+   *
+   * @param maxChars The maximum number of characters output for each message argument.
+   * @return A builder for an unformatted logger.
+   * @see Builder#withMaxArgumentLength(int)
+   */
+  public static Builder withMaxArgumentLength(int maxChars) {
+    return new Builder().withMaxArgumentLength(maxChars);
+  }
+
   /**
    * Start building an unformatted logger that does not flush the output after each write.
    *
@@ -69,6 +101,9 @@ public final class UnformattedLogger {
     Locale locale = Locale.getDefault();
     Level level = Level.INFO;
     boolean autoFlush = true;
+    ThrowableRenderer throwableRenderer = ThrowableRenderer.standard();
+    int maxMessageLength = Integer.MAX_VALUE;
+    int maxArgumentLength = Integer.MAX_VALUE;
 
     /**
      * Use the specified locale for message output.
@@ -94,6 +129,59 @@ public final class UnformattedLogger {
       return this;
     }
 
+    /**
+     * Use the specified renderer for the stack traces of logged exceptions.
+     *
+     * <p>
+     * By default, stack traces are output in full, as by {@link Throwable#printStackTrace()}.
+     *
+     * @param renderer The renderer to use for stack traces.
+     * @return This builder.
+     */
+    public Builder withThrowableRenderer(ThrowableRenderer renderer) {
+      requireNonNull(renderer);
+      this.throwableRenderer = renderer;
+      return this;
+    }
+
+    /**
+     * Limit the number of characters output for each log message.
+     *
+     * <p>
+     * Once the limit is reached, no further output is rendered for the message, and a marker such as
+     * {@code "...[truncated 48211 chars]"} is appended. The limit applies to the message text only, and not to the
+     * stack trace of a logged exception. By default, messages are not limited.
+     *
+     * @param maxChars The maximum number of characters output for each message.
+     * @return This builder.
+     */
+    public Builder withMaxMessageLength(int maxChars) {
+      if (maxChars <= 0) {
+        throw new IllegalArgumentException("Max message length must be positive");
+      }
+      this.maxMessageLength = maxChars;
+      return this;
+    }
+
+    /**
+     * Limit the number of characters output for each argument of a pattern format log message.
+     *
+     * <p>
+     * Once the limit is reached, no further output is rendered for the argument, and a marker such as
+     * {@code "...[truncated 48211 chars]"} is appended. Arrays, collections and maps are rendered element by element,
+     * so elements beyond the limit are never rendered. By default, arguments are not limited.
+     *
+     * @param maxChars The maximum number of characters output for each argument.
+     * @return This builder.
+     */
+    public Builder withMaxArgumentLength(int maxChars) {
+      if (maxChars <= 0) {
+        throw new IllegalArgumentException("Max argument length must be positive");
+      }
+      this.maxArgumentLength = maxChars;
+      return this;
+    }
+
     /**
      * Do not flush the output after each write.
      *
@@ -20,6 +20,9 @@ final class UnformattedLoggerImpl implements AdjustableLogger {
   private final Locale locale;
   private final AtomicReference<Level> level;
   private final boolean autoFlush;
+  private final ThrowableRenderer throwableRenderer;
+  private final int maxMessageLength;
+  private final int maxArgumentLength;
   private final Supplier<PrintWriter> writerSupplier;
 
   private final UnformattedLogWriter errorWriter;
@@ -31,6 +34,9 @@ final class UnformattedLoggerImpl implements AdjustableLogger {
     this.locale = builder.locale;
     this.level = new AtomicReference<>(builder.level);
     this.autoFlush = builder.autoFlush;
+    this.throwableRenderer = builder.throwableRenderer;
+    this.maxMessageLength = builder.maxMessageLength;
+    this.maxArgumentLength = builder.maxArgumentLength;
     this.writerSupplier = writerSupplier;
 
     this.errorWriter = new UnformattedLogWriter(Level.ERROR, this, locale, writerSupplier, autoFlush);
@@ -84,38 +90,58 @@ final class UnformattedLoggerImpl implements AdjustableLogger {
     writeEvents(events);
   }
 
+  // limit the length of the message that is about to be appended, which must be followed by LineBuffer.endMessage()
+  void beginMessage(LineBuffer out) {
+    out.beginMessage(maxMessageLength, maxArgumentLength);
+  }
+
+  void renderThrowable(Throwable cause, LineBuffer out) {
+    throwableRenderer.render(cause, System.currentTimeMillis(), out);
+  }
+
   void writeEvents(Collection<UnformattedLogEvent> logEvents) {
     if (logEvents.isEmpty()) {
       return;
     }
     Level currentLevel = this.level.get();
-    PrintWriter out;
-    synchronized (this) {
-      out = writerSupplier.get();
+    LineBuffer lines = LineBuffer.acquire();
+    try {
       for (UnformattedLogEvent logEvent : logEvents) {
         if (logEvent.level().compareTo(currentLevel) > 0) {
           continue;
         }
         LogMessage message = logEvent.message();
+        beginMessage(lines);
         if (message != null) {
           try {
-            message.appendTo(locale, out);
+            message.appendTo(locale, lines);
           } catch (IOException ex) {
-            // PrintWriter does not throw this exception
+            // LineBuffer does not throw this exception
             throw new RuntimeException("unexpected exception", ex);
           }
-          out.println();
         } else {
-          out.println(logEvent.formattedMessage(locale));
+          lines.append(logEvent.formattedMessage(locale));
         }
+        lines.endMessage();
+        lines.newLine();
         Throwable cause = logEvent.cause();
         if (cause != null) {
-          cause.printStackTrace(out);
+          renderThrowable(cause, lines);
         }
       }
-    }
-    if (autoFlush) {
-      out.flush();
+      if (lines.length() == 0) {
+        return;
+      }
+      PrintWriter out;
+      synchronized (this) {
+        out = writerSupplier.get();
+        lines.writeTo(out);
+      }
+      if (autoFlush) {
+        out.flush();
+      }
+    } finally {
+      lines.release();
     }
   }
 
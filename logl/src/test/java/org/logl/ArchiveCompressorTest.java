@@ -0,0 +1,72 @@
+package org.logl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ArchiveCompressorTest {
+
+  private Path source;
+  private Path target;
+
+  @BeforeEach
+  void setup() throws Exception {
+    source = Files.createTempFile(getClass().getName(), ".log");
+    target = source.resolveSibling(source.getFileName() + ".gz");
+  }
+
+  @AfterEach
+  void cleanup() throws Exception {
+    Files.deleteIfExists(source);
+    Files.deleteIfExists(target);
+  }
+
+  @Test
+  void shouldCompressBlocksInParallel() throws Exception {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 10000; ++i) {
+      builder.append("2007-12-03 10:15:30.000+0000  INFO [o.l.ArchiveCompressorTest] line ").append(i).append('\n');
+    }
+    byte[] content = builder.toString().getBytes(UTF_8);
+    Files.write(source, content);
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      new ArchiveCompressor(pool, 4096).compress(source, target);
+    } finally {
+      pool.shutdown();
+    }
+
+    assertThat(Files.size(target)).isLessThan(content.length / 4);
+    assertThat(decompress(target)).isEqualTo(content);
+  }
+
+  @Test
+  void shouldCompressEmptyFile() throws Exception {
+    new ArchiveCompressor(ForkJoinPool.commonPool(), 4096).compress(source, target);
+    assertThat(decompress(target)).isEmpty();
+  }
+
+  private static byte[] decompress(Path file) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+      byte[] buffer = new byte[8192];
+      int n;
+      while ((n = in.read(buffer)) >= 0) {
+        out.write(buffer, 0, n);
+      }
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,166 @@
+package org.logl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BinaryLogDecoderTest {
+
+  private Path file;
+  private Instant now = Instant.parse("2007-12-03T10:15:30.00Z");
+
+  @BeforeEach
+  void setup() throws Exception {
+    file = Files.createTempFile(getClass().getName(), ".bin");
+  }
+
+  @AfterEach
+  void cleanup() throws Exception {
+    Files.deleteIfExists(file);
+  }
+
+  private void logMessages(Logger logger, Exception ex) {
+    logger.info("plain message");
+    now = now.plusMillis(1500);
+    logger.info("{} and {}", 1, "two");
+    logger.info("long {}", Long.MIN_VALUE);
+    logger.info("double {}", 2.5);
+    logger.info("int {}", -42);
+    now = now.minusMillis(200);
+    logger.warn("{} {} {} {} {}", null, 3.25, new int[] {1, 2}, "xé😀", 'c');
+    logger.warn("{} {} {}", 1.5f, true, new StringBuilder("builder"));
+    logger.info("escaped \\{} {} {}", 7);
+    logger.infof("%d-%s", 5, "f");
+    logger.info(LogMessage.messageFormat("{0}", 9));
+    logger.debug("not {}", "output");
+    now = now.plusSeconds(3600 * 24 * 400);
+    logger.error("failed", ex);
+    logger.error("failed {}", ex.getCause());
+    logger.batch(batch -> {
+      batch.info("in batch {}", 1);
+      batch.debug("hidden");
+      batch.warn("batch ☃");
+    });
+  }
+
+  private String decode() throws IOException {
+    StringWriter decoded = new StringWriter();
+    BinaryLogDecoder.decode(file, decoded);
+    return decoded.toString();
+  }
+
+  @Test
+  void shouldDecodeToCommonLogFormat() throws Exception {
+    Instant start = now;
+    // the same exception is logged to both, as the stack traces would otherwise differ
+    Exception ex = new RuntimeException("failed", new IllegalStateException("cause"));
+    StringWriter text = new StringWriter();
+    try (AdjustableLoggerProvider provider = SimpleLogger
+        .withZone(ZoneId.of("America/Toronto"))
+        .usingCurrentTimeSupplier(() -> now)
+        .toPrintWriter(new PrintWriter(text))) {
+      logMessages(provider.getLogger("org.logl.BinaryLogDecoderTest"), ex);
+    }
+
+    now = start;
+    try (AdjustableLoggerProvider provider = SimpleLogger
+        .withZone(ZoneId.of("America/Toronto"))
+        .usingCurrentTimeSupplier(() -> now)
+        .toBinaryFile(file)) {
+      logMessages(provider.getLogger("org.logl.BinaryLogDecoderTest"), ex);
+    }
+
+    assertThat(text.toString()).contains("2007-12-03 05:15:30.000-0500  INFO [o.l.BinaryLogDecoderTest] plain message");
+    assertThat(decode()).isEqualTo(text.toString());
+  }
+
+  @Test
+  void shouldDecodeAsyncOutput() throws Exception {
+    Consumer<Logger> logTwice = logger -> {
+      logger.info("first {}", 1);
+      logger.warn("second {}", "two");
+    };
+    StringWriter text = new StringWriter();
+    try (AdjustableLoggerProvider provider =
+        SimpleLogger.usingCurrentTimeSupplier(() -> now).toPrintWriter(new PrintWriter(text))) {
+      logTwice.accept(provider.getLogger("test"));
+    }
+    try (AdjustableLoggerProvider provider =
+        SimpleLogger.usingCurrentTimeSupplier(() -> now).async(16).toBinaryFile(file)) {
+      logTwice.accept(provider.getLogger("test"));
+    }
+
+    assertThat(decode()).isEqualTo(text.toString());
+  }
+
+  @Test
+  void shouldFlushEachSynchronousWrite() throws Exception {
+    try (AdjustableLoggerProvider provider = SimpleLogger.usingCurrentTimeSupplier(() -> now).toBinaryFile(file)) {
+      Logger logger = provider.getLogger("test");
+      logger.info("first {}", 1);
+      logger.warnf("second %s", "two");
+      // @formatter:off
+      assertThat(decode()).isEqualTo(String.format(
+          "2007-12-03 10:15:30.000+0000  INFO [test] first 1%n" +
+          "2007-12-03 10:15:30.000+0000  WARN [test] second two%n"));
+      // @formatter:on
+    }
+  }
+
+  @Test
+  void shouldDecodeAfterStringTableIsReset() throws Exception {
+    StringWriter text = new StringWriter();
+    Consumer<AdjustableLoggerProvider> logPatterns = provider -> {
+      for (int i = 0; i < 10000; ++i) {
+        provider.getLogger("logger" + (i % 3)).info("pattern " + i + " {}", i);
+      }
+    };
+    try (AdjustableLoggerProvider provider =
+        SimpleLogger.usingCurrentTimeSupplier(() -> now).toPrintWriter(new PrintWriter(text))) {
+      logPatterns.accept(provider);
+    }
+    try (AdjustableLoggerProvider provider = SimpleLogger.usingCurrentTimeSupplier(() -> now).toBinaryFile(file)) {
+      logPatterns.accept(provider);
+    }
+
+    assertThat(decode()).isEqualTo(text.toString());
+  }
+
+  @Test
+  void shouldDecodeCompleteEventsOfTruncatedFile() throws Exception {
+    try (AdjustableLoggerProvider provider = SimpleLogger.usingCurrentTimeSupplier(() -> now).toBinaryFile(file)) {
+      Logger logger = provider.getLogger("test");
+      logger.info("first");
+      logger.info("second {}", 2);
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.truncate(channel.size() - 1);
+    }
+
+    StringWriter decoded = new StringWriter();
+    assertThrows(EOFException.class, () -> BinaryLogDecoder.decode(file, decoded));
+    assertThat(decoded.toString()).isEqualTo(String.format("2007-12-03 10:15:30.000+0000  INFO [test] first%n"));
+  }
+
+  @Test
+  void shouldRejectOtherFiles() throws Exception {
+    Files.write(file, "2007-12-03 10:15:30.000+0000  INFO [test] first".getBytes("UTF-8"));
+    IOException e = assertThrows(IOException.class, this::decode);
+    assertThat(e.getMessage()).isEqualTo("Not a binary log file");
+  }
+}
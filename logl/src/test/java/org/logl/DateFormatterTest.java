@@ -0,0 +1,88 @@
+package org.logl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class DateFormatterTest {
+
+  @ParameterizedTest
+  @MethodSource("timestampsProvider")
+  void shouldFormatTimestamps(ZoneId zone, String instant, String expected) throws Exception {
+    LineBuffer out = new LineBuffer();
+    DateFormatter.forZone(zone).formatTo(Instant.parse(instant).toEpochMilli(), out);
+    assertThat(out.toString()).isEqualTo(expected);
+  }
+
+  private static Stream<Arguments> timestampsProvider() {
+    ZoneId newYork = ZoneId.of("America/New_York");
+    return Stream.of(
+        Arguments.of(ZoneOffset.UTC, "2007-12-03T10:15:30.00Z", "2007-12-03 10:15:30.000+0000"),
+        Arguments.of(ZoneOffset.UTC, "2007-12-03T10:15:30.999Z", "2007-12-03 10:15:30.999+0000"),
+        Arguments.of(ZoneOffset.UTC, "1969-12-31T23:59:59.001Z", "1969-12-31 23:59:59.001+0000"),
+        Arguments.of(ZoneOffset.UTC, "2107-01-01T00:00:00.05Z", "2107-01-01 00:00:00.050+0000"),
+        Arguments.of(ZoneOffset.UTC, "0907-01-01T00:00:00.05Z", " 907-01-01 00:00:00.050+0000"),
+        Arguments.of(ZoneOffset.ofHoursMinutes(-3, -30), "2007-12-03T10:15:30.00Z", "2007-12-03 06:45:30.000-0330"),
+        Arguments.of(newYork, "2007-03-11T06:59:59.999Z", "2007-03-11 01:59:59.999-0500"),
+        Arguments.of(newYork, "2007-03-11T07:00:00.000Z", "2007-03-11 03:00:00.000-0400"),
+        Arguments.of(newYork, "2007-11-04T05:59:59.999Z", "2007-11-04 01:59:59.999-0400"),
+        Arguments.of(newYork, "2007-11-04T06:00:00.000Z", "2007-11-04 01:00:00.000-0500"));
+  }
+
+  @ParameterizedTest
+  @MethodSource("isoTimestampsProvider")
+  void shouldFormatIsoTimestamps(ZoneId zone, String instant, String expected) throws Exception {
+    LineBuffer out = new LineBuffer();
+    DateFormatter.forZone(zone).formatIsoTo(Instant.parse(instant).toEpochMilli(), out);
+    assertThat(out.toString()).isEqualTo(expected);
+  }
+
+  private static Stream<Arguments> isoTimestampsProvider() {
+    ZoneId newYork = ZoneId.of("America/New_York");
+    return Stream.of(
+        Arguments.of(ZoneOffset.UTC, "2007-12-03T10:15:30.00Z", "2007-12-03T10:15:30.000Z"),
+        Arguments.of(ZoneOffset.UTC, "2007-12-03T10:15:30.999Z", "2007-12-03T10:15:30.999Z"),
+        Arguments.of(ZoneOffset.UTC, "1969-12-31T23:59:59.001Z", "1969-12-31T23:59:59.001Z"),
+        Arguments.of(ZoneOffset.UTC, "0907-01-01T00:00:00.05Z", "0907-01-01T00:00:00.050Z"),
+        Arguments.of(ZoneOffset.UTC, "+12007-01-01T00:00:00.05Z", "+12007-01-01T00:00:00.050Z"),
+        Arguments.of(ZoneOffset.ofHoursMinutes(-3, -30), "2007-12-03T10:15:30.00Z", "2007-12-03T06:45:30.000-03:30"),
+        Arguments.of(newYork, "2007-03-11T06:59:59.999Z", "2007-03-11T01:59:59.999-05:00"),
+        Arguments.of(newYork, "2007-03-11T07:00:00.000Z", "2007-03-11T03:00:00.000-04:00"));
+  }
+
+  @Test
+  void shouldFormatMillisecondsWithinTheSameSecond() throws Exception {
+    DateFormatter formatter = DateFormatter.forZone(ZoneId.of("Europe/Paris"));
+    long start = Instant.parse("2018-03-25T00:59:59.998Z").toEpochMilli();
+    LineBuffer out = new LineBuffer();
+    for (int i = 0; i < 4; ++i) {
+      formatter.formatTo(start + i, out);
+      out.newLine();
+    }
+    formatter.formatTo(start, out);
+
+    // @formatter:off
+    String expected = String.format(
+        "2018-03-25 01:59:59.998+0100%n" +
+        "2018-03-25 01:59:59.999+0100%n" +
+        "2018-03-25 03:00:00.000+0200%n" +
+        "2018-03-25 03:00:00.001+0200%n" +
+        "2018-03-25 01:59:59.998+0100");
+    // @formatter:on
+    assertThat(out.toString()).isEqualTo(expected);
+  }
+
+  @Test
+  void shouldShareFormattersForTheSameZone() throws Exception {
+    assertThat(DateFormatter.forZone(ZoneId.of("Europe/Paris"))).isSameAs(
+        DateFormatter.forZone(ZoneId.of("Europe/Paris")));
+  }
+}
@@ -0,0 +1,83 @@
+package org.logl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FileChannelSinkTest {
+
+  private Path file;
+
+  @BeforeEach
+  void setup() throws Exception {
+    file = Files.createTempFile(getClass().getName(), ".log");
+  }
+
+  @AfterEach
+  void cleanup() throws Exception {
+    Files.deleteIfExists(file);
+  }
+
+  @Test
+  void shouldEncodeAsUtf8() throws Exception {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 5000; ++i) {
+      builder.append("line ").append(i).append(": café € 😀 ÿࠀ￿").append('\n');
+    }
+    String text = builder.toString();
+
+    // write in varying chunk sizes, so encoded chars and surrogate pairs are split across writes and buffers
+    try (FileChannelSink sink = FileChannelSink.open(file)) {
+      char[] chars = text.toCharArray();
+      int chunk = 1;
+      for (int off = 0; off < chars.length; off += chunk, chunk = (chunk % 37) + 1) {
+        int len = Math.min(chunk, chars.length - off);
+        if (chunk % 3 == 0) {
+          sink.write(text, off, len);
+        } else {
+          sink.write(chars, off, len);
+        }
+      }
+    }
+
+    assertThat(Files.readAllBytes(file)).isEqualTo(text.getBytes(UTF_8));
+  }
+
+  @Test
+  void shouldReplaceMalformedSurrogates() throws Exception {
+    try (FileChannelSink sink = FileChannelSink.open(file)) {
+      sink.write("a\ude00b\ud83dc");
+      sink.write('\ud83d');
+      sink.write('\ude00');
+      sink.write('\ud83d');
+    }
+    assertThat(new String(Files.readAllBytes(file), UTF_8)).isEqualTo("a?b?c😀?");
+  }
+
+  @Test
+  void shouldOnlyWriteWhenFlushed() throws Exception {
+    try (FileChannelSink sink = FileChannelSink.open(file)) {
+      sink.write("output");
+      assertThat(Files.size(file)).isEqualTo(0);
+      sink.flush();
+      assertThat(Files.size(file)).isEqualTo(6);
+    }
+  }
+
+  @Test
+  void shouldNotWriteWhenClosed() throws Exception {
+    FileChannelSink sink = FileChannelSink.open(file);
+    sink.close();
+    sink.close();
+    assertThrows(IOException.class, () -> sink.write("output"));
+    assertThrows(IOException.class, sink::flush);
+  }
+}
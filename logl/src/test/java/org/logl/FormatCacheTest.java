@@ -0,0 +1,125 @@
+package org.logl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.text.MessageFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Formatter;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class FormatCacheTest {
+
+  @Test
+  void shouldReuseThreadCloneOfPrototype() throws Exception {
+    String pattern = "{0} of {1}";
+    MessageFormat format = FormatCache.threadMessageFormat(pattern, Locale.US);
+    assertThat(FormatCache.threadMessageFormat(pattern, Locale.US)).isSameAs(format);
+
+    MessageFormat prototype = FormatCache.prototype(pattern, Locale.US);
+    assertThat(format).isNotSameAs(prototype).isEqualTo(prototype);
+    assertThat(FormatCache.prototype(new String(pattern), Locale.US)).isSameAs(prototype);
+
+    assertThat(FormatCache.threadMessageFormat(pattern, Locale.FRANCE)).isNotSameAs(format);
+    MessageFormat otherThreadFormat =
+        CompletableFuture.supplyAsync(() -> FormatCache.threadMessageFormat(pattern, Locale.US)).get();
+    assertThat(otherThreadFormat).isNotSameAs(format).isNotSameAs(prototype).isEqualTo(prototype);
+  }
+
+  @Test
+  void shouldFormatArgumentsThatFormatWhileBeingFormatted() throws Exception {
+    Object nestedMessage = new Object() {
+      @Override
+      public String toString() {
+        StringBuilder builder = new StringBuilder();
+        try {
+          FormatCache.messageFormat("<{0}>", Locale.US, new Object[] {1}, builder);
+          FormatCache.stringFormat("<%tY>", Locale.US, new Object[] {calendar()}, builder);
+        } catch (Exception e) {
+          throw new AssertionError(e);
+        }
+        return builder.toString();
+      }
+    };
+
+    StringBuilder builder = new StringBuilder();
+    FormatCache.messageFormat("a{0}b", Locale.US, new Object[] {nestedMessage}, builder);
+    assertThat(builder.toString()).isEqualTo("a<1><2007>b");
+
+    builder.setLength(0);
+    FormatCache.stringFormat("a%sb%tm", Locale.US, new Object[] {nestedMessage, calendar()}, builder);
+    assertThat(builder.toString()).isEqualTo("a<1><2007>b12");
+
+    // the thread's formats are released once the outer message is formatted
+    MessageFormat format = FormatCache.threadMessageFormat("a{0}b", Locale.US);
+    builder.setLength(0);
+    FormatCache.messageFormat("a{0}b", Locale.US, new Object[] {"-"}, builder);
+    assertThat(builder.toString()).isEqualTo("a-b");
+    assertThat(FormatCache.threadMessageFormat("a{0}b", Locale.US)).isSameAs(format);
+  }
+
+  @Test
+  void shouldAppendDirectlyToStringBuffer() throws Exception {
+    StringBuffer buffer = new StringBuffer("prefix ");
+    FormatCache.messageFormat("{0} and {1,number,#.##}", Locale.US, new Object[] {"one", 2.345}, buffer);
+    assertThat(buffer.toString()).isEqualTo("prefix one and 2.35");
+  }
+
+  @ParameterizedTest
+  @MethodSource("messageFormatsProvider")
+  void shouldMatchMessageFormat(String pattern, Locale locale, Object[] args) throws Exception {
+    StringBuilder builder = new StringBuilder();
+    FormatCache.messageFormat(pattern, locale, args, builder);
+    assertThat(builder.toString()).isEqualTo(new MessageFormat(pattern, locale).format(args));
+
+    // formatted again using the cached clone
+    builder.setLength(0);
+    FormatCache.messageFormat(pattern, locale, args, builder);
+    assertThat(builder.toString()).isEqualTo(new MessageFormat(pattern, locale).format(args));
+  }
+
+  private static Stream<Arguments> messageFormatsProvider() {
+    return Stream.of(
+        Arguments.of("{0}{1}", Locale.US, new Object[] {1, "output"}),
+        Arguments.of("{0,number,integer} items", Locale.GERMANY, new Object[] {1234567}),
+        Arguments.of("{0,number,integer} items", Locale.US, new Object[] {1234567}),
+        Arguments.of("{0,choice,0#none|1#one|1<many}", Locale.US, new Object[] {3}),
+        Arguments.of("'{0}' is quoted, {0} is not", Locale.US, new Object[] {"x"}),
+        Arguments.of("{0,date,yyyy-MM-dd}", Locale.US, new Object[] {new Date(1196676930000L)}),
+        Arguments.of("{1} missing {0}", Locale.US, new Object[] {"a"}));
+  }
+
+  @ParameterizedTest
+  @MethodSource("stringFormatsProvider")
+  void shouldMatchFormatter(String format, Locale locale, Object[] args) throws Exception {
+    StringBuilder builder = new StringBuilder();
+    FormatCache.stringFormat(format, locale, args, builder);
+    assertThat(builder.toString()).isEqualTo(new Formatter(locale).format(format, args).toString());
+  }
+
+  private static Stream<Arguments> stringFormatsProvider() {
+    return Stream.of(
+        Arguments.of("%d%s", Locale.US, new Object[] {1, "output"}),
+        Arguments.of("%,d", Locale.US, new Object[] {123456789}),
+        Arguments.of("%,d", Locale.GERMANY, new Object[] {123456789}),
+        Arguments.of("%.3e", Locale.FRANCE, new Object[] {1234.5678}),
+        Arguments.of("%08.2f|%-6x|", Locale.US, new Object[] {-3.14159, 255}),
+        Arguments.of("%tF %<tT", Locale.US, new Object[] {calendar()}),
+        Arguments.of("%b %c %%%n", Locale.US, new Object[] {null, 'c'}));
+  }
+
+  private static Calendar calendar() {
+    Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone("UTC"), Locale.US);
+    calendar.setTimeInMillis(1196676930000L);
+    return calendar;
+  }
+}
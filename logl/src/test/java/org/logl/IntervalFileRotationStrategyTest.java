@@ -0,0 +1,96 @@
+package org.logl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class IntervalFileRotationStrategyTest {
+
+  @ParameterizedTest
+  @MethodSource("boundariesProvider")
+  void shouldFindNextBoundary(Duration interval, ZoneId zone, String now, String expected) throws Exception {
+    IntervalFileRotationStrategy strategy = new IntervalFileRotationStrategy(interval, zone, () -> 0L);
+    long next = strategy.nextBoundary(Instant.parse(now).toEpochMilli());
+    assertThat(Instant.ofEpochMilli(next)).isEqualTo(Instant.parse(expected));
+  }
+
+  private static Stream<Arguments> boundariesProvider() {
+    ZoneId newYork = ZoneId.of("America/New_York");
+    ZoneId kolkata = ZoneId.of("Asia/Kolkata");
+    Duration hour = Duration.ofHours(1);
+    Duration day = Duration.ofDays(1);
+    return Stream.of(
+        Arguments.of(hour, ZoneOffset.UTC, "2007-12-03T10:15:30.00Z", "2007-12-03T11:00:00.00Z"),
+        Arguments.of(hour, ZoneOffset.UTC, "2007-12-03T10:00:00.00Z", "2007-12-03T11:00:00.00Z"),
+        Arguments.of(hour, ZoneOffset.UTC, "2007-12-03T23:59:59.999Z", "2007-12-04T00:00:00.00Z"),
+        Arguments.of(hour, kolkata, "2007-12-03T10:15:30.00Z", "2007-12-03T10:30:00.00Z"),
+        Arguments.of(Duration.ofMinutes(15), ZoneOffset.UTC, "2007-12-03T10:15:30.00Z", "2007-12-03T10:30:00.00Z"),
+        Arguments.of(Duration.ofHours(7), ZoneOffset.UTC, "2007-12-03T22:15:30.00Z", "2007-12-04T00:00:00.00Z"),
+        Arguments.of(day, ZoneOffset.UTC, "2007-12-03T10:15:30.00Z", "2007-12-04T00:00:00.00Z"),
+        Arguments.of(day, newYork, "2007-12-03T10:15:30.00Z", "2007-12-04T05:00:00.00Z"),
+        Arguments.of(day, newYork, "2007-12-04T04:15:30.00Z", "2007-12-04T05:00:00.00Z"),
+        Arguments.of(Duration.ofDays(2), ZoneOffset.UTC, "1970-01-01T10:15:30.00Z", "1970-01-03T00:00:00.00Z"),
+        Arguments.of(Duration.ofDays(2), ZoneOffset.UTC, "1970-01-02T10:15:30.00Z", "1970-01-03T00:00:00.00Z"),
+        // daylight savings starts at 02:00 local, and ends at 02:00 local (01:00 standard)
+        Arguments.of(hour, newYork, "2007-03-11T06:30:00.00Z", "2007-03-11T07:00:00.00Z"),
+        Arguments.of(hour, newYork, "2007-03-11T07:30:00.00Z", "2007-03-11T08:00:00.00Z"),
+        Arguments.of(day, newYork, "2007-03-11T06:30:00.00Z", "2007-03-12T04:00:00.00Z"),
+        Arguments.of(hour, newYork, "2007-11-04T04:30:00.00Z", "2007-11-04T05:00:00.00Z"),
+        Arguments.of(hour, newYork, "2007-11-04T05:30:00.00Z", "2007-11-04T07:00:00.00Z"),
+        Arguments.of(hour, newYork, "2007-11-04T06:30:00.00Z", "2007-11-04T07:00:00.00Z"));
+  }
+
+  @Test
+  void shouldRotateAtBoundaries() throws Exception {
+    AtomicLong time = new AtomicLong(Instant.parse("2007-12-03T10:15:30.00Z").toEpochMilli());
+    IntervalFileRotationStrategy strategy =
+        new IntervalFileRotationStrategy(Duration.ofHours(1), ZoneOffset.UTC, time::get);
+
+    assertThat(strategy.shouldRotate(null, 0)).isFalse();
+    time.set(Instant.parse("2007-12-03T10:59:59.999Z").toEpochMilli());
+    assertThat(strategy.shouldRotate(null, 0)).isFalse();
+    time.set(Instant.parse("2007-12-03T11:00:00.00Z").toEpochMilli());
+    assertThat(strategy.shouldRotate(null, 0)).isTrue();
+    strategy.rotationCompleted();
+    assertThat(strategy.shouldRotate(null, 0)).isFalse();
+    time.set(Instant.parse("2007-12-03T12:00:00.00Z").toEpochMilli());
+    assertThat(strategy.shouldRotate(null, 0)).isTrue();
+  }
+
+  @Test
+  void shouldRotateWhenAnyStrategyWould() throws Exception {
+    AtomicLong time = new AtomicLong(Instant.parse("2007-12-03T10:15:30.00Z").toEpochMilli());
+    FileRotationStrategy strategy = FileRotationStrategy.anyOf(
+        new DefaultFileRotationStrategy(100, 0, Instant::now),
+        new IntervalFileRotationStrategy(Duration.ofHours(1), ZoneOffset.UTC, time::get));
+
+    assertThat(strategy.shouldRotate(null, 99)).isFalse();
+    assertThat(strategy.shouldRotate(null, 100)).isTrue();
+    time.set(Instant.parse("2007-12-03T11:00:00.00Z").toEpochMilli());
+    assertThat(strategy.shouldRotate(null, 0)).isTrue();
+    strategy.rotationCompleted();
+    assertThat(strategy.shouldRotate(null, 0)).isFalse();
+  }
+
+  @Test
+  void shouldRejectInvalidIntervals() {
+    assertThrows(IllegalArgumentException.class, () -> FileRotationStrategy.forInterval(Duration.ZERO, ZoneOffset.UTC));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> FileRotationStrategy.forInterval(Duration.ofHours(-1), ZoneOffset.UTC));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> FileRotationStrategy.forInterval(Duration.ofHours(36), ZoneOffset.UTC));
+  }
+}
@@ -1,18 +1,33 @@
 package org.logl;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.nio.file.Files.delete;
 import static java.nio.file.Files.walkFileTree;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.file.FileSystemException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -59,7 +74,8 @@ class RotatingFilePrintWriterSupplierTest {
   @Test
   void shouldRotatesLogWhenSizeExceeded() throws Exception {
     FileRotationStrategy strategy = FileRotationStrategy.forSize(10, 0);
-    RotatingFilePrintWriterSupplier supplier = new RotatingFilePrintWriterSupplier(logFile, strategy, 10);
+    RotatingFilePrintWriterSupplier supplier =
+        new RotatingFilePrintWriterSupplier(logFile, strategy, 10, Runnable::run);
 
     supplier.get().write("A log line greater than the threshold");
     assertThat(Files.exists(logFile)).isTrue();
@@ -81,7 +97,8 @@ class RotatingFilePrintWriterSupplierTest {
   @Test
   void shouldLimitsTheNumberOfArchives() throws Exception {
     FileRotationStrategy strategy = FileRotationStrategy.forSize(10, 0);
-    RotatingFilePrintWriterSupplier supplier = new RotatingFilePrintWriterSupplier(logFile, strategy, 2);
+    RotatingFilePrintWriterSupplier supplier =
+        new RotatingFilePrintWriterSupplier(logFile, strategy, 2, Runnable::run);
 
     supplier.get().write("A log line greater than the threshold");
     assertThat(Files.exists(logFile)).isTrue();
@@ -109,7 +126,8 @@ class RotatingFilePrintWriterSupplierTest {
   void shouldDelayRotation() throws Exception {
     AtomicReference<Instant> time = new AtomicReference<>(Instant.now());
     FileRotationStrategy strategy = new DefaultFileRotationStrategy(10, SECONDS.toMillis(60), time::get);
-    RotatingFilePrintWriterSupplier supplier = new RotatingFilePrintWriterSupplier(logFile, strategy, 10);
+    RotatingFilePrintWriterSupplier supplier =
+        new RotatingFilePrintWriterSupplier(logFile, strategy, 10, Runnable::run);
 
     supplier.get().write("A log line greater than the threshold");
     assertThat(Files.exists(logFile)).isTrue();
@@ -138,10 +156,323 @@ class RotatingFilePrintWriterSupplierTest {
     assertThat(Files.exists(archivedLogFile[2])).describedAs("should not have rotated thrice").isFalse();
   }
 
+  @Test
+  void shouldRotateWhenOutputFileRemoved() throws Exception {
+    DefaultFileRotationStrategy strategy = new DefaultFileRotationStrategy(250000, 0, Instant::now);
+    RotatingFilePrintWriterSupplier supplier =
+        new RotatingFilePrintWriterSupplier(logFile, strategy, 10, Runnable::run);
+
+    supplier.get().write("A log line");
+    supplier.get().flush();
+    Files.delete(logFile);
+    strategy.checkOutputFile();
+
+    supplier.get().write("Another log line");
+    supplier.get().flush();
+    assertThat(Files.exists(archivedLogFile[0])).describedAs("should not have archived").isFalse();
+    assertThat(new String(Files.readAllBytes(logFile), UTF_8)).isEqualTo("Another log line");
+    assertThat(strategy.shouldRotate(logFile, 0)).describedAs("should not rotate again").isFalse();
+  }
+
+  @Test
+  void shouldStopCheckingOutputFileWhenClosed() throws Exception {
+    DefaultFileRotationStrategy strategy = new DefaultFileRotationStrategy(250000, 0, Instant::now);
+    RotatingFilePrintWriterSupplier supplier = RotatingFilePrintWriterSupplier
+        .forFile(logFile)
+        .withRotationStrategy(FileRotationStrategy.anyOf(strategy))
+        .build();
+
+    supplier.get().write("A log line");
+    assertThat(strategy.isCheckingOutputFile()).isTrue();
+    supplier.close();
+    assertThat(strategy.isCheckingOutputFile()).describedAs("should have stopped checking").isFalse();
+    assertThat(strategy.shouldRotate(logFile, 0)).isFalse();
+    assertThat(strategy.isCheckingOutputFile()).describedAs("should not restart checking").isFalse();
+  }
+
+  @Test
+  void shouldIgnoreOutputFileCheckCompletedAfterRotation() throws Exception {
+    DefaultFileRotationStrategy strategy = new DefaultFileRotationStrategy(250000, 0, Instant::now);
+    assertThat(strategy.shouldRotate(logFile, 0)).isFalse();
+
+    int checkedGeneration = strategy.generation();
+    strategy.rotationCompleted();
+    strategy.outputMissing(checkedGeneration);
+    assertThat(strategy.shouldRotate(logFile, 0)).describedAs("should ignore the stale check").isFalse();
+
+    strategy.outputMissing(strategy.generation());
+    assertThat(strategy.shouldRotate(logFile, 0)).isTrue();
+  }
+
+  @Test
+  void shouldCompressArchives() throws Exception {
+    List<Path> compressed = new CopyOnWriteArrayList<>();
+    RotatingFilePrintWriterSupplier supplier = RotatingFilePrintWriterSupplier
+        .forFile(logFile)
+        .withRotationStrategy(FileRotationStrategy.forSize(10, 0))
+        .withMaxArchives(2)
+        .usingRotationExecutor(Runnable::run)
+        .withRotationListener(new FileRotationListener() {
+          @Override
+          public void rotationCompleted(PrintWriter out) {}
+
+          @Override
+          public void rotationError(Exception e, PrintWriter out) {}
+
+          @Override
+          public void compressionCompleted(Path archive) {
+            compressed.add(archive);
+          }
+        })
+        .withCompressedArchives(ForkJoinPool.commonPool(), Runnable::run)
+        .build();
+
+    for (int i = 1; i <= 4; ++i) {
+      supplier.get().write("A log line greater than the threshold " + i);
+    }
+
+    Path archive1 = tempDir.resolve("output.log.1.gz");
+    Path archive2 = tempDir.resolve("output.log.2.gz");
+    assertThat(supplier.archives()).containsExactly(archive1, archive2);
+    assertThat(Files.exists(archivedLogFile[0])).describedAs("should have removed uncompressed archive").isFalse();
+    assertThat(Files.exists(tempDir.resolve("output.log.3.gz"))).describedAs("should have discarded").isFalse();
+    assertThat(compressed).containsExactly(archive1, archive1, archive1);
+    assertThat(readCompressed(archive1)).isEqualTo("A log line greater than the threshold 3");
+    assertThat(readCompressed(archive2)).isEqualTo("A log line greater than the threshold 2");
+  }
+
+  @Test
+  void shouldCompressArchivesInBackground() throws Exception {
+    Thread loggingThread = Thread.currentThread();
+    AtomicReference<Thread> compressingThread = new AtomicReference<>();
+    CountDownLatch compressed = new CountDownLatch(1);
+    RotatingFilePrintWriterSupplier supplier = RotatingFilePrintWriterSupplier
+        .forFile(logFile)
+        .withRotationStrategy(FileRotationStrategy.forSize(10, 0))
+        .withRotationListener(new FileRotationListener() {
+          @Override
+          public void rotationCompleted(PrintWriter out) {}
+
+          @Override
+          public void rotationError(Exception e, PrintWriter out) {}
+
+          @Override
+          public void compressionCompleted(Path archive) {
+            compressingThread.set(Thread.currentThread());
+            compressed.countDown();
+          }
+        })
+        .withCompressedArchives()
+        .build();
+
+    supplier.get().write("A log line greater than the threshold");
+    // requests rotation, which completes asynchronously
+    supplier.get();
+    assertThat(compressed.await(10, SECONDS)).isTrue();
+    assertThat(compressingThread.get()).isNotSameAs(loggingThread);
+    assertThat(readCompressed(tempDir.resolve("output.log.1.gz"))).isEqualTo("A log line greater than the threshold");
+    supplier.close();
+  }
+
+  @Test
+  void shouldRequireSequencedArchivesToCompressMappedSegments() throws Exception {
+    RotatingFilePrintWriterSupplier.Builder builder =
+        RotatingFilePrintWriterSupplier.forFile(logFile).withMappedSegments(64).withCompressedArchives();
+    assertThrows(IllegalStateException.class, builder::build);
+    assertThat(Files.exists(logFile)).isFalse();
+
+    RotatingFilePrintWriterSupplier supplier = builder.withSequencedArchives().build();
+    supplier.close();
+  }
+
+  private static String readCompressed(Path file) throws IOException {
+    StringBuilder builder = new StringBuilder();
+    try (InputStream in = new GZIPInputStream(Files.newInputStream(file));
+        Reader reader = new InputStreamReader(in, UTF_8)) {
+      char[] buffer = new char[1024];
+      int n;
+      while ((n = reader.read(buffer)) >= 0) {
+        builder.append(buffer, 0, n);
+      }
+    }
+    return builder.toString();
+  }
+
+  @Test
+  void shouldNotRenameSequencedArchives() throws Exception {
+    RotatingFilePrintWriterSupplier supplier = RotatingFilePrintWriterSupplier
+        .forFile(logFile)
+        .withRotationStrategy(FileRotationStrategy.forSize(10, 0))
+        .withMaxArchives(2)
+        .usingRotationExecutor(Runnable::run)
+        .withSequencedArchives()
+        .build();
+
+    for (int i = 1; i <= 4; ++i) {
+      supplier.get().write("A log line greater than the threshold " + i);
+    }
+    assertThat(supplier.archives()).containsExactly(archivedLogFile[2], archivedLogFile[1]);
+    assertThat(Files.exists(archivedLogFile[0])).describedAs("should have discarded").isFalse();
+    assertThat(new String(Files.readAllBytes(archivedLogFile[2]), UTF_8))
+        .isEqualTo("A log line greater than the threshold 3");
+    supplier.close();
+
+    // a new supplier should continue the sequence
+    supplier = RotatingFilePrintWriterSupplier
+        .forFile(logFile)
+        .withRotationStrategy(FileRotationStrategy.forSize(10, 0))
+        .withMaxArchives(2)
+        .usingRotationExecutor(Runnable::run)
+        .withSequencedArchives()
+        .build();
+    assertThat(supplier.archives()).containsExactly(archivedLogFile[2], archivedLogFile[1]);
+    supplier.rotate();
+    assertThat(supplier.archives()).containsExactly(archivedLogFile[3], archivedLogFile[2]);
+    assertThat(Files.exists(archivedLogFile[1])).describedAs("should have discarded").isFalse();
+    supplier.close();
+  }
+
+  @Test
+  void shouldRemoveLeftoversOfInterruptedCompression() throws Exception {
+    Path compressed = tempDir.resolve("output.log.1.gz");
+    Path partial = tempDir.resolve("output.log.2.gz.tmp");
+    Files.write(archivedLogFile[0], "archive 1".getBytes(UTF_8));
+    Files.write(compressed, "compressed archive 1".getBytes(UTF_8));
+    Files.write(archivedLogFile[1], "archive 2".getBytes(UTF_8));
+    Files.write(partial, "partial".getBytes(UTF_8));
+
+    RotatingFilePrintWriterSupplier supplier = RotatingFilePrintWriterSupplier
+        .forFile(logFile)
+        .withMaxArchives(2)
+        .usingRotationExecutor(Runnable::run)
+        .withSequencedArchives()
+        .build();
+    assertThat(supplier.archives()).containsExactly(archivedLogFile[1], compressed);
+    assertThat(Files.exists(archivedLogFile[0])).describedAs("should have removed uncompressed archive").isFalse();
+    assertThat(Files.exists(partial)).describedAs("should have removed partial archive").isFalse();
+
+    supplier.rotate();
+    assertThat(supplier.archives()).containsExactly(archivedLogFile[2], archivedLogFile[1]);
+    assertThat(Files.exists(compressed)).describedAs("should have discarded").isFalse();
+    supplier.close();
+  }
+
+  @Test
+  void shouldContinueWritingUntilRotatedFileIsSwapped() throws Exception {
+    List<Runnable> rotations = new ArrayList<>();
+    RotatingFilePrintWriterSupplier supplier = RotatingFilePrintWriterSupplier
+        .forFile(logFile)
+        .withRotationStrategy(FileRotationStrategy.forSize(10, 0))
+        .usingRotationExecutor(rotations::add)
+        .build();
+
+    supplier.get().write("A log line greater than the threshold\n");
+    supplier.get().write("Written before rotation\n");
+    assertThat(rotations).hasSize(1);
+    rotations.get(0).run();
+    supplier.get().write("Written after rotation\n");
+    supplier.close();
+
+    assertThat(new String(Files.readAllBytes(archivedLogFile[0]), UTF_8))
+        .isEqualTo("A log line greater than the threshold\nWritten before rotation\n");
+    assertThat(new String(Files.readAllBytes(logFile), UTF_8)).isEqualTo("Written after rotation\n");
+  }
+
+  @Test
+  void shouldRotateInBackgroundByDefault() throws Exception {
+    Thread loggingThread = Thread.currentThread();
+    AtomicReference<Thread> rotatingThread = new AtomicReference<>();
+    CountDownLatch rotated = new CountDownLatch(1);
+    RotatingFilePrintWriterSupplier supplier = RotatingFilePrintWriterSupplier
+        .forFile(logFile)
+        .withRotationStrategy(FileRotationStrategy.forSize(10, 0))
+        .withRotationListener(new FileRotationListener() {
+          @Override
+          public void rotationCompleted(PrintWriter out) {
+            rotatingThread.set(Thread.currentThread());
+            rotated.countDown();
+          }
+
+          @Override
+          public void rotationError(Exception e, PrintWriter out) {}
+        })
+        .build();
+
+    supplier.get().write("A log line greater than the threshold\n");
+    // requests rotation, which completes asynchronously
+    supplier.get();
+    assertThat(rotated.await(10, SECONDS)).isTrue();
+    assertThat(rotatingThread.get()).isNotSameAs(loggingThread);
+    supplier.get().write("Written after rotation\n");
+    supplier.close();
+
+    assertThat(new String(Files.readAllBytes(archivedLogFile[0]), UTF_8))
+        .isEqualTo("A log line greater than the threshold\n");
+    assertThat(new String(Files.readAllBytes(logFile), UTF_8)).isEqualTo("Written after rotation\n");
+  }
+
+  @Test
+  void shouldCloseOutputFileBeforeMovingIfMoveFails() throws Exception {
+    RotatingFilePrintWriterSupplier supplier =
+        new RotatingFilePrintWriterSupplier(logFile, FileRotationStrategy.forSize(10, 0), 10, Runnable::run) {
+          @Override
+          void move(Path source, Path target, boolean closed) throws IOException {
+            if (!closed) {
+              // as on platforms where an open file cannot be moved
+              throw new FileSystemException(source.toString(), target.toString(), "file is open");
+            }
+            super.move(source, target, closed);
+          }
+        };
+
+    supplier.get().write("A log line greater than the threshold\n");
+    supplier.get().write("Written after rotation\n");
+    supplier.close();
+
+    assertThat(new String(Files.readAllBytes(archivedLogFile[0]), UTF_8))
+        .isEqualTo("A log line greater than the threshold\n");
+    assertThat(new String(Files.readAllBytes(logFile), UTF_8)).isEqualTo("Written after rotation\n");
+  }
+
+  @Test
+  void shouldNotLoseLinesWrittenConcurrentlyWithRotation() throws Exception {
+    RotatingFilePrintWriterSupplier supplier = RotatingFilePrintWriterSupplier
+        .forFile(logFile)
+        .withRotationStrategy(FileRotationStrategy.forSize(4096, 0))
+        .withMaxArchives(100)
+        .usingRotationExecutor(Runnable::run)
+        .withSequencedArchives()
+        .build();
+
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; ++t) {
+      String prefix = "thread " + t + " line ";
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < 1000; ++i) {
+          supplier.get().write(prefix + i + "\n");
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    supplier.close();
+
+    assertThat(supplier.archives()).isNotEmpty();
+    List<String> lines = new ArrayList<>();
+    for (Path file : supplier.archives()) {
+      lines.addAll(Files.readAllLines(file, UTF_8));
+    }
+    lines.addAll(Files.readAllLines(logFile, UTF_8));
+    assertThat(lines).hasSize(4000).doesNotHaveDuplicates();
+  }
+
   @Test
   void shouldListArchives() throws Exception {
     FileRotationStrategy strategy = FileRotationStrategy.forSize(10, 0);
-    RotatingFilePrintWriterSupplier supplier = new RotatingFilePrintWriterSupplier(logFile, strategy, 10);
+    RotatingFilePrintWriterSupplier supplier =
+        new RotatingFilePrintWriterSupplier(logFile, strategy, 10, Runnable::run);
 
     supplier.get().write("A log line greater than the threshold");
     supplier.get().write("A log line greater than the threshold");
@@ -154,4 +485,65 @@ class RotatingFilePrintWriterSupplierTest {
 
     assertThat(supplier.archives()).containsExactly(archivedLogFile[0], archivedLogFile[1], archivedLogFile[2]);
   }
+
+  @Test
+  void shouldRotateMappedSegmentsWhenFull() throws Exception {
+    RotatingFilePrintWriterSupplier supplier = RotatingFilePrintWriterSupplier
+        .forFile(logFile)
+        .withMappedSegments(64)
+        .usingRotationExecutor(Runnable::run)
+        .build();
+    assertThat(Files.size(logFile)).isEqualTo(64);
+
+    String line = "mapped log line \u00e9\n";
+    supplier.get().write(line);
+    supplier.get().write(line);
+    supplier.get().write(line);
+    assertThat(Files.exists(archivedLogFile[0])).describedAs("should not have rotated").isFalse();
+
+    // does not fit in the segment, so should be appended to the archive
+    supplier.get().write(line);
+    assertThat(Files.exists(archivedLogFile[0])).describedAs("should have rotated once").isTrue();
+    assertThat(new String(Files.readAllBytes(archivedLogFile[0]), UTF_8)).isEqualTo(line + line + line + line);
+
+    supplier.get().write(line);
+    supplier.close();
+    assertThat(Files.exists(archivedLogFile[1])).describedAs("should not have rotated twice").isFalse();
+    assertThat(new String(Files.readAllBytes(logFile), UTF_8)).isEqualTo(line);
+  }
+
+  @Test
+  void shouldNotLoseLinesWrittenConcurrentlyToMappedSegments() throws Exception {
+    RotatingFilePrintWriterSupplier supplier = RotatingFilePrintWriterSupplier
+        .forFile(logFile)
+        .withMappedSegments(4096)
+        .withMaxArchives(100)
+        .usingRotationExecutor(Runnable::run)
+        .build();
+
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; ++t) {
+      String prefix = "thread " + t + " line ";
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < 1000; ++i) {
+          PrintWriter out = supplier.get();
+          out.write(prefix + i + "\n");
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    supplier.close();
+
+    assertThat(supplier.archives().size()).isGreaterThan(10);
+    Set<String> lines = new HashSet<>();
+    List<Path> files = new ArrayList<>(supplier.archives());
+    files.add(logFile);
+    for (Path file : files) {
+      lines.addAll(Files.readAllLines(file, UTF_8));
+    }
+    assertThat(lines).hasSize(4000);
+  }
 }
@@ -1,10 +1,26 @@
 package org.logl;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.ByteArrayOutputStream;
 import java.io.CharArrayWriter;
 import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -38,6 +54,155 @@ class SimpleLoggerTest {
     // @formatter:on
   }
 
+  @Test
+  void shouldFlushEachLine() {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    LoggerProvider logProvider =
+        SimpleLogger.usingCurrentTimeSupplier(() -> now).toPrintWriter(new PrintWriter(stream, true));
+    Logger logger = logProvider.getLogger("org.logl.StandardLoggerTest");
+
+    logger.info("1output");
+    assertThat(new String(stream.toByteArray(), UTF_8))
+        .isEqualTo(String.format("2007-12-03 10:15:30.000+0000  INFO [o.l.StandardLoggerTest] 1output%n"));
+    logger.warnf("%s", "2output");
+    assertThat(new String(stream.toByteArray(), UTF_8))
+        .endsWith(String.format("2007-12-03 10:15:30.000+0000  WARN [o.l.StandardLoggerTest] 2output%n"));
+  }
+
+  @Test
+  void shouldAbbreviateNamesWithPattern() {
+    LoggerProvider logProvider = SimpleLogger
+        .withNameAbbreviation("1~.2~")
+        .usingCurrentTimeSupplier(() -> now)
+        .withLogLevel(Level.DEBUG)
+        .toPrintWriter(out);
+    Logger logger = logProvider.getLogger("org.logl.StandardLoggerTest");
+
+    logger.error("1output");
+    logger.debug("2output");
+    // @formatter:off
+    assertThat(buffer.toString()).isEqualTo(String.format(
+        "2007-12-03 10:15:30.000+0000 ERROR [o~.lo~.StandardLoggerTest] 1output%n" +
+        "2007-12-03 10:15:30.000+0000 DEBUG [o~.lo~.StandardLoggerTest] 2output%n"));
+    // @formatter:on
+  }
+
+  @Test
+  void shouldOutputJsonLines() {
+    LoggerProvider logProvider = SimpleLogger
+        .asJsonLines()
+        .usingCurrentTimeSupplier(() -> now)
+        .withThrowableRenderer(ThrowableRenderer.standard().withMaxDepth(1))
+        .toPrintWriter(out);
+    Logger logger = logProvider.getLogger("org.logl.StandardLoggerTest");
+
+    logger.info("{} \"quoted\"\n\\ {}", 1, "output");
+    logger.warnf("%d\t%s", 2, "output");
+    Exception cause = new IllegalStateException("bad \"state\"");
+    cause.setStackTrace(new StackTraceElement[] {new StackTraceElement("org.logl.Example", "a", "Example.java", 3)});
+    Exception ex = new RuntimeException(cause);
+    ex.setStackTrace(
+        new StackTraceElement[] {
+            new StackTraceElement("org.logl.Example", "b", "Example.java", 4),
+            new StackTraceElement("org.logl.Example", "main", null, -1)});
+    logger.error("3output", ex);
+    // @formatter:off
+    assertThat(buffer.toString()).isEqualTo(String.format(
+        "{\"timestamp\":\"2007-12-03 10:15:30.000+0000\",\"level\":\"INFO\",\"logger\":\"o.l.StandardLoggerTest\"," +
+            "\"message\":\"1 \\\"quoted\\\"\\n\\\\ output\"}%n" +
+        "{\"timestamp\":\"2007-12-03 10:15:30.000+0000\",\"level\":\"WARN\",\"logger\":\"o.l.StandardLoggerTest\"," +
+            "\"message\":\"2\\toutput\"}%n" +
+        "{\"timestamp\":\"2007-12-03 10:15:30.000+0000\",\"level\":\"ERROR\",\"logger\":\"o.l.StandardLoggerTest\"," +
+            "\"message\":\"3output\",\"throwable\":[" +
+            "{\"class\":\"java.lang.RuntimeException\",\"message\":\"java.lang.IllegalStateException: bad \\\"state\\\"\"," +
+            "\"frames\":[\"org.logl.Example.b(Example.java:4)\"],\"omittedFrames\":1}," +
+            "{\"class\":\"java.lang.IllegalStateException\",\"message\":\"bad \\\"state\\\"\"," +
+            "\"frames\":[\"org.logl.Example.a(Example.java:3)\"]}]}%n"));
+    // @formatter:on
+  }
+
+  @Test
+  void shouldTruncateLongMessages() {
+    LoggerProvider logProvider = SimpleLogger
+        .withMaxMessageLength(10)
+        .withMaxArgumentLength(4)
+        .usingCurrentTimeSupplier(() -> now)
+        .toPrintWriter(out);
+    Logger logger = logProvider.getLogger("");
+
+    logger.info("id {}", "abcdefgh");
+    logger.warnf("%s", "0123456789a");
+    // @formatter:off
+    assertThat(buffer.toString()).isEqualTo(String.format(
+        "2007-12-03 10:15:30.000+0000  INFO [] id abcd...[truncated 4 chars]%n" +
+        "2007-12-03 10:15:30.000+0000  WARN [] 0123456789...[truncated 1 chars]%n"));
+    // @formatter:on
+  }
+
+  @Test
+  void shouldOutputMessagesWithLayout() throws Exception {
+    AdjustableLoggerProvider logProvider = SimpleLogger
+        .withLayout("%d{epochMillis} %-5level [%thread] %logger{-1} %c: %msg (100%%)%n")
+        .usingCurrentTimeSupplier(() -> now)
+        .async(4)
+        .toPrintWriter(out);
+    Logger logger = logProvider.getLogger("org.logl.StandardLoggerTest");
+
+    Thread thread = new Thread(() -> {
+      logger.info("1output");
+      logger.batch(batchLogger -> batchLogger.error("2{}", "output"));
+    }, "worker");
+    thread.start();
+    thread.join();
+    logger.warn("3output", new RuntimeException("Something happened") {
+      @Override
+      public synchronized Throwable fillInStackTrace() {
+        return this;
+      }
+    });
+    logProvider.close();
+    String name = Thread.currentThread().getName();
+    // @formatter:off
+    assertThat(buffer.toString()).isEqualTo(String.format(
+        "1196676930000 INFO  [worker] logl.StandardLoggerTest o.l.StandardLoggerTest: 1output (100%%)%n" +
+        "1196676930000 ERROR [worker] logl.StandardLoggerTest o.l.StandardLoggerTest: 2output (100%%)%n" +
+        "1196676930000 WARN  [" + name + "] logl.StandardLoggerTest o.l.StandardLoggerTest: 3output (100%%)%n" +
+        "org.logl.SimpleLoggerTest$1: Something happened%n"));
+    // @formatter:on
+  }
+
+  @Test
+  void shouldOutputTimestampsAndSequenceNumbersWithLayout() {
+    LoggerProvider logProvider = SimpleLogger
+        .withLayout("%sn %d{iso} %d{epochMicros} %d %msg%n")
+        .withZone(ZoneId.of("Europe/Paris"))
+        .usingCurrentTimeSupplier(() -> now)
+        .toPrintWriter(out);
+    Logger logger = logProvider.getLogger("");
+
+    logger.info("1output");
+    now = now.plusMillis(1);
+    logger.info("2output");
+    // @formatter:off
+    assertThat(buffer.toString()).isEqualTo(String.format(
+        "1 2007-12-03T11:15:30.000+01:00 1196676930000000 2007-12-03 11:15:30.000+0100 1output%n" +
+        "2 2007-12-03T11:15:30.001+01:00 1196676930001000 2007-12-03 11:15:30.001+0100 2output%n"));
+    // @formatter:on
+  }
+
+  @Test
+  void shouldRejectInvalidLayouts() {
+    assertThrows(IllegalArgumentException.class, () -> SimpleLogger.withLayout("%d %level"));
+    assertThrows(IllegalArgumentException.class, () -> SimpleLogger.withLayout("%msg %msg"));
+    assertThrows(IllegalArgumentException.class, () -> SimpleLogger.withLayout("%foo %msg"));
+    assertThrows(IllegalArgumentException.class, () -> SimpleLogger.withLayout("%d{rfc} %msg"));
+    assertThrows(IllegalArgumentException.class, () -> SimpleLogger.withLayout("%5msg"));
+    assertThrows(IllegalArgumentException.class, () -> SimpleLogger.withLayout("%5sn %msg"));
+    assertThrows(IllegalArgumentException.class, () -> SimpleLogger.withLayout("%sn{1} %msg"));
+    assertThrows(IllegalArgumentException.class, () -> SimpleLogger.withLayout("%logger{1 %msg"));
+    assertThrows(IllegalArgumentException.class, () -> SimpleLogger.withLayout("%msg %"));
+  }
+
   @Test
   void shouldOutputFormattedMessages() {
     LoggerProvider logProvider = SimpleLogger.usingCurrentTimeSupplier(() -> now).toPrintWriter(out);
@@ -52,14 +217,304 @@ class SimpleLoggerTest {
     logger.info(LogMessage.stringFormat("4-%,d", 123456789));
     logger.info(LogMessage.patternFormat("{}{}", 5, "output"));
     logger.info("{}{}", 6, "output");
+    logger.info("{}\\{} is not {}", 7, "output");
     // @formatter:off
     assertThat(buffer.toString()).isEqualTo(String.format(
         "2007-12-03 10:15:30.000+0000 ERROR [o.l.SimpleLoggerTest] 1output%n" +
         "2007-12-03 10:15:31.400+0000  WARN [o.l.SimpleLoggerTest] 2output%n" +
         "2007-12-03 10:15:34.200+0000  INFO [o.l.SimpleLoggerTest] 4-123,456,789%n" +
         "2007-12-03 10:15:34.200+0000  INFO [o.l.SimpleLoggerTest] 5output%n" +
-        "2007-12-03 10:15:34.200+0000  INFO [o.l.SimpleLoggerTest] 6output%n"));
+        "2007-12-03 10:15:34.200+0000  INFO [o.l.SimpleLoggerTest] 6output%n" +
+        "2007-12-03 10:15:34.200+0000  INFO [o.l.SimpleLoggerTest] 7{} is not output%n"));
+    // @formatter:on
+  }
+
+  @Test
+  void shouldFormatNestedMessagesForLoggerLocale() {
+    Locale defaultLocale = Locale.getDefault(Locale.Category.FORMAT);
+    Locale.setDefault(Locale.Category.FORMAT, Locale.US);
+    try {
+      LoggerProvider logProvider =
+          SimpleLogger.withLocale(Locale.GERMANY).usingCurrentTimeSupplier(() -> now).toPrintWriter(out);
+      Logger logger = logProvider.getLogger(getClass());
+
+      LogMessage nested = LogMessage.stringFormat("%,.2f", 1234.5);
+      logger.info("1-{}", nested);
+      logger.info("2-{} {}", "in", new Object[] {nested});
+      logger.info(LogMessage.patternFormat("3-{}", LogMessage.patternFormat("[{}]", nested)));
+      // @formatter:off
+      assertThat(buffer.toString()).isEqualTo(String.format(
+          "2007-12-03 10:15:30.000+0000  INFO [o.l.SimpleLoggerTest] 1-1.234,50%n" +
+          "2007-12-03 10:15:30.000+0000  INFO [o.l.SimpleLoggerTest] 2-in [1.234,50]%n" +
+          "2007-12-03 10:15:30.000+0000  INFO [o.l.SimpleLoggerTest] 3-[1.234,50]%n"));
+      // @formatter:on
+    } finally {
+      Locale.setDefault(Locale.Category.FORMAT, defaultLocale);
+    }
+  }
+
+  @Test
+  void shouldOutputPatternArguments() {
+    LoggerProvider logProvider = SimpleLogger.usingCurrentTimeSupplier(() -> now).toPrintWriter(out);
+    Logger logger = logProvider.getLogger(getClass());
+
+    logger.info("long {}", 1234567890123L);
+    logger.info("negative {}", Long.MIN_VALUE);
+    logger.info("int {}", -42);
+    logger.info("double {}", 2.5);
+    logger.info("char {}", 'c');
+    logger.info("float {}", 3.14f);
+    logger.info("boxed {} {}", 7, 0.125);
+    logger.info("{}:{}:{}", "a", 'b', true);
+    logger.info("{}-{}-{}-{} {}", 1, 2, 3, 4);
+    logger.info("none {}", (Object) null);
+    logger.debug("disabled {}", 1L);
+    // @formatter:off
+    assertThat(buffer.toString()).isEqualTo(String.format(
+        "2007-12-03 10:15:30.000+0000  INFO [o.l.SimpleLoggerTest] long 1234567890123%n" +
+        "2007-12-03 10:15:30.000+0000  INFO [o.l.SimpleLoggerTest] negative -9223372036854775808%n" +
+        "2007-12-03 10:15:30.000+0000  INFO [o.l.SimpleLoggerTest] int -42%n" +
+        "2007-12-03 10:15:30.000+0000  INFO [o.l.SimpleLoggerTest] double 2.5%n" +
+        "2007-12-03 10:15:30.000+0000  INFO [o.l.SimpleLoggerTest] char c%n" +
+        "2007-12-03 10:15:30.000+0000  INFO [o.l.SimpleLoggerTest] float 3.14%n" +
+        "2007-12-03 10:15:30.000+0000  INFO [o.l.SimpleLoggerTest] boxed 7 0.125%n" +
+        "2007-12-03 10:15:30.000+0000  INFO [o.l.SimpleLoggerTest] a:b:true%n" +
+        "2007-12-03 10:15:30.000+0000  INFO [o.l.SimpleLoggerTest] 1-2-3-4 {}%n" +
+        "2007-12-03 10:15:30.000+0000  INFO [o.l.SimpleLoggerTest] none null%n"));
+    // @formatter:on
+  }
+
+  @Test
+  void shouldFormatArgumentsWithRegisteredFormatters() {
+    ArgumentFormatter.register(OrderId.class, (id, out) -> {
+      out.append("order-");
+      out.append(Integer.toString(id.value));
+    });
+    ArgumentFormatter.register(Tagged.class, (tagged, out) -> out.append("tagged"));
+    ArgumentFormatter.register(Failing.class, (failing, out) -> {
+      throw new IllegalStateException();
+    });
+    LoggerProvider logProvider = SimpleLogger.usingCurrentTimeSupplier(() -> now).toPrintWriter(out);
+    Logger logger = logProvider.getLogger("");
+
+    logger.info("{} {}", new OrderId(42), new Object[] {new OrderId(7), new SpecialOrderId(8)});
+    logger.info("{} {}", new Failing(), new TaggedOrderId(9));
+    logger.info("{} {} {}", new StringBuilder("builder"), 1.5f, new float[] {0.1f, -2f});
+    // @formatter:off
+    assertThat(buffer.toString()).isEqualTo(String.format(
+        "2007-12-03 10:15:30.000+0000  INFO [] order-42 [order-7, order-8]%n" +
+        "2007-12-03 10:15:30.000+0000  INFO [] [FAILED formatTo()] order-9%n" +
+        "2007-12-03 10:15:30.000+0000  INFO [] builder 1.5 [0.1, -2.0]%n"));
+    // @formatter:on
+  }
+
+  @Test
+  void shouldOutputMarkerForCollectionElementsThatFail() {
+    LoggerProvider logProvider = SimpleLogger.usingCurrentTimeSupplier(() -> now).toPrintWriter(out);
+    Logger logger = logProvider.getLogger("");
+
+    Object failing = new Object() {
+      @Override
+      public String toString() {
+        throw new IllegalStateException();
+      }
+    };
+    CharSequence custom = new StringLike("content");
+    List<Object> modified = new ArrayList<Object>(Arrays.asList("a", "b")) {
+      @Override
+      public Iterator<Object> iterator() {
+        Iterator<Object> it = super.iterator();
+        return new Iterator<Object>() {
+          @Override
+          public boolean hasNext() {
+            return it.hasNext();
+          }
+
+          @Override
+          public Object next() {
+            Object next = it.next();
+            if (next.equals("b")) {
+              throw new ConcurrentModificationException();
+            }
+            return next;
+          }
+        };
+      }
+    };
+
+    logger.info("{} {}", Arrays.asList("a", failing, "c"), Collections.singletonMap(failing, "v"));
+    logger.info("{} {}", modified, custom);
+    // @formatter:off
+    assertThat(buffer.toString()).isEqualTo(String.format(
+        "2007-12-03 10:15:30.000+0000  INFO [] [a, [FAILED toString()], c] {[FAILED toString()]=v}%n" +
+        "2007-12-03 10:15:30.000+0000  INFO [] [a, [FAILED toString()] custom content%n"));
+    // @formatter:on
+  }
+
+  private static final class StringLike implements CharSequence {
+    private final String content;
+
+    StringLike(String content) {
+      this.content = content;
+    }
+
+    @Override
+    public int length() {
+      return content.length();
+    }
+
+    @Override
+    public char charAt(int index) {
+      return content.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return content.subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+      return "custom " + content;
+    }
+  }
+
+  private static class OrderId {
+    final int value;
+
+    OrderId(int value) {
+      this.value = value;
+    }
+  }
+
+  private static final class SpecialOrderId extends OrderId {
+    SpecialOrderId(int value) {
+      super(value);
+    }
+  }
+
+  private interface Tagged {}
+
+  // the superclass formatter is preferred over an interface formatter
+  private static final class TaggedOrderId extends OrderId implements Tagged {
+    TaggedOrderId(int value) {
+      super(value);
+    }
+  }
+
+  private static final class Failing {}
+
+  @Test
+  void shouldOutputBytes() throws Exception {
+    LoggerProvider logProvider = SimpleLogger.usingCurrentTimeSupplier(() -> now).toPrintWriter(out);
+    Logger logger = logProvider.getLogger("");
+    byte[] bytes = "Hello, world!\n\u0000\u00ff\u007f".getBytes(UTF_8);
+    ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+    direct.put(bytes);
+    direct.position(7);
+
+    logger.info("hex {}", LogMessage.hex(bytes, 4));
+    logger.info(LogMessage.hex(direct));
+    logger.info("{} {}", LogMessage.base64(bytes), LogMessage.base64(direct, 2));
+    logger.info("dump {}", LogMessage.hexDump(bytes));
+    logger.info("dump {}", LogMessage.hexDump(direct, 4));
+    // @formatter:off
+    assertThat(buffer.toString()).isEqualTo(String.format(
+        "2007-12-03 10:15:30.000+0000  INFO [] hex 48656c6c...(18 bytes)%n" +
+        "2007-12-03 10:15:30.000+0000  INFO [] 776f726c64210a00c3bf7f%n" +
+        "2007-12-03 10:15:30.000+0000  INFO [] SGVsbG8sIHdvcmxkIQoAw79/ d28=...(11 bytes)%n" +
+        "2007-12-03 10:15:30.000+0000  INFO [] dump %n" +
+        "00000000  48 65 6c 6c 6f 2c 20 77  6f 72 6c 64 21 0a 00 c3  |Hello, world!...|%n" +
+        "00000010  bf 7f                                             |..|%n" +
+        "2007-12-03 10:15:30.000+0000  INFO [] dump %n" +
+        "00000000  77 6f 72 6c                                       |worl|%n" +
+        "...(11 bytes)%n"));
     // @formatter:on
+    assertThat(direct.position()).isEqualTo(7);
+    for (int length = 0; length < 6; ++length) {
+      byte[] prefix = Arrays.copyOf(bytes, length);
+      StringBuilder builder = new StringBuilder();
+      LogMessage.base64(prefix).appendTo(Locale.ROOT, builder);
+      assertThat(builder.toString()).isEqualTo(Base64.getEncoder().encodeToString(prefix));
+    }
+  }
+
+  @Test
+  void shouldOutputPrintfSpecifiersAsFormatter() {
+    LoggerProvider logProvider = SimpleLogger.usingCurrentTimeSupplier(() -> now).toPrintWriter(out);
+    Logger logger = logProvider.getLogger("");
+    String[] formats =
+        {"%s|%-6s|%6s", "%d|%5d|%-5d|%05d", "%x|%X|%08x|%-4x", "%f|%.2f|%10.3f|%-9.1f|%09.0f", "%s %d 100%% done%n"};
+    Object[][] args = {
+        {"a", null, true},
+        {-42, Long.MIN_VALUE, (short) 7, (byte) -3},
+        {-1, 255L, (byte) -1, (short) -2},
+        {-0.0, 2.675, 1e-7f, 999999.96, -0.5},
+        {"all", 3}};
+
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < formats.length; ++i) {
+      logger.infof(formats[i], args[i]);
+      // the ',' flag is not compiled, so this line is rendered entirely by a Formatter
+      logger.infof(formats[i] + " %,d", append(args[i], 1234));
+      expected.append("2007-12-03 10:15:30.000+0000  INFO [] ").append(String.format(formats[i], args[i]));
+      expected.append(String.format("%n"));
+      expected.append("2007-12-03 10:15:30.000+0000  INFO [] ");
+      expected.append(String.format(formats[i] + " %,d", append(args[i], 1234)));
+      expected.append(String.format("%n"));
+    }
+    assertThat(buffer.toString()).isEqualTo(expected.toString());
+  }
+
+  private static Object[] append(Object[] args, Object arg) {
+    Object[] result = Arrays.copyOf(args, args.length + 1);
+    result[args.length] = arg;
+    return result;
+  }
+
+  @Test
+  void shouldNotAllocateWhenLoggingSynchronously() {
+    Writer discard = new Writer() {
+      @Override
+      public void write(char[] cbuf, int off, int len) {}
+
+      @Override
+      public void flush() {}
+
+      @Override
+      public void close() {}
+    };
+    LoggerProvider logProvider =
+        SimpleLogger.usingCurrentTimeSupplier(() -> now).toPrintWriter(new PrintWriter(discard));
+    Logger logger = logProvider.getLogger(getClass());
+    StringBuilder text = new StringBuilder("A mutable message");
+
+    Runnable logging = () -> {
+      logger.info(text);
+      logger.info("A long {}", 1234567890123L);
+      logger.info("A double {}", 0.125);
+      logger.info("User {} attempt {}", "alice", 3);
+      logger.info("{} {} {} {}", "a", "b", "c", "d");
+      logger.debug("A disabled level {}", 1L);
+      logger.batch(batch -> {
+        batch.info("A batched {}", 1L);
+        batch.warn("Another batched {}", 2L);
+      });
+    };
+
+    com.sun.management.ThreadMXBean threadMXBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+    for (int i = 0; i < 10000; ++i) {
+      logging.run();
+    }
+    int iterations = 100000;
+    long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < iterations; ++i) {
+      logging.run();
+    }
+    long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+    assertThat(allocated / iterations).isEqualTo(0);
   }
 
   @Test
@@ -169,4 +624,173 @@ class SimpleLoggerTest {
         "\tat org.logl.SimpleLoggerTest.test(foo.java:14)%n"));
     // @formatter:on
   }
+
+  @Test
+  void shouldNotFormatDisabledMessagesInBatches() {
+    AdjustableLoggerProvider logProvider = SimpleLogger.usingCurrentTimeSupplier(() -> now).toPrintWriter(out);
+    AdjustableLogger logger = logProvider.getLogger(SimpleLogger.class);
+    logger.setLevel(Level.WARN);
+
+    Object argument = new Object() {
+      @Override
+      public String toString() {
+        throw new AssertionError("disabled argument was formatted");
+      }
+    };
+    logger.batch(batchLogger -> {
+      batchLogger.debug("b1{}", argument);
+      batchLogger.debug(LogMessage.patternFormat("b2{}", argument));
+      batchLogger.info("b3{}", "output");
+      now = now.plusMillis(900);
+      batchLogger.warn("b4{}", "output");
+      now = now.plusMillis(900);
+      batchLogger.info(LogMessage.patternFormat("b5{}", "output"));
+      logger.setLevel(Level.INFO);
+    });
+    // @formatter:off
+    assertThat(buffer.toString()).isEqualTo(String.format(
+        "2007-12-03 10:15:30.000+0000  INFO [o.l.SimpleLogger] b3output%n" +
+        "2007-12-03 10:15:30.900+0000  WARN [o.l.SimpleLogger] b4output%n" +
+        "2007-12-03 10:15:31.800+0000  INFO [o.l.SimpleLogger] b5output%n"));
+    // @formatter:on
+  }
+
+  @Test
+  void shouldOutputMessagesLoggedWhileFormatting() {
+    LoggerProvider logProvider = SimpleLogger.usingCurrentTimeSupplier(() -> now).toPrintWriter(out);
+    Logger logger = logProvider.getLogger(SimpleLogger.class);
+
+    Object argument = new Object() {
+      @Override
+      public String toString() {
+        logger.warn("1output");
+        return "output";
+      }
+    };
+    logger.info("2{}", argument);
+    // @formatter:off
+    assertThat(buffer.toString()).isEqualTo(String.format(
+        "2007-12-03 10:15:30.000+0000  WARN [o.l.SimpleLogger] 1output%n" +
+        "2007-12-03 10:15:30.000+0000  INFO [o.l.SimpleLogger] 2output%n"));
+    // @formatter:on
+  }
+
+  @Test
+  void shouldOutputMessagesAsynchronously() {
+    AdjustableLoggerProvider logProvider = SimpleLogger.usingCurrentTimeSupplier(() -> now).async(4).toPrintWriter(out);
+    Logger logger = logProvider.getLogger(SimpleLogger.class);
+
+    RuntimeException ex = new RuntimeException("Something happened");
+    StackTraceElement element1 = new StackTraceElement("org.logl.SimpleLoggerTest", "foo", "foo.java", 63);
+    ex.setStackTrace(new StackTraceElement[] {element1});
+
+    logger.errorf("%d%s", 1, "output");
+    now = now.plusMillis(900);
+    logger.info("{}{}", 2, "output");
+    logger.debug("3output");
+    logger.batch(batchLogger -> {
+      batchLogger.info("b1output");
+      batchLogger.warn("b2{}", "output");
+    });
+    now = now.plusMillis(900);
+    logger.warn("4output", ex);
+    logProvider.close();
+    // @formatter:off
+    assertThat(buffer.toString()).isEqualTo(String.format(
+        "2007-12-03 10:15:30.000+0000 ERROR [o.l.SimpleLogger] 1output%n" +
+        "2007-12-03 10:15:30.900+0000  INFO [o.l.SimpleLogger] 2output%n" +
+        "2007-12-03 10:15:30.900+0000  INFO [o.l.SimpleLogger] b1output%n" +
+        "2007-12-03 10:15:30.900+0000  WARN [o.l.SimpleLogger] b2output%n" +
+        "2007-12-03 10:15:31.800+0000  WARN [o.l.SimpleLogger] 4output%n" +
+        "java.lang.RuntimeException: Something happened%n" +
+        "\tat org.logl.SimpleLoggerTest.foo(foo.java:63)%n"));
+    // @formatter:on
+
+    logger.info("5output");
+    assertThat(buffer.toString()).endsWith(String.format("  INFO [o.l.SimpleLogger] 5output%n"));
+  }
+
+  @Test
+  void shouldCaptureMutableMessagesInAsynchronousBatches() {
+    AdjustableLoggerProvider logProvider = SimpleLogger.usingCurrentTimeSupplier(() -> now).async(4).toPrintWriter(out);
+    Logger logger = logProvider.getLogger(SimpleLogger.class);
+
+    StringBuilder message = new StringBuilder();
+    logger.batch(batchLogger -> {
+      batchLogger.info(message.append("b1output"));
+      message.setLength(0);
+      batchLogger.info(message.append("b2output"));
+      message.setLength(0);
+    });
+    logProvider.close();
+    // @formatter:off
+    assertThat(buffer.toString()).isEqualTo(String.format(
+        "2007-12-03 10:15:30.000+0000  INFO [o.l.SimpleLogger] b1output%n" +
+        "2007-12-03 10:15:30.000+0000  INFO [o.l.SimpleLogger] b2output%n"));
+    // @formatter:on
+  }
+
+  @Test
+  void shouldOutputMarkerForAsynchronousMessagesThatFail() {
+    AdjustableLoggerProvider logProvider = SimpleLogger.usingCurrentTimeSupplier(() -> now).async(4).toPrintWriter(out);
+    Logger logger = logProvider.getLogger(SimpleLogger.class);
+
+    logger.info((locale, appendable) -> {
+      throw new IllegalStateException("broken");
+    });
+    logger.info("2output");
+    logProvider.close();
+    // @formatter:off
+    assertThat(buffer.toString()).isEqualTo(String.format(
+        "2007-12-03 10:15:30.000+0000  INFO [o.l.SimpleLogger] " +
+            "[FAILED to write log event: java.lang.IllegalStateException: broken]%n" +
+        "2007-12-03 10:15:30.000+0000  INFO [o.l.SimpleLogger] 2output%n"));
+    // @formatter:on
+  }
+
+  @Test
+  void shouldNotDropAsynchronousMessagesWhenFull() throws Exception {
+    AdjustableLoggerProvider logProvider = SimpleLogger.async(2).toPrintWriter(out);
+    Thread[] threads = new Thread[4];
+    for (int i = 0; i < threads.length; ++i) {
+      Logger logger = logProvider.getLogger("thread" + i);
+      threads[i] = new Thread(() -> {
+        for (int j = 0; j < 500; ++j) {
+          logger.info("{}output", j);
+        }
+      });
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    logProvider.close();
+
+    String[] lines = buffer.toString().split(System.lineSeparator());
+    assertThat(lines).hasSize(2000);
+    for (int i = 0; i < threads.length; ++i) {
+      String loggerName = "[thread" + i + "] ";
+      assertThat(lines).filteredOn(line -> line.contains(loggerName)).hasSize(500);
+    }
+  }
+
+  @Test
+  void shouldOutputMessagesToFile() throws Exception {
+    Path file = Files.createTempFile(getClass().getName(), ".log");
+    try {
+      AdjustableLoggerProvider logProvider = SimpleLogger.usingCurrentTimeSupplier(() -> now).toFile(file);
+      Logger logger = logProvider.getLogger("org.logl.StandardLoggerTest");
+
+      logger.info("1output");
+      logger.warn("2output \u00e9\u20ac");
+      logProvider.close();
+      // @formatter:off
+      assertThat(new String(Files.readAllBytes(file), UTF_8)).isEqualTo(String.format(
+          "2007-12-03 10:15:30.000+0000  INFO [o.l.StandardLoggerTest] 1output%n" +
+          "2007-12-03 10:15:30.000+0000  WARN [o.l.StandardLoggerTest] 2output \u00e9\u20ac%n"));
+      // @formatter:on
+    } finally {
+      Files.delete(file);
+    }
+  }
 }
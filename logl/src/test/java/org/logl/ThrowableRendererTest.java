@@ -0,0 +1,130 @@
+package org.logl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class ThrowableRendererTest {
+
+  private static String render(ThrowableRenderer renderer, Throwable throwable, long now) {
+    LineBuffer buffer = LineBuffer.acquire();
+    try {
+      renderer.render(throwable, now, buffer);
+      return buffer.toString();
+    } finally {
+      buffer.release();
+    }
+  }
+
+  private static String printStackTrace(Throwable throwable) {
+    StringWriter stringWriter = new StringWriter();
+    throwable.printStackTrace(new PrintWriter(stringWriter));
+    return stringWriter.toString();
+  }
+
+  private static StackTraceElement[] frames(String... methods) {
+    StackTraceElement[] frames = new StackTraceElement[methods.length];
+    for (int i = 0; i < methods.length; ++i) {
+      frames[i] = new StackTraceElement("org.logl.Example", methods[i], "Example.java", 10);
+    }
+    return frames;
+  }
+
+  @Test
+  void shouldRenderAsPrintStackTrace() {
+    Exception cause = new IllegalStateException("cause");
+    cause.setStackTrace(frames("inner", "middle", "outer", "main"));
+    Exception suppressed = new IllegalArgumentException("suppressed");
+    suppressed.setStackTrace(frames("close", "outer", "main"));
+    Exception ex = new RuntimeException("failed", cause);
+    ex.setStackTrace(frames("handle", "outer", "main"));
+    ex.addSuppressed(suppressed);
+
+    assertThat(render(ThrowableRenderer.standard(), ex, 0)).isEqualTo(printStackTrace(ex));
+  }
+
+  @Test
+  void shouldRenderCircularReferences() {
+    Exception first = new RuntimeException("first");
+    first.setStackTrace(frames("a", "main"));
+    Exception second = new RuntimeException("second", first);
+    second.setStackTrace(frames("b", "main"));
+    first.initCause(second);
+    first.addSuppressed(second);
+
+    String nl = System.lineSeparator();
+    // @formatter:off
+    assertThat(render(ThrowableRenderer.standard(), first, 0)).isEqualTo(
+        "java.lang.RuntimeException: first" + nl +
+        "\tat org.logl.Example.a(Example.java:10)" + nl +
+        "\tat org.logl.Example.main(Example.java:10)" + nl +
+        "\tSuppressed: java.lang.RuntimeException: second" + nl +
+        "\t\tat org.logl.Example.b(Example.java:10)" + nl +
+        "\t\t... 1 more" + nl +
+        "\tCaused by: [CIRCULAR REFERENCE: java.lang.RuntimeException: first]" + nl +
+        "Caused by: [CIRCULAR REFERENCE: java.lang.RuntimeException: second]" + nl);
+    // @formatter:on
+  }
+
+  @Test
+  void shouldLimitFramesPerThrowable() {
+    Exception cause = new IllegalStateException("cause");
+    cause.setStackTrace(frames("a", "b", "c", "d", "main"));
+    Exception ex = new RuntimeException("failed", cause);
+    ex.setStackTrace(frames("e", "f", "g", "main"));
+
+    String nl = System.lineSeparator();
+    // @formatter:off
+    assertThat(render(ThrowableRenderer.standard().withMaxDepth(2), ex, 0)).isEqualTo(
+        "java.lang.RuntimeException: failed" + nl +
+        "\tat org.logl.Example.e(Example.java:10)" + nl +
+        "\tat org.logl.Example.f(Example.java:10)" + nl +
+        "\t... 2 frames omitted" + nl +
+        "Caused by: java.lang.IllegalStateException: cause" + nl +
+        "\tat org.logl.Example.a(Example.java:10)" + nl +
+        "\tat org.logl.Example.b(Example.java:10)" + nl +
+        "\t... 2 frames omitted" + nl +
+        "\t... 1 more" + nl);
+    // @formatter:on
+  }
+
+  @Test
+  void shouldRejectInvalidSettings() {
+    assertThrows(IllegalArgumentException.class, () -> ThrowableRenderer.standard().withMaxDepth(0));
+    assertThrows(IllegalArgumentException.class, () -> ThrowableRenderer.standard().withRepeatWindow(Duration.ZERO));
+  }
+
+  @Test
+  void shouldCollapseRepeatedStackTracesWithinWindow() {
+    ThrowableRenderer renderer = ThrowableRenderer.standard().withRepeatWindow(Duration.ofSeconds(10));
+    Exception ex1 = new RuntimeException("first");
+    ex1.setStackTrace(frames("a", "main"));
+    Exception ex2 = new RuntimeException("second");
+    ex2.setStackTrace(frames("a", "main"));
+    Exception other = new IllegalStateException("other");
+    other.setStackTrace(frames("a", "main"));
+
+    String first = render(renderer, ex1, 1000);
+    String[] firstLines = first.split(System.lineSeparator());
+    assertThat(firstLines).hasSize(4);
+    assertThat(firstLines[0]).isEqualTo("java.lang.RuntimeException: first");
+    assertThat(firstLines[3]).matches("\t\\[stack trace [0-9a-f]{16}\\]");
+    String fingerprint = firstLines[3].substring(14, 30);
+
+    assertThat(render(renderer, ex2, 2000)).isEqualTo(
+        "java.lang.RuntimeException: second [stack trace " + fingerprint + ", repeated 1 time]"
+            + System.lineSeparator());
+    assertThat(render(renderer, ex1, 10999)).isEqualTo(
+        "java.lang.RuntimeException: first [stack trace " + fingerprint + ", repeated 2 times]"
+            + System.lineSeparator());
+    assertThat(render(renderer, other, 3000).split(System.lineSeparator())).hasSize(4);
+
+    // rendered in full again once the window has passed
+    assertThat(render(renderer, ex2, 11000).split(System.lineSeparator())).hasSize(4);
+  }
+}
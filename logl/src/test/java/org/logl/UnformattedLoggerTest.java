@@ -4,7 +4,17 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.CharArrayWriter;
 import java.io.PrintWriter;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -46,16 +56,96 @@ class UnformattedLoggerTest {
     logger.info(LogMessage.stringFormat("4-%,d", 123456789));
     logger.info(LogMessage.patternFormat("{}{}", 5, "output"));
     logger.info("{}{}", 6, "output");
+    logger.info("7{}", 'c');
+    logger.info("8-{}", 3.14f);
     // @formatter:off
     assertThat(buffer.toString()).isEqualTo(String.format(
         "1output%n" +
         "2output%n" +
         "4-123,456,789%n" +
         "5output%n" +
-        "6output%n"));
+        "6output%n" +
+        "7c%n" +
+        "8-3.14%n"));
+    // @formatter:on
+  }
+
+  @Test
+  void shouldTruncateLongMessagesAndArguments() {
+    LoggerProvider logProvider =
+        UnformattedLogger.withMaxMessageLength(40).withMaxArgumentLength(12).toPrintWriter(out);
+    Logger logger = logProvider.getLogger("");
+    char[] longString = new char[1000];
+    Arrays.fill(longString, 'x');
+    AtomicInteger rendered = new AtomicInteger();
+    List<Object> longList = new AbstractList<Object>() {
+      @Override
+      public Object get(int index) {
+        rendered.incrementAndGet();
+        return index;
+      }
+
+      @Override
+      public int size() {
+        return 100000;
+      }
+    };
+
+    logger.info("short {}", "argument");
+    logger.info("{} {}", new String(longString), 1);
+    logger.info("list {}", longList);
+    logger.info("{}{}{}{}{}", "a", "bb", "ccc", new int[] {1234567, 1234567, 1234567}, "eeeee");
+    logger.infof("%s %d", new String(longString), 1);
+    logger.info(new String(longString, 0, 41));
+    // @formatter:off
+    assertThat(buffer.toString()).isEqualTo(String.format(
+        "short argument%n" +
+        "xxxxxxxxxxxx...[truncated 988 chars] 1%n" +
+        "list [0, 1, 2, 3,...[truncated]%n" +
+        "abbccc[1234567, 12...[truncated]eeeee%n" +
+        "xxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxx...[truncated 962 chars]%n" +
+        "xxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxx...[truncated 1 chars]%n"));
+    // @formatter:on
+    assertThat(rendered.get()).isLessThan(10);
+  }
+
+  @Test
+  void shouldKeepTruncationMarkersWithinMessageLength() {
+    LoggerProvider logProvider =
+        UnformattedLogger.withMaxMessageLength(40).withMaxArgumentLength(10).toPrintWriter(out);
+    Logger logger = logProvider.getLogger("");
+    List<Integer> list = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+    char[] almostFull = new char[39];
+    Arrays.fill(almostFull, 'x');
+
+    logger.info("a {} b {} c", list, "0123456789ab");
+    logger.info("xxxxxxx{}yy", "01234567890123456789");
+    String pair = "\ud83d\ude00";
+    logger.info("{} an {}", "012345678" + pair + "z", pair + pair + pair + pair + pair + pair);
+    logger.info(new String(almostFull) + pair);
+    // @formatter:off
+    assertThat(buffer.toString()).isEqualTo(String.format(
+        "a [0, 1, 2, ...[truncated] b 0123456789...[truncated 4 chars]%n" +
+        "xxxxxxx0123456789...[truncated 12 chars]%n" +
+        "012345678...[truncated 3 chars] an \ud83d\ude00\ud83d\ude00...[truncated 8 chars]%n" +
+        "xxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxx...[truncated 2 chars]%n"));
     // @formatter:on
   }
 
+  @Test
+  void shouldOutputCollectionsAsToString() {
+    LoggerProvider logProvider = UnformattedLogger.toPrintWriter(out);
+    Logger logger = logProvider.getLogger("");
+    List<Object> list = new ArrayList<>(Arrays.asList(1, 2.5, "three", null, new int[0], Arrays.asList('a', 'b')));
+    list.add(list);
+    Map<Object, Object> map = new TreeMap<>();
+    map.put("a", list);
+    map.put("b", Collections.singletonMap(1L, 2.5f));
+
+    logger.info("{} {}", list, map);
+    assertThat(buffer.toString()).isEqualTo(String.format("%s %s%n", list, map));
+  }
+
   @Test
   void shouldOutputLocaleFormattedMessages() {
     LoggerProvider logProvider = UnformattedLogger.withLocale(Locale.GERMAN).toPrintWriter(out);
@@ -569,6 +569,102 @@ public final class Slf4jLogger implements Logger {
     }
   }
 
+  @Override
+  public void error(String pattern, Object arg) {
+    if (slf4jLogger.isErrorEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.error(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void error(String pattern, long arg) {
+    if (slf4jLogger.isErrorEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.error(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void error(String pattern, double arg) {
+    if (slf4jLogger.isErrorEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.error(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void error(String pattern, char arg) {
+    if (slf4jLogger.isErrorEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.error(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void error(String pattern, float arg) {
+    if (slf4jLogger.isErrorEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.error(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void error(String pattern, Object arg1, Object arg2) {
+    if (slf4jLogger.isErrorEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.error(pattern, arg1, arg2);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void error(String pattern, Object arg1, Object arg2, Object arg3) {
+    if (slf4jLogger.isErrorEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.error(pattern, arg1, arg2, arg3);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void error(String pattern, Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (slf4jLogger.isErrorEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.error(pattern, arg1, arg2, arg3, arg4);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
   @Override
   public boolean isWarnEnabled() {
     return slf4jLogger.isWarnEnabled();
@@ -591,6 +687,102 @@ public final class Slf4jLogger implements Logger {
     }
   }
 
+  @Override
+  public void warn(String pattern, Object arg) {
+    if (slf4jLogger.isWarnEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.warn(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void warn(String pattern, long arg) {
+    if (slf4jLogger.isWarnEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.warn(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void warn(String pattern, double arg) {
+    if (slf4jLogger.isWarnEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.warn(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void warn(String pattern, char arg) {
+    if (slf4jLogger.isWarnEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.warn(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void warn(String pattern, float arg) {
+    if (slf4jLogger.isWarnEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.warn(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void warn(String pattern, Object arg1, Object arg2) {
+    if (slf4jLogger.isWarnEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.warn(pattern, arg1, arg2);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void warn(String pattern, Object arg1, Object arg2, Object arg3) {
+    if (slf4jLogger.isWarnEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.warn(pattern, arg1, arg2, arg3);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void warn(String pattern, Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (slf4jLogger.isWarnEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.warn(pattern, arg1, arg2, arg3, arg4);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
   @Override
   public boolean isInfoEnabled() {
     return slf4jLogger.isInfoEnabled();
@@ -613,6 +805,102 @@ public final class Slf4jLogger implements Logger {
     }
   }
 
+  @Override
+  public void info(String pattern, Object arg) {
+    if (slf4jLogger.isInfoEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.info(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void info(String pattern, long arg) {
+    if (slf4jLogger.isInfoEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.info(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void info(String pattern, double arg) {
+    if (slf4jLogger.isInfoEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.info(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void info(String pattern, char arg) {
+    if (slf4jLogger.isInfoEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.info(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void info(String pattern, float arg) {
+    if (slf4jLogger.isInfoEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.info(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void info(String pattern, Object arg1, Object arg2) {
+    if (slf4jLogger.isInfoEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.info(pattern, arg1, arg2);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void info(String pattern, Object arg1, Object arg2, Object arg3) {
+    if (slf4jLogger.isInfoEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.info(pattern, arg1, arg2, arg3);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void info(String pattern, Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (slf4jLogger.isInfoEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.info(pattern, arg1, arg2, arg3, arg4);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
   @Override
   public boolean isDebugEnabled() {
     return slf4jLogger.isDebugEnabled();
@@ -635,6 +923,102 @@ public final class Slf4jLogger implements Logger {
     }
   }
 
+  @Override
+  public void debug(String pattern, Object arg) {
+    if (slf4jLogger.isDebugEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.debug(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void debug(String pattern, long arg) {
+    if (slf4jLogger.isDebugEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.debug(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void debug(String pattern, double arg) {
+    if (slf4jLogger.isDebugEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.debug(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void debug(String pattern, char arg) {
+    if (slf4jLogger.isDebugEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.debug(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void debug(String pattern, float arg) {
+    if (slf4jLogger.isDebugEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.debug(pattern, arg);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void debug(String pattern, Object arg1, Object arg2) {
+    if (slf4jLogger.isDebugEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.debug(pattern, arg1, arg2);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void debug(String pattern, Object arg1, Object arg2, Object arg3) {
+    if (slf4jLogger.isDebugEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.debug(pattern, arg1, arg2, arg3);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public void debug(String pattern, Object arg1, Object arg2, Object arg3, Object arg4) {
+    if (slf4jLogger.isDebugEnabled()) {
+      lock.readLock().lock();
+      try {
+        slf4jLogger.debug(pattern, arg1, arg2, arg3, arg4);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+  }
+
   @Override
   public void batch(Consumer<Logger> fn) {
     lock.writeLock().lock();